@@ -0,0 +1,50 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.benchmark.beans.SharedWidget;
+import com.chinaxing.ioc.benchmark.beans.Widget;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过容器获取工厂产品的开销：PROTOTYPE 产品每次调用工厂方法，SINGLETON 产品只调用一次；
+ * direct 是直接 new 的基线
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FactoryBenchmark {
+    private ChinaIOC ioc;
+
+    @Setup(Level.Trial)
+    public void initContainer() throws Exception {
+        ioc = new ChinaIOC("com.chinaxing.ioc.benchmark.beans", new Properties());
+        ioc.initContainer();
+    }
+
+    @Benchmark
+    public Object direct() {
+        return new Widget();
+    }
+
+    @Benchmark
+    public Object prototypeProduct() throws Exception {
+        return ioc.getChinaBean(Widget.class);
+    }
+
+    @Benchmark
+    public Object singletonProduct() throws Exception {
+        return ioc.getChinaBean(SharedWidget.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object singletonProductConcurrent() throws Exception {
+        return ioc.getChinaBean(SharedWidget.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 初始化完成后容器保留的堆大小，compact 比较压缩前后
+ * <p/>
+ * 每次调用创建一个容器并保持引用，前后各做两次 full GC，用已用堆的增量估算容器（包括 bean 实例）保留的字节数，
+ * 通过 @AuxCounters 报告为 retainedBytesPerBean。固定使用 G1，SerialGC 下 MemoryMXBean 的已用堆不能反映 GC 后的结果
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class HeapFootprintBenchmark {
+    @Param({"1000", "10000"})
+    public int beanCount;
+    @Param({"SHALLOW", "DEEP", "FACTORY"})
+    public SyntheticBeans.Shape shape;
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private SyntheticBeans beans;
+    private ChinaIOC retained;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerBean;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            retainedBytesPerBean = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        beans = SyntheticBeans.generate(beanCount, shape);
+    }
+
+    @TearDown(Level.Iteration)
+    public void release() {
+        retained = null;
+    }
+
+    @Benchmark
+    public void retainedHeap(Footprint footprint) throws Exception {
+        long before = usedHeap();
+        retained = startup();
+        long after = usedHeap();
+        footprint.retainedBytesPerBean = (after - before) / beanCount;
+    }
+
+    private ChinaIOC startup() throws Exception {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+        try {
+            ChinaIOCConfig config = new ChinaIOCConfig();
+            config.setCompactAfterInit(compact);
+            ChinaIOC ioc = new ChinaIOC(SyntheticBeans.PACKAGE, new Properties(), config);
+            ioc.initContainer();
+            return ioc;
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
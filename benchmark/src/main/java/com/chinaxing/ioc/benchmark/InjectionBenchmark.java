@@ -0,0 +1,68 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaBeanInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 构造和字段注入：core reflection 与 ChinaBeanInfo 中编译好的 MethodHandle 的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InjectionBenchmark {
+    public static class Target {
+        private Object value;
+        private final Object dependency;
+
+        public Target(Object dependency) {
+            this.dependency = dependency;
+        }
+    }
+
+    private final Object value = new Object();
+    private final Target target = new Target(value);
+    private Constructor<Target> constructor;
+    private Field field;
+    private ChinaBeanInfo beanInfo;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        constructor = Target.class.getConstructor(Object.class);
+        field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+        beanInfo = new ChinaBeanInfo(Target.class);
+        beanInfo.setConstructor(constructor);
+        beanInfo.setUnInjectedFields(new ArrayList<Field>(Collections.singletonList(field)));
+    }
+
+    @Benchmark
+    public Object constructReflection() throws Exception {
+        return constructor.newInstance(value);
+    }
+
+    @Benchmark
+    public Object constructMethodHandle() throws Throwable {
+        return beanInfo.newInstance(new Object[]{value});
+    }
+
+    @Benchmark
+    public Object injectReflection() throws Exception {
+        field.set(target, value);
+        return target;
+    }
+
+    @Benchmark
+    public Object injectMethodHandle() throws Throwable {
+        beanInfo.injectField(target, field, value);
+        return target;
+    }
+}
@@ -0,0 +1,200 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.BeanContainer;
+import com.chinaxing.ioc.BeanNotUniqueException;
+import com.chinaxing.ioc.BeanState;
+import com.chinaxing.ioc.ChinaBeanInfo;
+import com.chinaxing.ioc.InitializeBeanException;
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.ChinaBeanObjectType;
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.util.AnnotationClassSelector;
+import com.chinaxing.ioc.util.ReflectionUtil;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 依赖图初始化之前 ChinaIOC.preInitialClass 的不动点初始化，作为 StartupBenchmark 的基线
+ * <p/>
+ * 每一轮先实例化构造参数都已注入完成的 bean，再给已实例化的 bean 注入字段，直到没有剩下的 bean。
+ * 构造器依赖链每一轮只前进一个 bean，n 个 bean 要 n 轮、O(n²) 次尝试。
+ * 原实现每一轮递归一次，这里改成循环，否则一万个 bean 的链会栈溢出
+ */
+public class LegacyStartup {
+    private final Properties properties;
+    private final BeanContainer beanContainer = new BeanContainer();
+    private final Map<Class, ChinaBeanInfo> initialBeanMap = new HashMap<Class, ChinaBeanInfo>();
+    private final Map<Class, ChinaBeanInfo> instantBeanMap = new HashMap<Class, ChinaBeanInfo>();
+    private final Map<Class, ChinaBeanInfo> injectedBeanMap = new HashMap<Class, ChinaBeanInfo>();
+    private int rounds;
+
+    /**
+     * 扫描线程上下文 ClassLoader 中 basePackage 下的 @ChinaBean 类
+     */
+    public LegacyStartup(String basePackage, Properties properties) throws InitializeBeanException {
+        this.properties = properties;
+        List<Class<?>> classes = ReflectionUtil.listPackageClass(basePackage,
+                new AnnotationClassSelector<ChinaBean>(ChinaBean.class));
+        for (Class c : classes) {
+            initialBeanMap.put(c, beanInfo(c));
+        }
+    }
+
+    private static ChinaBeanInfo beanInfo(Class c) throws InitializeBeanException {
+        ChinaBean cb = (ChinaBean) c.getAnnotation(ChinaBean.class);
+        ChinaBeanInfo beanInfo = new ChinaBeanInfo(c);
+        if (!cb.value().isEmpty()) beanInfo.setBeanName(cb.value());
+        beanInfo.setUnInjectedFields(ReflectionUtil.getFieldWithAnnotation(c, Inject.class));
+        beanInfo.setHooks(ReflectionUtil.getMethodWithAnnotation(c, AfterInit.class));
+        beanInfo.setConstructor(ReflectionUtil.getUniqueConstructor(c));
+        if (cb.type() == ChinaBeanType.FACTORY_BEAN) {
+            List<Method> methods = ReflectionUtil.getMethodWithAnnotation(c, ChinaBeanFactoryMethod.class);
+            List<Method> objectTypes = ReflectionUtil.getMethodWithAnnotation(c, ChinaBeanObjectType.class);
+            if (methods.isEmpty() || objectTypes.isEmpty())
+                throw new InitializeBeanException("Factory Bean need factory method and object type : " + c.getName());
+            beanInfo.setFactoryBean(true);
+            beanInfo.setFactoryMethod(methods.get(0));
+            try {
+                beanInfo.setObjectType((Class) objectTypes.get(0).invoke(null));
+            } catch (Exception e) {
+                throw new InitializeBeanException(e);
+            }
+        }
+        return beanInfo;
+    }
+
+    public BeanContainer initContainer() throws InitializeBeanException {
+        while (!initialBeanMap.isEmpty() || !instantBeanMap.isEmpty()) {
+            preInitialClass();
+        }
+        for (ChinaBeanInfo beanInfo : injectedBeanMap.values()) {
+            try {
+                beanInfo.invokeHooks();
+            } catch (Throwable t) {
+                throw new InitializeBeanException(t);
+            }
+            beanInfo.setState(BeanState.HOOKED);
+        }
+        return beanContainer;
+    }
+
+    /**
+     * @return 初始化用了多少轮
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    private void preInitialClass() throws InitializeBeanException {
+        rounds++;
+        int beforeSize = injectedBeanMap.size();
+        // 实例化 bean
+        Iterator<Map.Entry<Class, ChinaBeanInfo>> iterator = initialBeanMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Class, ChinaBeanInfo> entry = iterator.next();
+            ChinaBeanInfo beanInfo = entry.getValue();
+            Object instance = instantBean(beanInfo);
+            if (instance != null) {
+                beanInfo.setBeanInstance(instance);
+                beanInfo.setState(BeanState.INSTANT);
+                instantBeanMap.put(entry.getKey(), beanInfo);
+                beanContainer.registerBean(beanInfo);
+                iterator.remove();
+            }
+        }
+        // 注入 bean
+        iterator = instantBeanMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Class, ChinaBeanInfo> entry = iterator.next();
+            ChinaBeanInfo beanInfo = entry.getValue();
+            if (injectBean(beanInfo)) {
+                beanInfo.setState(BeanState.INJECTED);
+                injectedBeanMap.put(entry.getKey(), beanInfo);
+                iterator.remove();
+            }
+        }
+        if (beforeSize == injectedBeanMap.size()) {
+            throw new InitializeBeanException("cannot init container ...");
+        }
+    }
+
+    private Object instantBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        Constructor c = beanInfo.getConstructor();
+        Parameter[] parameters = c.getParameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            try {
+                args[i] = beanContainer.getInjectedBeanOfType(parameters[i].getType());
+            } catch (BeanNotUniqueException e) {
+                throw new InitializeBeanException(e);
+            }
+            // 参数还没有注入完成，下一轮再实例化
+            if (args[i] == null) return null;
+        }
+        try {
+            return beanInfo.newInstance(args);
+        } catch (Throwable t) {
+            throw new InitializeBeanException(t);
+        }
+    }
+
+    private boolean injectBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        Object instance = beanInfo.getBeanInstance();
+        List<Field> unInjectedFields = beanInfo.getUnInjectedFields();
+        List<Field> injectedFields = beanInfo.getInjectedFields();
+        for (Field f : unInjectedFields) {
+            Inject inject = f.getAnnotation(Inject.class);
+            Object injectMember;
+            if (inject.property()) {
+                injectMember = properties.get(inject.propertyName());
+                try {
+                    ReflectionUtil.setFieldByProperty(instance, f, injectMember);
+                } catch (Throwable t) {
+                    throw new InitializeBeanException(t);
+                }
+                injectedFields.add(f);
+                continue;
+            }
+            if (Collection.class.isAssignableFrom(f.getType())) {
+                List<Object> beans = (List<Object>) beanContainer.getBeansOfType(f.getType());
+                if (List.class.isAssignableFrom(f.getType())) {
+                    injectMember = beans;
+                } else if (Set.class.isAssignableFrom(f.getType())) {
+                    injectMember = new HashSet<Object>(beans);
+                } else {
+                    throw new InitializeBeanException("current only support Set and List collection type");
+                }
+            } else {
+                try {
+                    injectMember = beanContainer.getBeanOfType(f.getType());
+                } catch (BeanNotUniqueException e) {
+                    throw new InitializeBeanException(e);
+                }
+            }
+            if (injectMember != null) {
+                try {
+                    beanInfo.injectField(instance, f, injectMember);
+                } catch (Throwable t) {
+                    throw new InitializeBeanException(t);
+                }
+                injectedFields.add(f);
+            }
+        }
+        unInjectedFields.removeAll(injectedFields);
+        return unInjectedFields.isEmpty();
+    }
+}
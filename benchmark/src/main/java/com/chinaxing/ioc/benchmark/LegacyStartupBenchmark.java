@@ -0,0 +1,44 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.BeanContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StartupBenchmark 的基线：同样的合成 bean 包用原来的不动点循环初始化，见 LegacyStartup
+ * <p/>
+ * 字段注入的 DEEP 形状第一轮就能创建所有 bean，两轮完成；DEEP_CONSTRUCTOR 每轮只前进一个 bean，
+ * 和 StartupBenchmark 的 DEEP_CONSTRUCTOR 对比即 O(n²) 和 O(n) 的差别
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyStartupBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int beanCount;
+    @Param({"SHALLOW", "DEEP", "DEEP_CONSTRUCTOR", "FACTORY"})
+    public SyntheticBeans.Shape shape;
+
+    private SyntheticBeans beans;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        beans = SyntheticBeans.generate(beanCount, shape);
+    }
+
+    @Benchmark
+    public BeanContainer startup() throws Exception {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+        try {
+            return new LegacyStartup(SyntheticBeans.PACKAGE, new Properties()).initContainer();
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+}
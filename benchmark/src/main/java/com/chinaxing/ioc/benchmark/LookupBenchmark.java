@@ -0,0 +1,96 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 初始化完成后 getChinaBean / getChinaBeansOfType 的吞吐，单线程和多线程；
+ * readWrite 组在查询的同时不断注册新 bean，测试注册对查询的影响；
+ * metrics 对比开启、关闭运行时统计时的查询开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int beanCount;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ChinaIOC ioc;
+    private Class<?> leafClass;
+    private Class<?> rootClass;
+
+    public static class RegisteredBean {
+    }
+
+    @Setup(Level.Iteration)
+    public void initContainer() throws Exception {
+        SyntheticBeans beans = SyntheticBeans.generate(beanCount, SyntheticBeans.Shape.SHALLOW);
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+        try {
+            ChinaIOCConfig config = new ChinaIOCConfig();
+            config.setMetricsEnabled(metrics);
+            ioc = new ChinaIOC(SyntheticBeans.PACKAGE, new Properties(), config);
+            ioc.initContainer();
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+        leafClass = beans.beanClass(beanCount - 1);
+        rootClass = beans.beanClass(0);
+    }
+
+    /**
+     * 关闭容器同时注销统计的 MBean，避免每轮迭代留下一个
+     */
+    @TearDown(Level.Iteration)
+    public void closeContainer() {
+        ioc.close();
+    }
+
+    @Benchmark
+    public Object getBean() throws Exception {
+        return ioc.getChinaBean(leafClass);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getBeanConcurrent() throws Exception {
+        return ioc.getChinaBean(leafClass);
+    }
+
+    @Benchmark
+    public List<SyntheticService> getBeansOfType() {
+        return ioc.getChinaBeansOfType(SyntheticService.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<SyntheticService> getBeansOfTypeConcurrent() {
+        return ioc.getChinaBeansOfType(SyntheticService.class);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Object read() throws Exception {
+        return ioc.getChinaBean(rootClass);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void register() {
+        ioc.addBean(RegisteredBean.class, new RegisteredBean());
+    }
+}
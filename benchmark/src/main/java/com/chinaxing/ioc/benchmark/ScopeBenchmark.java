@@ -0,0 +1,50 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.benchmark.beans.PooledWorker;
+import com.chinaxing.ioc.benchmark.beans.PrototypeWorker;
+import com.chinaxing.ioc.benchmark.beans.SingletonWorker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同作用域获取一个实例的开销：单例直接返回，PROTOTYPE 每次创建并注入，POOLED 借出后归还
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScopeBenchmark {
+    private ChinaIOC ioc;
+
+    @Setup(Level.Trial)
+    public void initContainer() throws Exception {
+        ioc = new ChinaIOC("com.chinaxing.ioc.benchmark.beans", new Properties());
+        ioc.initContainer();
+    }
+
+    @Benchmark
+    public Object singleton() throws Exception {
+        return ioc.getChinaBean(SingletonWorker.class);
+    }
+
+    @Benchmark
+    public Object prototype() throws Exception {
+        return ioc.getChinaBean(PrototypeWorker.class);
+    }
+
+    @Benchmark
+    public boolean pooled() throws Exception {
+        return ioc.releaseChinaBean(ioc.getChinaBean(PooledWorker.class));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean pooledConcurrent() throws Exception {
+        return ioc.releaseChinaBean(ioc.getChinaBean(PooledWorker.class));
+    }
+}
@@ -0,0 +1,55 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import com.chinaxing.ioc.StartupMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 容器构造（发现 bean、解析 bean 信息）加 initContainer 的耗时
+ * <p/>
+ * startupMode 比较包扫描和编译期 bean 索引，parallelism 比较顺序和并行初始化，DEEP 形状是一条依赖链。
+ * 原来的不动点初始化见 LegacyStartupBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int beanCount;
+    @Param({"SHALLOW", "DEEP", "DEEP_CONSTRUCTOR", "FACTORY"})
+    public SyntheticBeans.Shape shape;
+    @Param({"SCAN", "INDEX"})
+    public StartupMode startupMode;
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private SyntheticBeans beans;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        beans = SyntheticBeans.generate(beanCount, shape);
+    }
+
+    @Benchmark
+    public ChinaIOC startup() throws Exception {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+        try {
+            ChinaIOCConfig config = new ChinaIOCConfig();
+            config.setStartupMode(startupMode);
+            config.setParallelism(parallelism);
+            ChinaIOC ioc = new ChinaIOC(SyntheticBeans.PACKAGE, new Properties(), config);
+            ioc.initContainer();
+            return ioc;
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.chinaxing.ioc.benchmark;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 生成并编译一个合成的 bean 包，编译时带上 bean 索引处理器，所以同一个包既可以扫描也可以读索引
+ * <p/>
+ * 编译结果缓存在 java.io.tmpdir 下，JMH 每个 fork 不需要重新编译
+ */
+public class SyntheticBeans {
+    public static final String PACKAGE = "synthetic";
+    /**
+     * 前 ROOTS 个 bean 没有依赖，SHALLOW 和 FACTORY 形状中其他 bean 都只依赖它们
+     */
+    public static final int ROOTS = 10;
+    private static final int GENERATOR_VERSION = 1;
+
+    public enum Shape {
+        /**
+         * bean i 依赖 bean i % ROOTS，深度为 1
+         */
+        SHALLOW,
+        /**
+         * bean i 依赖 bean i - 1，一条长度为 count 的链
+         */
+        DEEP,
+        /**
+         * 和 DEEP 相同的链，依赖通过构造参数注入，bean 要等前一个 bean 注入完成才能创建
+         */
+        DEEP_CONSTRUCTOR,
+        /**
+         * 前 ROOTS 个 bean 是工厂 bean，其他 bean 依赖工厂产品
+         */
+        FACTORY
+    }
+
+    private final int count;
+    private final Shape shape;
+    private final ClassLoader classLoader;
+
+    private SyntheticBeans(int count, Shape shape, ClassLoader classLoader) {
+        this.count = count;
+        this.shape = shape;
+        this.classLoader = classLoader;
+    }
+
+    public static SyntheticBeans generate(int count, Shape shape) throws IOException {
+        File dir = new File(System.getProperty("java.io.tmpdir"),
+                "china-ioc-benchmark/v" + GENERATOR_VERSION + "/" + shape.name().toLowerCase() + "-" + count);
+        File complete = new File(dir, "complete");
+        if (!complete.exists()) {
+            compile(dir, count, shape);
+            if (!complete.createNewFile()) throw new IOException("cannot create " + complete);
+        }
+        File classes = new File(dir, "classes");
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()},
+                SyntheticBeans.class.getClassLoader());
+        return new SyntheticBeans(count, shape, classLoader);
+    }
+
+    private static void compile(File dir, int count, Shape shape) throws IOException {
+        File src = new File(dir, "src/" + PACKAGE);
+        File classes = new File(dir, "classes");
+        if (!src.isDirectory() && !src.mkdirs() || !classes.isDirectory() && !classes.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < count; i++) {
+            files.add(write(src, "Bean" + i, bean(i, shape)));
+            if (shape == Shape.FACTORY && i < ROOTS) {
+                files.add(write(src, "Product" + i, product(i)));
+            }
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IOException("benchmarks need a JDK to compile synthetic beans");
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            List<String> options = Arrays.asList(
+                    "-d", classes.getPath(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-processor", "com.chinaxing.ioc.index.ChinaBeanIndexProcessor",
+                    "-nowarn");
+            Boolean ok = compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+            if (!ok) throw new IOException("compile synthetic beans failed : " + dir);
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static String bean(int i, Shape shape) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE).append(";\n\n");
+        sb.append("import com.chinaxing.ioc.annotation.*;\n\n");
+        if (shape == Shape.FACTORY && i < ROOTS) {
+            sb.append("@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)\n");
+            sb.append("public class Bean").append(i).append(" {\n");
+            sb.append("    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)\n");
+            sb.append("    public Product").append(i).append(" create() { return new Product").append(i).append("(); }\n\n");
+            sb.append("    @ChinaBeanObjectType\n");
+            sb.append("    public static Class type() { return Product").append(i).append(".class; }\n");
+            sb.append("}\n");
+            return sb.toString();
+        }
+        sb.append("@ChinaBean\n");
+        sb.append("public class Bean").append(i).append(" implements ").append(SyntheticService.class.getName()).append(" {\n");
+        String dependency = dependency(i, shape);
+        if (dependency != null && shape == Shape.DEEP_CONSTRUCTOR) {
+            sb.append("    private final ").append(dependency).append(" dependency;\n\n");
+            sb.append("    @Inject\n");
+            sb.append("    public Bean").append(i).append("(").append(dependency).append(" dependency) {\n");
+            sb.append("        this.dependency = dependency;\n");
+            sb.append("    }\n");
+        } else if (dependency != null) {
+            sb.append("    @Inject\n");
+            sb.append("    ").append(dependency).append(" dependency;\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String dependency(int i, Shape shape) {
+        switch (shape) {
+            case DEEP:
+            case DEEP_CONSTRUCTOR:
+                return i == 0 ? null : "Bean" + (i - 1);
+            case FACTORY:
+                return i < ROOTS ? null : "Product" + (i % ROOTS);
+            default:
+                return i < ROOTS ? null : "Bean" + (i % ROOTS);
+        }
+    }
+
+    private static String product(int i) {
+        return "package " + PACKAGE + ";\n\npublic class Product" + i + " {\n}\n";
+    }
+
+    private static File write(File dir, String className, String source) throws IOException {
+        File file = new File(dir, className + ".java");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * 容器通过线程上下文 ClassLoader 发现 bean，创建容器前要先设置
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    public Class<?> beanClass(int i) throws ClassNotFoundException {
+        return classLoader.loadClass(PACKAGE + ".Bean" + i);
+    }
+
+    public Class<?> productClass(int i) throws ClassNotFoundException {
+        return classLoader.loadClass(PACKAGE + ".Product" + i);
+    }
+}
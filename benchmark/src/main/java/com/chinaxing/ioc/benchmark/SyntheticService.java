@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.benchmark;
+
+/**
+ * 生成的 bean 都实现这个接口，用来测试 getChinaBeansOfType
+ */
+public interface SyntheticService {
+}
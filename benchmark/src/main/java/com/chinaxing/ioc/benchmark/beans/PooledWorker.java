@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.benchmark.beans;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean(scope = ChinaBeanScope.POOLED)
+public class PooledWorker {
+    @Inject
+    SharedWidget widget;
+    private final byte[] buffer = new byte[1024];
+}
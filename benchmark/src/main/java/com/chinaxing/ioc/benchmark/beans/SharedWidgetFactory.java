@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.benchmark.beans;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class SharedWidgetFactory {
+    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)
+    public SharedWidget create() {
+        return new SharedWidget();
+    }
+
+    @ChinaBeanObjectType
+    public static Class objectType() {
+        return SharedWidget.class;
+    }
+}
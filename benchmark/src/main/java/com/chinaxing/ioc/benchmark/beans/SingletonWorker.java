@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.benchmark.beans;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class SingletonWorker {
+    @Inject
+    SharedWidget widget;
+    private final byte[] buffer = new byte[1024];
+}
@@ -0,0 +1,4 @@
+package com.chinaxing.ioc.benchmark.beans;
+
+public class Widget {
+}
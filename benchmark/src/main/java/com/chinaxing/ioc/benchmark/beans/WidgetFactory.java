@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.benchmark.beans;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class WidgetFactory {
+    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.PROTOTYPE)
+    public Widget create() {
+        return new Widget();
+    }
+
+    @ChinaBeanObjectType
+    public static Class objectType() {
+        return Widget.class;
+    }
+}
@@ -0,0 +1,117 @@
+package com.chinaxing.ioc.benchmark;
+
+import com.chinaxing.ioc.BeanContainer;
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import com.chinaxing.ioc.StartupMode;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class SyntheticBeansTest {
+    private static final int COUNT = 25;
+
+    private static ChinaIOC start(SyntheticBeans beans, StartupMode startupMode) throws Exception {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+        try {
+            ChinaIOCConfig config = new ChinaIOCConfig();
+            config.setStartupMode(startupMode);
+            ChinaIOC ioc = new ChinaIOC(SyntheticBeans.PACKAGE, new Properties(), config);
+            ioc.initContainer();
+            return ioc;
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    private static Object dependency(Object bean) throws Exception {
+        Field field;
+        try {
+            field = bean.getClass().getDeclaredField("dependency");
+        } catch (NoSuchFieldException e) {
+            // 根 bean 没有依赖
+            return null;
+        }
+        field.setAccessible(true);
+        return field.get(bean);
+    }
+
+    private static void assertShape(SyntheticBeans beans, StartupMode startupMode) throws Exception {
+        ChinaIOC ioc = start(beans, startupMode);
+        try {
+            for (int i = 0; i < COUNT; i++) {
+                Class<?> beanClass = beans.beanClass(i);
+                Object bean = ioc.getChinaBean(beanClass);
+                assertNotNull(beanClass.getName(), bean);
+                Object expected;
+                switch (beans.getShape()) {
+                    case DEEP:
+                    case DEEP_CONSTRUCTOR:
+                        expected = i == 0 ? null : ioc.getChinaBean(beans.beanClass(i - 1));
+                        break;
+                    case FACTORY:
+                        if (i < SyntheticBeans.ROOTS) continue;
+                        expected = ioc.getChinaBean(beans.productClass(i % SyntheticBeans.ROOTS));
+                        assertNotNull(expected);
+                        break;
+                    default:
+                        expected = i < SyntheticBeans.ROOTS ? null : ioc.getChinaBean(beans.beanClass(i % SyntheticBeans.ROOTS));
+                }
+                assertSame(beanClass.getName(), expected, dependency(bean));
+            }
+            int services = beans.getShape() == SyntheticBeans.Shape.FACTORY ? COUNT - SyntheticBeans.ROOTS : COUNT;
+            assertEquals(services, ioc.getChinaBeansOfType(SyntheticService.class).size());
+        } finally {
+            ioc.close();
+        }
+    }
+
+    @Test
+    public void generatedPackageStartsByScanAndByIndex() throws Exception {
+        for (SyntheticBeans.Shape shape : SyntheticBeans.Shape.values()) {
+            SyntheticBeans beans = SyntheticBeans.generate(COUNT, shape);
+            assertEquals(COUNT, beans.getCount());
+            assertShape(beans, StartupMode.SCAN);
+            assertShape(beans, StartupMode.INDEX);
+        }
+    }
+
+    @Test
+    public void legacyStartupWiresEveryShape() throws Exception {
+        for (SyntheticBeans.Shape shape : SyntheticBeans.Shape.values()) {
+            SyntheticBeans beans = SyntheticBeans.generate(COUNT, shape);
+            ClassLoader previous = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(beans.getClassLoader());
+            LegacyStartup legacy;
+            BeanContainer container;
+            try {
+                legacy = new LegacyStartup(SyntheticBeans.PACKAGE, new Properties());
+                container = legacy.initContainer();
+            } finally {
+                Thread.currentThread().setContextClassLoader(previous);
+            }
+            for (int i = SyntheticBeans.ROOTS; i < COUNT; i++) {
+                assertNotNull(shape + " " + i, dependency(container.getBeanOfType(beans.beanClass(i))));
+            }
+            if (shape == SyntheticBeans.Shape.DEEP_CONSTRUCTOR) {
+                // 构造器依赖链每轮只创建一个 bean
+                assertEquals(COUNT, legacy.getRounds());
+            } else {
+                assertTrue(shape + " rounds " + legacy.getRounds(), legacy.getRounds() <= 2);
+            }
+        }
+    }
+
+    @Test
+    public void compiledPackageIsReused() throws Exception {
+        SyntheticBeans first = SyntheticBeans.generate(COUNT, SyntheticBeans.Shape.SHALLOW);
+        SyntheticBeans second = SyntheticBeans.generate(COUNT, SyntheticBeans.Shape.SHALLOW);
+        // 第二次直接加载缓存的 class 文件，不重新编译
+        assertEquals(first.beanClass(0).getName(), second.beanClass(0).getName());
+        assertNotNull(second.getClassLoader().getResource("META-INF/china-ioc/beans.idx"));
+    }
+}
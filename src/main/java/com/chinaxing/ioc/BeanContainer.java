@@ -1,80 +1,216 @@
 package com.chinaxing.ioc;
 
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
 import com.chinaxing.ioc.util.CollectionUtil;
-import com.chinaxing.ioc.util.ReflectionUtil;
+import com.chinaxing.ioc.util.TypeHierarchy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 /**
+ * 查询完全不加锁；注册之间互斥，但不阻塞查询
+ * <p/>
+ * 每次注册得到一个新版本号，bean 先以新版本号写入它的所有类型（包括展开的父类、接口），
+ * 最后才发布版本号。查询只看版本号不大于已发布版本的 bean，所以一次注册的所有类型对查询是原子可见的
+ * <p/>
+ * 子容器只保存自己的 bean，本地没有的类型直接交给父容器查询，不复制父容器的数据
  * Created by lenovo on 2015/1/29.
  */
 public class BeanContainer {
     private static final Logger logger = LoggerFactory.getLogger(BeanContainer.class);
-    Map<Class, List<ChinaBeanInfo>> classBeans = new HashMap<Class, List<ChinaBeanInfo>>();
-    Map<String, ChinaBeanInfo> namedBeans = new HashMap<String, ChinaBeanInfo>();
+    private final Map<Class, TypeBeans> classBeans = new ConcurrentHashMap<Class, TypeBeans>();
+    /**
+     * bean 名称 -> bean，只有声明的名称（@ChinaBean(value) 或类名），不包含父类、接口名
+     */
+    private final Map<String, ChinaBeanInfo> namedBeans = new ConcurrentHashMap<String, ChinaBeanInfo>();
+    /**
+     * 已发布的版本
+     */
+    private volatile long version;
+    /**
+     * freeze 之后的只读索引，注册新 bean 时作废涉及的类型
+     */
+    private volatile FrozenBeanIndex frozenIndex;
+    /**
+     * 元素类型 -> 注入用的共享 bean 集合
+     */
+    private final Map<Class, BeanCollection> beanCollections = new ConcurrentHashMap<Class, BeanCollection>();
+    /**
+     * 子容器的父容器：本容器没有某个类型的 bean 时到父容器查询，本容器的 bean 覆盖父容器同类型的 bean
+     */
+    private final BeanContainer parent;
+    /**
+     * 运行时统计，没有开启时为 null
+     */
+    private final ContainerMetrics metrics;
 
-    public <T> void registerBean(Class<T> tClass, T object, boolean expand, boolean isFactoryBean, Method factoryMethod, Class objectType) {
+    public BeanContainer() {
+        this(null);
+    }
+
+    public BeanContainer(BeanContainer parent) {
+        this(parent, null);
+    }
+
+    public BeanContainer(BeanContainer parent, ContainerMetrics metrics) {
+        this.parent = parent;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 初始化完成后调用，之后的查询走只读索引
+     */
+    public synchronized void freeze() {
+        createSingletonProducts(namedBeans.values());
+        frozenIndex = new FrozenBeanIndex(this);
+    }
+
+    /**
+     * 建索引之前先创建 SINGLETON 作用域的工厂产品，索引只读取已经创建的产品，不调用工厂方法；
+     * 创建失败时记录日志，留给普通查询路径处理
+     */
+    private static void createSingletonProducts(Collection<ChinaBeanInfo> beanInfos) {
+        for (ChinaBeanInfo beanInfo : beanInfos) {
+            if (!beanInfo.isFactoryBean() || beanInfo.getFactoryScope() != ChinaBeanScope.SINGLETON) continue;
+            if (beanInfo.getFactoryMethod().getParameterCount() != 0) continue;
+            try {
+                beanInfo.getFactoryProduct();
+            } catch (Throwable e) {
+                logger.error("create bean of : {} by factory method : {} ", beanInfo, beanInfo.getFactoryMethod(), e);
+            }
+        }
+    }
+
+    public boolean isFrozen() {
+        return frozenIndex != null;
+    }
+
+    FrozenBeanIndex getFrozenIndex() {
+        return frozenIndex;
+    }
+
+    /**
+     * @return 当前已发布版本中该类型的 bean，不可修改
+     */
+    List<ChinaBeanInfo> getBeanInfos(Class tClass) {
+        if (delegates(tClass)) return parent.getBeanInfos(tClass);
+        return getBeanInfos(tClass, version);
+    }
+
+    /**
+     * @return 本容器没有该类型的 bean，要交给父容器查询
+     */
+    private boolean delegates(Class tClass) {
+        if (parent == null) return false;
+        TypeBeans beans = classBeans.get(tClass);
+        return beans == null || beans.visible(version).isEmpty();
+    }
+
+    /**
+     * @return 本容器中该类型的 bean 数，不包括父容器
+     */
+    int countLocalBeansOfType(Class tClass) {
+        return getLocalBeanInfos(tClass).size();
+    }
+
+    /**
+     * @return 当前已发布版本中本容器该类型的 bean，不包括父容器
+     */
+    List<ChinaBeanInfo> getLocalBeanInfos(Class tClass) {
+        return getBeanInfos(tClass, version);
+    }
+
+    /**
+     * @return 该名称的 bean，本容器没有时到父容器查询，都没有时返回 null
+     */
+    ChinaBeanInfo getBeanInfo(String name) {
+        ChinaBeanInfo beanInfo = namedBeans.get(name);
+        if (beanInfo == null && parent != null) return parent.getBeanInfo(name);
+        return beanInfo;
+    }
+
+    /**
+     * @return 本容器中是否已有该名称的 bean，不包括父容器
+     */
+    boolean containsLocalName(String name) {
+        return namedBeans.containsKey(name);
+    }
+
+    List<ChinaBeanInfo> getBeanInfos(Class tClass, long atVersion) {
+        TypeBeans beans = classBeans.get(tClass);
+        if (beans == null) return Collections.emptyList();
+        return beans.visible(atVersion);
+    }
+
+    public synchronized <T> void registerBean(Class<T> tClass, T object, boolean expand, boolean isFactoryBean, Method factoryMethod, Class objectType) {
         ChinaBeanInfo chinaBeanInfo = new ChinaBeanInfo(tClass);
         chinaBeanInfo.setBeanInstance(object);
         chinaBeanInfo.setFactoryBean(isFactoryBean);
         chinaBeanInfo.setFactoryMethod(factoryMethod);
         chinaBeanInfo.setObjectType(objectType);
         chinaBeanInfo.setState(BeanState.HOOKED);
-        CollectionUtil.addMapList(classBeans, tClass, chinaBeanInfo);
-        namedBeans.put(tClass.getName(), chinaBeanInfo);
+        chinaBeanInfo.getReadyFuture().complete(null);
+        Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+        types.add(tClass);
         if (expand) {
-            expandContainer(tClass, chinaBeanInfo);
+            types.addAll(TypeHierarchy.getSuperTypes(tClass));
         }
-
         if (isFactoryBean) {
-            CollectionUtil.addMapList(classBeans, objectType, chinaBeanInfo);
-            namedBeans.put(objectType.getName(), chinaBeanInfo);
+            types.add(objectType);
         }
+        publish(chinaBeanInfo, types, tClass.getName());
     }
 
     public <T> List<T> getBeansOfType(Class<T> tClass) {
+        if (delegates(tClass)) return parent.getBeansOfType(tClass);
+        if (metrics != null) metrics.lookup(tClass);
+        FrozenBeanIndex index = frozenIndex;
+        if (index != null) {
+            List<Object> beans = index.get(tClass).beans;
+            if (beans != null) return (List<T>) beans;
+        }
         List<T> result = new ArrayList<T>();
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
-        if (beans == null) return result;
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
         for (ChinaBeanInfo chinaBeanInfo : beans) {
             if (chinaBeanInfo.isFactoryBean() && tClass == chinaBeanInfo.getObjectType()) {
                 Method m = chinaBeanInfo.getFactoryMethod();
                 if (m.getParameterCount() == 0) {
                     try {
-                        T r = (T) m.invoke(chinaBeanInfo.getBeanInstance());
+                        T r = (T) chinaBeanInfo.getFactoryProduct();
                         result.add(r);
-                    } catch (Exception e) {
+                    } catch (Throwable e) {
                         logger.error("create bean of : {} by factory method : {} ", chinaBeanInfo, m, e);
                     }
                 }
             } else {
-                result.add((T) chinaBeanInfo.getBeanInstance());
+                result.add((T) instanceOf(chinaBeanInfo));
             }
         }
         return result;
     }
 
     public <T> List<T> getInjectedBeansOfType(Class<T> tClass) {
+        if (delegates(tClass)) return parent.getInjectedBeansOfType(tClass);
         List<T> result = new ArrayList<T>();
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
-        if (beans == null) return result;
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
         for (ChinaBeanInfo chinaBeanInfo : beans) {
             if (chinaBeanInfo.getState().equals(BeanState.INJECTED) || chinaBeanInfo.getState().equals(BeanState.HOOKED)) {
                 if (chinaBeanInfo.isFactoryBean() && tClass == chinaBeanInfo.getObjectType()) {
                     Method m = chinaBeanInfo.getFactoryMethod();
                     if (m.getParameterCount() == 0) {
                         try {
-                            T r = (T) m.invoke(chinaBeanInfo.getBeanInstance());
+                            T r = (T) chinaBeanInfo.getFactoryProduct();
                             result.add(r);
-                        } catch (Exception e) {
+                        } catch (Throwable e) {
                             logger.error("create bean of : {} by factory method : {} ", chinaBeanInfo, m, e);
                         }
                     }
                 } else {
-                    result.add((T) chinaBeanInfo.getBeanInstance());
+                    result.add((T) instanceOf(chinaBeanInfo));
                 }
             }
         }
@@ -82,17 +218,18 @@ public class BeanContainer {
     }
 
     public <T> List<T> getBeansOfType(Class<T> tClass, Object... args) {
+        if (delegates(tClass)) return parent.getBeansOfType(tClass, args);
+        if (metrics != null) metrics.lookup(tClass);
         List<T> result = new ArrayList<T>();
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
-        if (beans == null) return result;
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
         for (ChinaBeanInfo chinaBeanInfo : beans) {
             if (chinaBeanInfo.isFactoryBean() && tClass == chinaBeanInfo.getObjectType()) {
                 Method m = chinaBeanInfo.getFactoryMethod();
                 if (m.getParameterCount() == 0) {
                     try {
-                        T r = (T) m.invoke(chinaBeanInfo.getBeanInstance(), args);
+                        T r = (T) chinaBeanInfo.invokeFactory(args);
                         result.add(r);
-                    } catch (Exception e) {
+                    } catch (Throwable e) {
                         logger.error("create bean of : {} by factory method : {} ", chinaBeanInfo, m, e);
                     }
                 }
@@ -101,66 +238,198 @@ public class BeanContainer {
         return result;
     }
 
+    /**
+     * 集合注入使用的 bean 集合。全部由单例（包括 SINGLETON 的工厂产品）组成的集合按元素类型缓存，
+     * 所有注入点共享同一份不可变的 List、Set、Map；注册新 bean 后重新计算
+     */
+    BeanCollection getBeanCollection(Class elementType) {
+        if (delegates(elementType)) return parent.getBeanCollection(elementType);
+        long current = version;
+        BeanCollection cached = beanCollections.get(elementType);
+        if (cached != null && cached.version == current) return cached;
+        List<ChinaBeanInfo> beans = getBeanInfos(elementType, current);
+        List<Object> list = new ArrayList<Object>(beans.size());
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        boolean shared = true;
+        for (ChinaBeanInfo beanInfo : beans) {
+            Object bean;
+            if (beanInfo.isFactoryBean() && elementType == beanInfo.getObjectType()) {
+                if (beanInfo.getFactoryMethod().getParameterCount() != 0) continue;
+                shared &= beanInfo.getFactoryScope() == ChinaBeanScope.SINGLETON;
+                try {
+                    bean = beanInfo.getFactoryProduct();
+                } catch (Throwable e) {
+                    logger.error("create bean of : {} by factory method : {} ", beanInfo, beanInfo.getFactoryMethod(), e);
+                    bean = null;
+                }
+            } else {
+                shared &= !beanInfo.isOnDemand();
+                bean = instanceOf(beanInfo);
+            }
+            if (bean == null) {
+                shared = false;
+                continue;
+            }
+            list.add(bean);
+            map.put(beanInfo.getBeanName(), bean);
+        }
+        BeanCollection collection = new BeanCollection(current, list, map);
+        if (!shared) return collection;
+        // 并发注入时只保留先放进去的那一份，保证同一版本下所有注入点拿到同一个集合
+        BeanCollection stored = beanCollections.merge(elementType, collection, NEWER_COLLECTION);
+        return stored.version == current ? stored : collection;
+    }
+
+    private static final BiFunction<BeanCollection, BeanCollection, BeanCollection> NEWER_COLLECTION =
+            new BiFunction<BeanCollection, BeanCollection, BeanCollection>() {
+                @Override
+                public BeanCollection apply(BeanCollection old, BeanCollection created) {
+                    return old.version >= created.version ? old : created;
+                }
+            };
+
+    public int countBeansOfType(Class tClass) {
+        if (delegates(tClass)) return parent.countBeansOfType(tClass);
+        return getBeanInfos(tClass).size();
+    }
+
     public <T> T getBeanOfType(Class<T> tClass) throws BeanNotUniqueException {
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
-        if (beans == null) return null;
+        if (delegates(tClass)) return parent.getBeanOfType(tClass);
+        if (metrics != null) metrics.lookup(tClass);
+        FrozenBeanIndex index = frozenIndex;
+        if (index != null) {
+            FrozenBeanIndex.TypeEntry entry = index.get(tClass);
+            if (entry.singleton != null) return (T) entry.singleton;
+            if (entry.count == 0) return null;
+            Object lazy = entry.createdLazyInstance();
+            if (lazy != null) return (T) lazy;
+        }
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
+        if (beans.isEmpty()) return null;
         if (beans.size() != 1) {
+            if (metrics != null) metrics.notUnique(tClass);
             throw new BeanNotUniqueException("bean count " + beans.size());
         }
-        if (beans.isEmpty()) return null;
         ChinaBeanInfo beanInfo = beans.get(0);
         if (beanInfo.isFactoryBean() && tClass == beanInfo.getObjectType()) {
-            Method m = beanInfo.getFactoryMethod();
             try {
-                return (T) m.invoke(beanInfo.getBeanInstance());
-            } catch (Exception e) {
+                return (T) beanInfo.getFactoryProduct();
+            } catch (Throwable e) {
                 logger.error("initial :{} by factory method failed : ", beanInfo, e);
                 return null;
             }
         } else {
-            return (T) beanInfo.getBeanInstance();
+            return (T) instanceOf(beanInfo);
         }
     }
 
+    /**
+     * @return 该名称的 bean 实例，没有时返回 null
+     */
+    public Object getBeanByName(String name) {
+        ChinaBeanInfo beanInfo = getBeanInfo(name);
+        if (beanInfo == null) return null;
+        countNamedLookup(beanInfo);
+        return instanceOf(beanInfo);
+    }
+
+    /**
+     * @return 该名称的 bean 作为 tClass 的实例：bean 本身不是 tClass 而是产品类型为 tClass 的工厂 bean 时返回产品；
+     * 没有该名称的 bean 时返回 null
+     */
+    public <T> T getBeanByName(String name, Class<T> tClass) {
+        ChinaBeanInfo beanInfo = getBeanInfo(name);
+        if (beanInfo == null) return null;
+        countNamedLookup(beanInfo);
+        return (T) namedInstance(beanInfo, tClass);
+    }
+
+    /**
+     * 按名称的查询计在持有这个 bean 的容器上，和按类型查询委托给父容器时一致
+     */
+    private void countNamedLookup(ChinaBeanInfo beanInfo) {
+        if (namedBeans.get(beanInfo.getBeanName()) == beanInfo) {
+            if (metrics != null) metrics.lookup(beanInfo.getBeanClass());
+        } else if (parent != null) {
+            parent.countNamedLookup(beanInfo);
+        }
+    }
+
+    /**
+     * 按名称注入、查询时取实例，类型不符时抛 ClassCastException
+     */
+    Object namedInstance(ChinaBeanInfo beanInfo, Class<?> tClass) {
+        Object bean;
+        if (beanInfo.isFactoryBean() && !tClass.isAssignableFrom(beanInfo.getBeanClass())) {
+            try {
+                bean = beanInfo.getFactoryProduct();
+            } catch (Throwable e) {
+                logger.error("create bean of : {} by factory method : {} ", beanInfo, beanInfo.getFactoryMethod(), e);
+                return null;
+            }
+        } else {
+            bean = instanceOf(beanInfo);
+        }
+        if (bean != null && !tClass.isInstance(bean)) {
+            throw new ClassCastException("bean " + beanInfo.getBeanName() + " is not a " + tClass.getName());
+        }
+        return bean;
+    }
+
     public <T> T getInjectedBeanOfType(Class<T> tClass) throws BeanNotUniqueException {
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
-        if (beans == null) return null;
+        if (delegates(tClass)) return parent.getInjectedBeanOfType(tClass);
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
+        if (beans.isEmpty()) return null;
         if (beans.size() != 1) {
+            if (metrics != null) metrics.notUnique(tClass);
             throw new BeanNotUniqueException("bean count " + beans.size());
         }
-        if (beans.isEmpty()) return null;
         ChinaBeanInfo beanInfo = beans.get(0);
         if (beanInfo.getState() != BeanState.HOOKED && beanInfo.getState() != BeanState.INJECTED) return null;
         if (beanInfo.isFactoryBean() && tClass == beanInfo.getObjectType()) {
-            Method m = beanInfo.getFactoryMethod();
             try {
-                return (T) m.invoke(beanInfo.getBeanInstance());
-            } catch (Exception e) {
+                return (T) beanInfo.getFactoryProduct();
+            } catch (Throwable e) {
                 logger.error("initial :{} by factory method failed : ", beanInfo, e);
                 return null;
             }
         } else {
-            return (T) beanInfo.getBeanInstance();
+            return (T) instanceOf(beanInfo);
         }
     }
 
     public <T> T getBeanOfType(Class<T> tClass, Object... args) throws BeanNotUniqueException {
-        List<ChinaBeanInfo> beans = classBeans.get(tClass);
+        if (delegates(tClass)) return parent.getBeanOfType(tClass, args);
+        if (metrics != null) metrics.lookup(tClass);
+        List<ChinaBeanInfo> beans = getBeanInfos(tClass);
+        if (beans.isEmpty()) return null;
         if (beans.size() != 1) {
+            if (metrics != null) metrics.notUnique(tClass);
             throw new BeanNotUniqueException("bean count " + beans.size());
         }
-        if (beans.isEmpty()) return null;
         ChinaBeanInfo beanInfo = beans.get(0);
         if (beanInfo.isFactoryBean() && tClass == beanInfo.getObjectType()) {
-            Method m = beanInfo.getFactoryMethod();
             try {
-                return (T) m.invoke(beanInfo.getBeanInstance(), args);
-            } catch (Exception e) {
+                return (T) beanInfo.invokeFactory(args);
+            } catch (Throwable e) {
                 logger.error("initial :{} by factory method failed : ", beanInfo, e);
                 return null;
             }
         } else {
-            return (T) beanInfo.getBeanInstance();
+            return (T) instanceOf(beanInfo);
+        }
+    }
+
+    /**
+     * 按作用域取 bean 实例，非单例、懒加载 bean 创建失败时记录日志并返回 null
+     */
+    private Object instanceOf(ChinaBeanInfo beanInfo) {
+        if (!beanInfo.isOnDemand()) return beanInfo.getBeanInstance();
+        try {
+            return beanInfo.getInstance();
+        } catch (InitializeBeanException e) {
+            logger.error("create bean of : {} failed", beanInfo, e);
+            return null;
         }
     }
 
@@ -177,28 +446,115 @@ public class BeanContainer {
     }
 
     public void registerBean(ChinaBeanInfo beanInfo) {
-        CollectionUtil.addMapList(classBeans, beanInfo.getBeanClass(), beanInfo);
-        namedBeans.put(beanInfo.getBeanName(), beanInfo);
-        if (beanInfo.isFactoryBean()) {
-            CollectionUtil.addMapList(classBeans, beanInfo.getObjectType(), beanInfo);
-            namedBeans.put(beanInfo.getObjectType().getName(), beanInfo);
-        } else {
-            expandContainer(beanInfo.getBeanClass(), beanInfo);
+        registerBeans(Collections.singletonList(beanInfo));
+    }
+
+    /**
+     * 一次注册多个 bean：先按类型分组，每个类型只追加一次，所有 bean 在同一个版本中可见
+     */
+    public void registerBeans(Collection<ChinaBeanInfo> beanInfos) {
+        Map<Class, List<ChinaBeanInfo>> typeBeans = new LinkedHashMap<Class, List<ChinaBeanInfo>>();
+        Map<String, ChinaBeanInfo> names = new LinkedHashMap<String, ChinaBeanInfo>();
+        for (ChinaBeanInfo beanInfo : beanInfos) {
+            Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+            types.add(beanInfo.getBeanClass());
+            if (beanInfo.isFactoryBean()) {
+                types.add(beanInfo.getObjectType());
+            } else {
+                types.addAll(TypeHierarchy.getSuperTypes(beanInfo.getBeanClass()));
+            }
+            addTypes(typeBeans, names, beanInfo, types, beanInfo.getBeanName());
+        }
+        publish(typeBeans, names);
+    }
+
+    private void publish(ChinaBeanInfo beanInfo, Set<Class<?>> types, String beanName) {
+        Map<Class, List<ChinaBeanInfo>> typeBeans = new LinkedHashMap<Class, List<ChinaBeanInfo>>();
+        Map<String, ChinaBeanInfo> names = new LinkedHashMap<String, ChinaBeanInfo>();
+        addTypes(typeBeans, names, beanInfo, types, beanName);
+        publish(typeBeans, names);
+    }
+
+    private static void addTypes(Map<Class, List<ChinaBeanInfo>> typeBeans, Map<String, ChinaBeanInfo> names,
+                                 ChinaBeanInfo beanInfo, Set<Class<?>> types, String beanName) {
+        names.put(beanName, beanInfo);
+        for (Class c : types) {
+            CollectionUtil.addMapList(typeBeans, c, beanInfo);
         }
     }
 
-    private void expandContainer(Class c, ChinaBeanInfo beanInfo) {
-        Set<Class<?>> classes = flatSupperClass(c);
-        for (Class clz : classes) {
-            CollectionUtil.addMapList(classBeans, clz, beanInfo);
-            namedBeans.put(clz.getName(), beanInfo);
+    /**
+     * 把 bean 以新版本写入所有类型后再发布版本号；名称在版本发布之后写入
+     */
+    private synchronized void publish(Map<Class, List<ChinaBeanInfo>> typeBeans, Map<String, ChinaBeanInfo> names) {
+        if (metrics != null) {
+            for (ChinaBeanInfo beanInfo : names.values()) {
+                if (beanInfo.isFactoryBean()) beanInfo.setFactoryLatency(metrics.factoryLatency(beanInfo.getBeanName()));
+            }
+        }
+        long next = version + 1;
+        for (Map.Entry<Class, List<ChinaBeanInfo>> entry : typeBeans.entrySet()) {
+            TypeBeans beans = classBeans.get(entry.getKey());
+            classBeans.put(entry.getKey(), (beans == null ? TypeBeans.EMPTY : beans).append(entry.getValue(), next));
+        }
+        version = next;
+        namedBeans.putAll(names);
+        FrozenBeanIndex index = frozenIndex;
+        if (index != null) {
+            createSingletonProducts(names.values());
+            for (Class type : typeBeans.keySet()) {
+                index.invalidate(type);
+            }
         }
     }
 
-    private Set<Class<?>> flatSupperClass(Class c) {
-        Set<Class<?>> classes = ReflectionUtil.getSuperClasses(c);
-        Set<Class<?>> interfaces = ReflectionUtil.getInterfaces(c);
-        classes.addAll(interfaces);
-        return classes;
+    static final class BeanCollection {
+        private final long version;
+        final List<Object> list;
+        final Set<Object> set;
+        final Map<String, Object> map;
+
+        BeanCollection(long version, List<Object> list, Map<String, Object> map) {
+            this.version = version;
+            this.list = Collections.unmodifiableList(list);
+            this.set = Collections.unmodifiableSet(new LinkedHashSet<Object>(list));
+            this.map = Collections.unmodifiableMap(map);
+        }
+    }
+
+    /**
+     * 一个类型下的 bean 及其注册版本，不可变，追加时复制
+     */
+    private static final class TypeBeans {
+        private final ChinaBeanInfo[] beans;
+        private final long[] versions;
+        private final List<ChinaBeanInfo> all;
+
+        static final TypeBeans EMPTY = new TypeBeans(new ChinaBeanInfo[0], new long[0]);
+
+        private TypeBeans(ChinaBeanInfo[] beans, long[] versions) {
+            this.beans = beans;
+            this.versions = versions;
+            this.all = Collections.unmodifiableList(Arrays.asList(beans));
+        }
+
+        TypeBeans append(List<ChinaBeanInfo> beanInfos, long version) {
+            int n = beans.length;
+            ChinaBeanInfo[] newBeans = Arrays.copyOf(beans, n + beanInfos.size());
+            long[] newVersions = Arrays.copyOf(versions, n + beanInfos.size());
+            for (int i = 0; i < beanInfos.size(); i++) {
+                newBeans[n + i] = beanInfos.get(i);
+                newVersions[n + i] = version;
+            }
+            return new TypeBeans(newBeans, newVersions);
+        }
+
+        List<ChinaBeanInfo> visible(long atVersion) {
+            // 版本递增追加，通常全部可见
+            if (versions.length == 0 || versions[versions.length - 1] <= atVersion) return all;
+            int n = 0;
+            while (n < versions.length && versions[n] <= atVersion) n++;
+            return all.subList(0, n);
+        }
     }
 }
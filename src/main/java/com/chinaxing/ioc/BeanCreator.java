@@ -0,0 +1,8 @@
+package com.chinaxing.ioc;
+
+/**
+ * 为非单例、懒加载的 bean 创建一个完整的实例：构造、注入并执行 hook
+ */
+public interface BeanCreator {
+    public Object create(ChinaBeanInfo beanInfo) throws InitializeBeanException;
+}
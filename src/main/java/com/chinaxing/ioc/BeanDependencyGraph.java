@@ -0,0 +1,457 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.util.CollectionUtil;
+import com.chinaxing.ioc.util.TypeHierarchy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * bean 之间的依赖图，每个 bean 有三个节点：
+ * <p/>
+ * CREATE：创建实例，依赖构造参数 bean 的 INJECT 节点（构造参数必须已经注入完成）
+ * INJECT：注入字段，依赖自身的 CREATE 节点和字段 bean 的 CREATE 节点（工厂 bean 需要 INJECT，Provider 字段只需要 CREATE）
+ * HOOK：执行 @AfterInit，依赖自身和所依赖 bean 的 INJECT 节点
+ * <p/>
+ * 一次拓扑排序得到执行顺序，有环时报告具体的环
+ */
+class BeanDependencyGraph {
+    static final int CREATE = 0;
+    static final int INJECT = 1;
+    static final int HOOK = 2;
+    private static final int STAGES = 3;
+
+    interface NodeAction {
+        void run(int node) throws InitializeBeanException;
+    }
+
+    private final List<ChinaBeanInfo> beans;
+    private final Map<ChinaBeanInfo, Integer> beanIndex = new IdentityHashMap<ChinaBeanInfo, Integer>();
+    private final Map<Class, List<ChinaBeanInfo>> providers = new HashMap<Class, List<ChinaBeanInfo>>();
+    private final Map<String, ChinaBeanInfo> named = new HashMap<String, ChinaBeanInfo>();
+    private final BeanContainer beanContainer;
+    /**
+     * node -> 它依赖的 node，以及依赖原因
+     */
+    private final List<List<Integer>> dependencies = new ArrayList<List<Integer>>();
+    private final List<List<String>> reasons = new ArrayList<List<String>>();
+    /**
+     * 快照中每个 bean 注入点绑定的 bean 下标，-1 表示注入时再查找；不是从快照重建时为 null
+     */
+    private final List<int[]> bindings;
+
+    BeanDependencyGraph(Collection<ChinaBeanInfo> beanInfos, BeanContainer beanContainer) throws InitializeBeanException {
+        this.beans = new ArrayList<ChinaBeanInfo>(beanInfos);
+        this.beanContainer = beanContainer;
+        this.bindings = null;
+        for (int i = 0; i < beans.size(); i++) {
+            ChinaBeanInfo beanInfo = beans.get(i);
+            beanIndex.put(beanInfo, i);
+            ChinaBeanInfo sameName = named.put(beanInfo.getBeanName(), beanInfo);
+            if (sameName != null || beanContainer.containsLocalName(beanInfo.getBeanName())) {
+                throw new InitializeBeanException("duplicate bean name " + beanInfo.getBeanName() + " : "
+                        + beanInfo.getBeanClass().getName());
+            }
+            for (Class c : providedTypes(beanInfo)) {
+                CollectionUtil.addMapList(providers, c, beanInfo);
+            }
+            for (int stage = 0; stage < STAGES; stage++) {
+                dependencies.add(new ArrayList<Integer>());
+                reasons.add(new ArrayList<String>());
+            }
+        }
+        for (ChinaBeanInfo beanInfo : beans) {
+            addDependencies(beanInfo);
+        }
+    }
+
+    /**
+     * 用快照中已经解析好的依赖重建依赖图，不再查找提供者
+     *
+     * @param dependencies node -> 它依赖的 node
+     * @param bindings     bean -> 注入点绑定的 bean 下标，见 bindInjectionPoints
+     */
+    BeanDependencyGraph(List<ChinaBeanInfo> beanInfos, List<List<Integer>> dependencies, List<int[]> bindings) {
+        this.beans = new ArrayList<ChinaBeanInfo>(beanInfos);
+        this.beanContainer = null;
+        this.bindings = bindings;
+        for (int i = 0; i < beans.size(); i++) {
+            beanIndex.put(beans.get(i), i);
+        }
+        for (List<Integer> deps : dependencies) {
+            this.dependencies.add(deps);
+            this.reasons.add(Collections.nCopies(deps.size(), "snapshot"));
+        }
+    }
+
+    /**
+     * 把快照中的绑定设置到注入点上。注入计划在设置作用域时会重新编译，所以要在那之后调用；
+     * 注入点个数和快照不一致的 bean 跳过，注入时按类型查找
+     */
+    void bindInjectionPoints() throws InitializeBeanException {
+        if (bindings == null) return;
+        for (int i = 0; i < beans.size(); i++) {
+            List<InjectionPoint> points = beans.get(i).getInjectionPlan().getPoints();
+            int[] bound = bindings.get(i);
+            if (bound.length != points.size()) continue;
+            for (int p = 0; p < bound.length; p++) {
+                if (bound[p] >= 0) points.get(p).boundBean = beans.get(bound[p]);
+            }
+        }
+    }
+
+    /**
+     * 和 BeanContainer 注册时展开的类型一致
+     */
+    private static Set<Class<?>> providedTypes(ChinaBeanInfo beanInfo) {
+        Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+        types.add(beanInfo.getBeanClass());
+        if (beanInfo.isFactoryBean()) {
+            types.add(beanInfo.getObjectType());
+        } else {
+            types.addAll(TypeHierarchy.getSuperTypes(beanInfo.getBeanClass()));
+        }
+        return types;
+    }
+
+    private void addDependencies(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        int create = node(beanInfo, CREATE);
+        int inject = node(beanInfo, INJECT);
+        Set<ChinaBeanInfo> beanDependencies = new LinkedHashSet<ChinaBeanInfo>();
+
+        Constructor constructor = beanInfo.getConstructor();
+        if (constructor == null) {
+            throw new InitializeBeanException("bean need a unique constructor : " + beanInfo.getBeanName());
+        }
+        for (Parameter p : constructor.getParameters()) {
+            String reason = "constructor parameter " + p.getType().getName();
+            String qualifier = InjectionPoint.qualifier(p, null);
+            if (!qualifier.isEmpty()) {
+                ChinaBeanInfo provider = namedProvider(beanInfo, qualifier, reason);
+                if (provider != null) {
+                    addEdge(create, node(provider, INJECT), reason);
+                    beanDependencies.add(provider);
+                }
+                continue;
+            }
+            if (CollectionInjection.isCollection(p.getType(), p.getParameterizedType())) {
+                Class<?> elementType = CollectionInjection.elementType(p.getType(), p.getParameterizedType(), p);
+                for (ChinaBeanInfo provider : providersOf(elementType)) {
+                    addEdge(create, node(provider, INJECT), reason);
+                    beanDependencies.add(provider);
+                }
+                continue;
+            }
+            ChinaBeanInfo provider = uniqueProvider(beanInfo, p.getType(), reason);
+            if (provider != null) {
+                addEdge(create, node(provider, INJECT), reason);
+                beanDependencies.add(provider);
+            }
+        }
+
+        addEdge(inject, create, "instance");
+        for (InjectionPoint point : beanInfo.getInjectionPlan().getPoints()) {
+            String reason = "inject " + point;
+            switch (point.kind) {
+                case PROPERTY:
+                    break;
+                case PROVIDER:
+                    // Provider 只需要 bean 已经注册，get 时再按作用域取实例
+                    ChinaBeanInfo provided = point.qualifier != null ? namedProvider(beanInfo, point.qualifier, reason)
+                            : uniqueProvider(beanInfo, point.elementType, reason);
+                    if (provided != null) {
+                        point.boundBean = provided;
+                        addEdge(inject, node(provided, CREATE), reason);
+                        beanDependencies.add(provided);
+                    }
+                    break;
+                case COLLECTION:
+                    for (ChinaBeanInfo provider : providersOf(point.elementType)) {
+                        addEdge(inject, fieldNode(provider, point.elementType), reason);
+                        beanDependencies.add(provider);
+                    }
+                    break;
+                default:
+                    ChinaBeanInfo provider = point.qualifier != null ? namedProvider(beanInfo, point.qualifier, reason)
+                            : uniqueProvider(beanInfo, point.type, reason);
+                    if (provider != null) {
+                        point.boundBean = provider;
+                        addEdge(inject, fieldNode(provider, point.type), reason);
+                        beanDependencies.add(provider);
+                    }
+            }
+        }
+        beanDependencies.remove(beanInfo);
+        beanInfo.setDependencies(new ArrayList<ChinaBeanInfo>(beanDependencies));
+
+        int hook = node(beanInfo, HOOK);
+        addEdge(hook, inject, "injected");
+        for (ChinaBeanInfo dependency : beanDependencies) {
+            addEdge(hook, node(dependency, INJECT), "injected " + dependency.getBeanName());
+        }
+    }
+
+    /**
+     * 字段只需要依赖 bean 已经创建；工厂 bean 的产品要调用工厂方法，工厂本身需要注入完成；
+     * 非单例、懒加载 bean 在注入时才创建，它自己的依赖需要就绪，所以也依赖它的 INJECT 节点
+     */
+    private int fieldNode(ChinaBeanInfo provider, Class type) {
+        boolean factoryProduct = provider.isFactoryBean() && type == provider.getObjectType();
+        return node(provider, factoryProduct || provider.isOnDemand() ? INJECT : CREATE);
+    }
+
+    private List<ChinaBeanInfo> providersOf(Class type) {
+        List<ChinaBeanInfo> list = providers.get(type);
+        return list == null ? Collections.<ChinaBeanInfo>emptyList() : list;
+    }
+
+    /**
+     * @return 待初始化的 bean 中提供该类型的唯一 bean；由容器中已有的 bean 提供时返回 null
+     */
+    private ChinaBeanInfo uniqueProvider(ChinaBeanInfo beanInfo, Class type, String reason) throws InitializeBeanException {
+        List<ChinaBeanInfo> list = providers.get(type);
+        int scanned = list == null ? 0 : list.size();
+        // 子容器自己的 bean 覆盖父容器的 bean
+        int registered = scanned > 0 ? beanContainer.countLocalBeansOfType(type) : beanContainer.countBeansOfType(type);
+        if (scanned + registered == 0) {
+            throw new InitializeBeanException("no bean of type " + type.getName() + " for "
+                    + reason + " of bean " + beanInfo.getBeanName());
+        }
+        if (scanned + registered > 1) {
+            throw new InitializeBeanException(new BeanNotUniqueException("bean count " + (scanned + registered)
+                    + " of type " + type.getName() + " for " + reason + " of bean " + beanInfo.getBeanName()));
+        }
+        return scanned == 1 ? list.get(0) : null;
+    }
+
+    /**
+     * @return 待初始化的 bean 中该名称的 bean；由容器中已有的 bean 提供时返回 null
+     */
+    private ChinaBeanInfo namedProvider(ChinaBeanInfo beanInfo, String name, String reason) throws InitializeBeanException {
+        ChinaBeanInfo provider = named.get(name);
+        if (provider == null && beanContainer.getBeanInfo(name) == null) {
+            throw new InitializeBeanException("no bean named " + name + " for " + reason + " of bean " + beanInfo.getBeanName());
+        }
+        return provider;
+    }
+
+    private void addEdge(int from, int to, String reason) {
+        dependencies.get(from).add(to);
+        reasons.get(from).add(reason);
+    }
+
+    int node(ChinaBeanInfo beanInfo, int stage) {
+        return beanIndex.get(beanInfo) * STAGES + stage;
+    }
+
+    int nodeCount() {
+        return beans.size() * STAGES;
+    }
+
+    List<ChinaBeanInfo> getBeans() {
+        return beans;
+    }
+
+    ChinaBeanInfo getBean(int node) {
+        return beans.get(node / STAGES);
+    }
+
+    static int stage(int node) {
+        return node % STAGES;
+    }
+
+    List<Integer> getDependencies(int node) {
+        return dependencies.get(node);
+    }
+
+    /**
+     * @return node -> 依赖它的 node
+     */
+    List<List<Integer>> getDependents() {
+        int n = nodeCount();
+        List<List<Integer>> dependents = new ArrayList<List<Integer>>(n);
+        for (int i = 0; i < n; i++) {
+            dependents.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < n; i++) {
+            for (Integer d : dependencies.get(i)) {
+                dependents.get(d).add(i);
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * @return 所有 bean，依赖的 bean 在前；字段依赖可以成环，环上的 bean 顺序任意
+     */
+    List<ChinaBeanInfo> getBeanOrder() {
+        List<ChinaBeanInfo> order = new ArrayList<ChinaBeanInfo>(beans.size());
+        Set<ChinaBeanInfo> visited = Collections.newSetFromMap(new IdentityHashMap<ChinaBeanInfo, Boolean>());
+        Deque<ChinaBeanInfo> path = new ArrayDeque<ChinaBeanInfo>();
+        Deque<Iterator<ChinaBeanInfo>> pending = new ArrayDeque<Iterator<ChinaBeanInfo>>();
+        for (ChinaBeanInfo root : beans) {
+            if (!visited.add(root)) continue;
+            path.push(root);
+            pending.push(root.getDependencies().iterator());
+            // 非递归的后序遍历，依赖链很长时不会栈溢出
+            while (!path.isEmpty()) {
+                Iterator<ChinaBeanInfo> it = pending.peek();
+                if (it.hasNext()) {
+                    ChinaBeanInfo dependency = it.next();
+                    if (beanIndex.containsKey(dependency) && visited.add(dependency)) {
+                        path.push(dependency);
+                        pending.push(dependency.getDependencies().iterator());
+                    }
+                } else {
+                    pending.pop();
+                    order.add(path.pop());
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Kahn 拓扑排序
+     *
+     * @return 节点的执行顺序
+     */
+    List<Integer> sort() throws InitializeBeanException {
+        int n = nodeCount();
+        int[] unresolved = new int[n];
+        List<List<Integer>> dependents = getDependents();
+        for (int i = 0; i < n; i++) {
+            unresolved[i] = dependencies.get(i).size();
+        }
+        List<Integer> order = new ArrayList<Integer>(n);
+        Deque<Integer> ready = new ArrayDeque<Integer>();
+        for (int i = 0; i < n; i++) {
+            if (unresolved[i] == 0) ready.add(i);
+        }
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            order.add(node);
+            for (Integer dependent : dependents.get(node)) {
+                if (--unresolved[dependent] == 0) ready.add(dependent);
+            }
+        }
+        if (order.size() != n) {
+            throw new InitializeBeanException("dependency cycle : " + describeCycle(unresolved));
+        }
+        return order;
+    }
+
+    /**
+     * 未能排序的节点都至少依赖一个未排序的节点，沿着依赖一直走一定会回到走过的节点
+     */
+    private String describeCycle(int[] unresolved) {
+        int start = 0;
+        while (unresolved[start] == 0) start++;
+        List<Integer> path = new ArrayList<Integer>();
+        List<String> pathReasons = new ArrayList<String>();
+        Map<Integer, Integer> position = new HashMap<Integer, Integer>();
+        int node = start;
+        while (!position.containsKey(node)) {
+            position.put(node, path.size());
+            path.add(node);
+            List<Integer> deps = dependencies.get(node);
+            int next = -1;
+            for (int i = 0; i < deps.size(); i++) {
+                if (unresolved[deps.get(i)] > 0) {
+                    next = deps.get(i);
+                    pathReasons.add(reasons.get(node).get(i));
+                    break;
+                }
+            }
+            node = next;
+        }
+        StringBuilder sb = new StringBuilder();
+        int from = position.get(node);
+        sb.append(getBean(path.get(from)).getBeanName());
+        for (int i = from; i < path.size(); i++) {
+            int target = i + 1 < path.size() ? path.get(i + 1) : node;
+            if (getBean(target) == getBean(path.get(i))) continue;
+            sb.append(" -(").append(pathReasons.get(i)).append(")-> ").append(getBean(target).getBeanName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 并行执行所有节点：一个节点的依赖全部完成后立即提交到 executor，第一个失败会终止后续调度
+     */
+    void executeParallel(Executor executor, NodeAction action) throws InitializeBeanException {
+        if (nodeCount() == 0) return;
+        ParallelExecution execution = new ParallelExecution(executor, action);
+        try {
+            execution.start().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InitializeBeanException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InitializeBeanException) throw (InitializeBeanException) e.getCause();
+            throw new InitializeBeanException(e.getCause());
+        }
+    }
+
+    private class ParallelExecution {
+        private final Executor executor;
+        private final NodeAction action;
+        private final List<List<Integer>> dependents = getDependents();
+        private final AtomicIntegerArray unresolved = new AtomicIntegerArray(nodeCount());
+        private final AtomicInteger remaining = new AtomicInteger(nodeCount());
+        private final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+        ParallelExecution(Executor executor, NodeAction action) {
+            this.executor = executor;
+            this.action = action;
+            for (int i = 0; i < nodeCount(); i++) {
+                unresolved.set(i, dependencies.get(i).size());
+            }
+        }
+
+        CompletableFuture<Void> start() {
+            // 先找出没有依赖的节点再提交：已提交的节点执行完会把后面节点的计数减到 0 并提交它，边找边提交会重复提交
+            List<Integer> ready = new ArrayList<Integer>();
+            for (int i = 0; i < nodeCount(); i++) {
+                if (unresolved.get(i) == 0) ready.add(i);
+            }
+            for (int node : ready) {
+                submit(node);
+            }
+            return done;
+        }
+
+        private void submit(final int node) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        runNode(node);
+                    }
+                });
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        }
+
+        private void runNode(int node) {
+            if (done.isDone()) return;
+            try {
+                action.run(node);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+                return;
+            }
+            for (Integer dependent : dependents.get(node)) {
+                if (unresolved.decrementAndGet(dependent) == 0) submit(dependent);
+            }
+            if (remaining.decrementAndGet() == 0) done.complete(null);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.chinaxing.ioc;
+
+/**
+ * bean 初始化的各个阶段，用于启动耗时统计和 JFR 事件
+ */
+public enum BeanPhase {
+    /**
+     * 解析 bean 的注解、构造器、字段和 hook
+     */
+    SCAN,
+    INSTANTIATE,
+    INJECT,
+    HOOK,
+    /**
+     * 调用工厂方法
+     */
+    FACTORY;
+}
@@ -0,0 +1,194 @@
+package com.chinaxing.ioc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * POOLED 作用域 bean 的实例池
+ * <p/>
+ * 借出时优先复用最近归还的实例，池空时创建新实例；
+ * 归还时池中空闲实例超过上限就丢弃，空闲超时的实例在借出、归还时顺带淘汰
+ * <p/>
+ * 设置了 maxTotal 时，借出的实例数达到上限后 borrow 等待归还，超过 maxWaitMillis 失败。
+ * 只有池空时才创建新实例，所以存活的实例（借出加空闲）也不会超过 maxTotal。
+ * release 只能归还从这个池借出的实例，借出的实例按引用登记，重复归还或归还别处的实例会被拒绝
+ */
+public class BeanPool {
+    private final ChinaBeanInfo beanInfo;
+    private final BeanCreator creator;
+    private final int maxIdle;
+    private final long idleTimeoutNanos;
+    private final ConcurrentLinkedDeque<IdleInstance> idle = new ConcurrentLinkedDeque<IdleInstance>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    /**
+     * 借出未归还的实例，按引用比较：bean 可能重写了 equals
+     */
+    private final Set<Object> borrowed = Collections.newSetFromMap(
+            Collections.synchronizedMap(new IdentityHashMap<Object, Boolean>()));
+    /**
+     * 借出许可，不限制时为 null
+     */
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    /**
+     * 不统计时为 null
+     */
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public BeanPool(ChinaBeanInfo beanInfo, BeanCreator creator, int maxIdle, long idleTimeoutMillis, boolean stats) {
+        this(beanInfo, creator, maxIdle, 0, 0, idleTimeoutMillis, stats);
+    }
+
+    public BeanPool(ChinaBeanInfo beanInfo, BeanCreator creator, int maxIdle, int maxTotal, long maxWaitMillis,
+                    long idleTimeoutMillis, boolean stats) {
+        this.beanInfo = beanInfo;
+        this.permits = maxTotal > 0 ? new Semaphore(maxTotal) : null;
+        this.maxWaitMillis = maxWaitMillis;
+        this.creator = creator;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.hits = stats ? new LongAdder() : null;
+        this.misses = stats ? new LongAdder() : null;
+        this.evictions = stats ? new LongAdder() : null;
+    }
+
+    /**
+     * 取出所有空闲实例，之后归还的实例仍会进入池中
+     */
+    public List<Object> drain() {
+        List<Object> instances = new ArrayList<Object>();
+        IdleInstance instance;
+        while ((instance = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            instances.add(instance.instance);
+        }
+        return instances;
+    }
+
+    public Object borrow() throws InitializeBeanException {
+        acquire();
+        try {
+            evictIdle();
+            IdleInstance instance = idle.pollFirst();
+            if (instance != null) {
+                idleCount.decrementAndGet();
+                if (hits != null) hits.increment();
+                borrowed.add(instance.instance);
+                return instance.instance;
+            }
+            if (misses != null) misses.increment();
+            Object created = creator.create(beanInfo);
+            borrowed.add(created);
+            return created;
+        } catch (InitializeBeanException e) {
+            if (permits != null) permits.release();
+            throw e;
+        } catch (RuntimeException e) {
+            if (permits != null) permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws InitializeBeanException {
+        if (permits == null) return;
+        boolean acquired;
+        try {
+            if (maxWaitMillis < 0) {
+                permits.acquire();
+                acquired = true;
+            } else {
+                acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InitializeBeanException("interrupted while waiting for pooled bean : " + beanInfo.getBeanName(), e);
+        }
+        if (!acquired) {
+            throw new InitializeBeanException("pooled bean exhausted after waiting " + maxWaitMillis + " ms : "
+                    + beanInfo.getBeanName());
+        }
+    }
+
+    /**
+     * @return false 表示池已满实例被丢弃，或者实例不是从这个池借出的（包括重复归还）
+     */
+    public boolean release(Object instance) {
+        // 只有登记过的实例才归还许可，否则重复归还会多出许可，之后两次借出拿到同一个实例
+        if (!borrowed.remove(instance)) return false;
+        try {
+            return offer(instance);
+        } finally {
+            if (permits != null) permits.release();
+        }
+    }
+
+    private boolean offer(Object instance) {
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            if (evictions != null) evictions.increment();
+            return false;
+        }
+        idle.offerFirst(new IdleInstance(instance, System.nanoTime()));
+        evictIdle();
+        return true;
+    }
+
+    private void evictIdle() {
+        if (idleTimeoutNanos <= 0) return;
+        long now = System.nanoTime();
+        IdleInstance oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.releasedAt > idleTimeoutNanos) {
+            if (idle.removeLastOccurrence(oldest)) {
+                idleCount.decrementAndGet();
+                if (evictions != null) evictions.increment();
+            }
+        }
+    }
+
+    public ChinaBeanInfo getBeanInfo() {
+        return beanInfo;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * @return 还可以借出的实例数，不限制时返回 -1
+     */
+    public int getAvailablePermits() {
+        return permits == null ? -1 : permits.availablePermits();
+    }
+
+    public long getHits() {
+        return hits == null ? -1 : hits.sum();
+    }
+
+    public long getMisses() {
+        return misses == null ? -1 : misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions == null ? -1 : evictions.sum();
+    }
+
+    private static final class IdleInstance {
+        final Object instance;
+        final long releasedAt;
+
+        IdleInstance(Object instance, long releasedAt) {
+            this.instance = instance;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.chinaxing.ioc;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.function.Supplier;
+
+/**
+ * 绑定到一个 ChinaBeanInfo 的 Provider
+ */
+class BeanProvider<T> implements Provider<T> {
+    private final ChinaBeanInfo beanInfo;
+    private final boolean factoryProduct;
+
+    BeanProvider(ChinaBeanInfo beanInfo, Class<T> type) {
+        this.beanInfo = beanInfo;
+        this.factoryProduct = beanInfo.isFactoryBean() && type == beanInfo.getObjectType();
+    }
+
+    @Override
+    public T get() {
+        try {
+            return (T) (factoryProduct ? beanInfo.getFactoryProduct() : beanInfo.getInstance());
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot get bean : " + beanInfo.getBeanName(), t);
+        }
+    }
+
+    /**
+     * @return Provider、Supplier 注入点提供的 bean 类型，其他注入点返回 null
+     */
+    static Class<?> providedType(Class<?> type, Type genericType, Object injectionPoint) throws InitializeBeanException {
+        if (type != Provider.class && type != Supplier.class) return null;
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) return (Class<?>) argument;
+            if (argument instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) argument).getRawType();
+        }
+        throw new InitializeBeanException("Provider injection need a concrete type argument : " + injectionPoint);
+    }
+
+    @Override
+    public String toString() {
+        return "Provider(" + beanInfo.getBeanName() + ")";
+    }
+}
@@ -8,4 +8,5 @@ public enum BeanState {
     INSTANT,
     INJECTED,
     HOOKED,
+    DESTROYED,
 }
@@ -0,0 +1,58 @@
+package com.chinaxing.ioc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 一个 bean 各阶段的累计耗时（纳秒），只统计到容器就绪（所有 hook 执行完成）为止；
+ * 之后的工厂调用和非单例、懒加载 bean 的创建不计时，也不发出 JFR 事件
+ */
+public class BeanTiming {
+    private final ChinaBeanInfo beanInfo;
+    private final AtomicLongArray nanos = new AtomicLongArray(BeanPhase.values().length);
+    private volatile boolean recording = true;
+
+    BeanTiming(ChinaBeanInfo beanInfo) {
+        this.beanInfo = beanInfo;
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * 容器就绪后停止计时
+     */
+    void finish() {
+        recording = false;
+    }
+
+    void add(BeanPhase phase, long duration) {
+        nanos.addAndGet(phase.ordinal(), duration);
+    }
+
+    public String getBeanName() {
+        return beanInfo.getBeanName();
+    }
+
+    public long getNanos(BeanPhase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (int i = 0; i < nanos.length(); i++) {
+            total += nanos.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getBeanName()).append(" total=").append(getTotalNanos() / 1000).append("us");
+        for (BeanPhase phase : BeanPhase.values()) {
+            long n = getNanos(phase);
+            if (n > 0) sb.append(' ').append(phase.name().toLowerCase()).append('=').append(n / 1000).append("us");
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,22 @@
 package com.chinaxing.ioc;
 
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.convert.ConverterRegistry;
+import com.chinaxing.ioc.util.MethodHandleUtil;
+
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 用来跟踪bean的生命周期
@@ -15,13 +27,77 @@ public class ChinaBeanInfo {
     private boolean isFactoryBean = false;
     private Method factoryMethod = null;
     private Class<?> beanClass;
-    private Object beanInstance;
-    private BeanState state = BeanState.INITIAL;
+    private volatile Object beanInstance;
+    private volatile BeanState state = BeanState.INITIAL;
     private List<Field> injectedFields = new ArrayList<Field>();
     private Constructor constructor;
     private List<Field> unInjectedFields = new ArrayList<Field>();
     private List<Method> hooks = new ArrayList<Method>();
     private Class objectType;
+    /**
+     * 构造参数和注入字段依赖的其他 bean
+     */
+    private List<ChinaBeanInfo> dependencies = new ArrayList<ChinaBeanInfo>();
+    /**
+     * 设置反射元数据时编译好的 MethodHandle，创建、注入、hook 和工厂调用都走这里
+     */
+    private MethodHandle constructorHandle;
+    private Map<Field, MethodHandle> fieldSetters = new HashMap<Field, MethodHandle>();
+    private List<MethodHandle> hookHandles = new ArrayList<MethodHandle>();
+    private List<MethodHandle> asyncHookHandles = new ArrayList<MethodHandle>();
+    private List<Method> destroyHooks = new ArrayList<Method>();
+    private List<MethodHandle> destroyHookHandles = new ArrayList<MethodHandle>();
+    /**
+     * @BeforeDestroy 中指定的最大超时，没有指定时为 0
+     */
+    private long destroyTimeoutMillis;
+    private MethodHandle factoryHandle;
+    private MethodHandle factorySpreadHandle;
+    /**
+     * 工厂产品的作用域，SINGLETON 的产品创建后缓存在 factoryProduct
+     */
+    private ChinaBeanScope factoryScope = ChinaBeanScope.PROTOTYPE;
+    private volatile Object factoryProduct;
+    /**
+     * 容器开启统计时记录工厂方法耗时，否则为 null
+     */
+    private LatencyHistogram factoryLatency;
+    /**
+     * bean 自身的作用域，非 SINGLETON 的实例由 creator 按需创建
+     */
+    private ChinaBeanScope scope = ChinaBeanScope.SINGLETON;
+    private BeanCreator creator;
+    /**
+     * 编译注入计划时为属性注入点选择转换器
+     */
+    private ConverterRegistry converterRegistry;
+    private BeanPool pool;
+    /**
+     * 懒加载的单例，第一次 getInstance 时创建；creating 用来发现创建过程中又依赖自己
+     */
+    private boolean lazy = false;
+    private boolean creating = false;
+    /**
+     * 启动计时，压缩后为 null（启动报告保留自己的引用）
+     */
+    private BeanTiming timing = new BeanTiming(this);
+    private boolean compacted;
+    /**
+     * 所有 hook（包括异步 hook）执行完成，且依赖的 bean 都已就绪时完成
+     */
+    private final CompletableFuture<Void> ready = new CompletableFuture<Void>();
+    /**
+     * 所有 @Inject 字段，不随注入进度变化
+     */
+    private List<Field> injectFields = new ArrayList<Field>();
+    /**
+     * @Inject 方法（setter），在所有字段之后注入
+     */
+    private List<Method> injectMethods = Collections.emptyList();
+    /**
+     * 字段和方法编译成的注入计划，注入字段或方法变化后重新编译
+     */
+    private volatile InjectionPlan injectionPlan;
 
     public String getBeanName() {
         if (beanName == null) beanName = beanClass.getName();
@@ -46,6 +122,76 @@ public class ChinaBeanInfo {
 
     public void setFactoryMethod(Method factoryMethod) {
         this.factoryMethod = factoryMethod;
+        this.factoryProduct = null;
+        if (factoryMethod == null) {
+            factoryHandle = null;
+            factorySpreadHandle = null;
+            return;
+        }
+        ChinaBeanFactoryMethod annotation = factoryMethod.getAnnotation(ChinaBeanFactoryMethod.class);
+        factoryScope = annotation == null ? ChinaBeanScope.PROTOTYPE : annotation.scope();
+        factorySpreadHandle = MethodHandleUtil.spreadInvoker(factoryMethod);
+        factoryHandle = factoryMethod.getParameterCount() == 0 ? MethodHandleUtil.invoker(factoryMethod) : null;
+    }
+
+    /**
+     * 调用无参工厂方法
+     */
+    public Object invokeFactory() throws Throwable {
+        if (factoryHandle == null) {
+            throw new IllegalArgumentException("factory method need arguments : " + factoryMethod);
+        }
+        PhaseTimer timer = PhaseTimer.start(this, BeanPhase.FACTORY);
+        long start = factoryLatency != null ? System.nanoTime() : 0;
+        try {
+            return (Object) factoryHandle.invokeExact(beanInstance);
+        } finally {
+            timer.stop();
+            if (factoryLatency != null) factoryLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public Object invokeFactory(Object[] args) throws Throwable {
+        PhaseTimer timer = PhaseTimer.start(this, BeanPhase.FACTORY);
+        long start = factoryLatency != null ? System.nanoTime() : 0;
+        try {
+            return (Object) factorySpreadHandle.invokeExact(beanInstance, args);
+        } finally {
+            timer.stop();
+            if (factoryLatency != null) factoryLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 按工厂产品的作用域获取产品：SINGLETON 只在第一次访问时调用工厂方法，并发首次访问也只创建一次
+     */
+    public Object getFactoryProduct() throws Throwable {
+        if (factoryScope != ChinaBeanScope.SINGLETON) return invokeFactory();
+        Object product = factoryProduct;
+        if (product != null) return product;
+        synchronized (this) {
+            product = factoryProduct;
+            if (product == null) {
+                product = invokeFactory();
+                factoryProduct = product;
+            }
+            return product;
+        }
+    }
+
+    void setFactoryLatency(LatencyHistogram factoryLatency) {
+        this.factoryLatency = factoryLatency;
+    }
+
+    /**
+     * @return 已经创建的 SINGLETON 工厂产品，不调用工厂方法；还没有创建时返回 null
+     */
+    Object getCreatedFactoryProduct() {
+        return factoryProduct;
+    }
+
+    public ChinaBeanScope getFactoryScope() {
+        return factoryScope;
     }
 
     public Constructor getConstructor() {
@@ -54,6 +200,11 @@ public class ChinaBeanInfo {
 
     public void setConstructor(Constructor constructor) {
         this.constructor = constructor;
+        this.constructorHandle = constructor == null ? null : MethodHandleUtil.constructor(constructor);
+    }
+
+    public Object newInstance(Object[] args) throws Throwable {
+        return (Object) constructorHandle.invokeExact(args);
     }
 
     public ChinaBeanInfo(Class<?> beanClass) {
@@ -107,6 +258,86 @@ public class ChinaBeanInfo {
 
     public void setUnInjectedFields(List<Field> unInjectedFields) {
         this.unInjectedFields = unInjectedFields;
+        this.injectFields = new ArrayList<Field>(unInjectedFields);
+        for (Field f : unInjectedFields) {
+            fieldSetters.put(f, MethodHandleUtil.setter(f));
+        }
+        this.injectionPlan = null;
+    }
+
+    public List<Field> getInjectFields() {
+        return injectFields;
+    }
+
+    public List<Method> getInjectMethods() {
+        return injectMethods;
+    }
+
+    public void setInjectMethods(List<Method> injectMethods) {
+        this.injectMethods = injectMethods;
+        this.injectionPlan = null;
+    }
+
+    InjectionPlan getInjectionPlan() throws InitializeBeanException {
+        InjectionPlan plan = injectionPlan;
+        if (plan == null) {
+            plan = InjectionPlan.compile(this, injectFields, injectMethods, converterRegistry);
+            injectionPlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * 注入计划执行成功，所有字段都已注入
+     */
+    void markInjected() {
+        injectedFields = new ArrayList<Field>(injectFields);
+        unInjectedFields = new ArrayList<Field>();
+    }
+
+    public void injectField(Field f, Object value) throws Throwable {
+        injectField(beanInstance, f, value);
+    }
+
+    public void injectField(Object target, Field f, Object value) throws Throwable {
+        getFieldSetter(f).invokeExact(target, value);
+    }
+
+    MethodHandle getFieldSetter(Field f) {
+        MethodHandle setter = fieldSetters.get(f);
+        if (setter == null) {
+            setter = MethodHandleUtil.setter(f);
+            // 压缩后不再缓存，fieldSetters 是不可修改的空 map
+            if (!compacted) fieldSetters.put(f, setter);
+        }
+        return setter;
+    }
+
+    /**
+     * 初始化完成后释放单例 bean 只在创建、注入（包括注入计划）和执行同步 hook 时使用的元数据，
+     * 以及依赖列表、启动计时和 creator；保留查询、工厂调用、异步 hook 和销毁用到的数据。
+     * 依赖列表要在压缩前由容器换算成销毁顺序。按需创建实例的 bean 不压缩
+     */
+    void compact() {
+        if (isOnDemand()) return;
+        compacted = true;
+        constructor = null;
+        constructorHandle = null;
+        injectedFields = Collections.emptyList();
+        unInjectedFields = Collections.emptyList();
+        injectFields = Collections.emptyList();
+        injectMethods = Collections.emptyList();
+        injectionPlan = InjectionPlan.EMPTY;
+        fieldSetters = Collections.emptyMap();
+        hooks = Collections.emptyList();
+        hookHandles = Collections.emptyList();
+        if (asyncHookHandles.isEmpty()) asyncHookHandles = Collections.emptyList();
+        destroyHooks = Collections.emptyList();
+        if (destroyHookHandles.isEmpty()) destroyHookHandles = Collections.emptyList();
+        dependencies = Collections.emptyList();
+        timing = null;
+        creator = null;
+        converterRegistry = null;
     }
 
     public List<Method> getHooks() {
@@ -115,6 +346,156 @@ public class ChinaBeanInfo {
 
     public void setHooks(List<Method> hooks) {
         this.hooks = hooks;
+        List<MethodHandle> handles = new ArrayList<MethodHandle>(hooks.size());
+        List<MethodHandle> asyncHandles = new ArrayList<MethodHandle>();
+        for (Method m : hooks) {
+            AfterInit afterInit = m.getAnnotation(AfterInit.class);
+            if (afterInit != null && afterInit.async()) {
+                asyncHandles.add(MethodHandleUtil.hook(m));
+            } else {
+                handles.add(MethodHandleUtil.hook(m));
+            }
+        }
+        this.hookHandles = handles;
+        this.asyncHookHandles = asyncHandles;
+    }
+
+    public boolean hasAsyncHooks() {
+        return !asyncHookHandles.isEmpty();
+    }
+
+    public void invokeHooks() throws Throwable {
+        invokeHooks(beanInstance);
+    }
+
+    /**
+     * 执行所有 hook，异步 hook 也在当前线程执行
+     */
+    public void invokeHooks(Object target) throws Throwable {
+        for (MethodHandle hook : hookHandles) {
+            hook.invokeExact(target);
+        }
+        for (MethodHandle hook : asyncHookHandles) {
+            hook.invokeExact(target);
+        }
+    }
+
+    /**
+     * 只执行同步或只执行异步的 hook
+     */
+    public void invokeHooks(boolean async) throws Throwable {
+        for (MethodHandle hook : async ? asyncHookHandles : hookHandles) {
+            hook.invokeExact(beanInstance);
+        }
+    }
+
+    public List<Method> getDestroyHooks() {
+        return destroyHooks;
+    }
+
+    public void setDestroyHooks(List<Method> destroyHooks) {
+        this.destroyHooks = destroyHooks;
+        List<MethodHandle> handles = new ArrayList<MethodHandle>(destroyHooks.size());
+        long timeout = 0;
+        for (Method m : destroyHooks) {
+            handles.add(MethodHandleUtil.hook(m));
+            timeout = Math.max(timeout, m.getAnnotation(BeforeDestroy.class).timeoutMillis());
+        }
+        this.destroyHookHandles = handles;
+        this.destroyTimeoutMillis = timeout;
+    }
+
+    public boolean hasDestroyHooks() {
+        return !destroyHookHandles.isEmpty();
+    }
+
+    public long getDestroyTimeoutMillis() {
+        return destroyTimeoutMillis;
+    }
+
+    public void invokeDestroyHooks(Object target) throws Throwable {
+        for (MethodHandle hook : destroyHookHandles) {
+            hook.invokeExact(target);
+        }
+    }
+
+    public CompletableFuture<Void> getReadyFuture() {
+        return ready;
+    }
+
+    public ChinaBeanScope getScope() {
+        return scope;
+    }
+
+    public void setScope(ChinaBeanScope scope) {
+        this.scope = scope;
+    }
+
+    public boolean isSingleton() {
+        return scope == ChinaBeanScope.SINGLETON;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * @return 实例是否在使用时才创建（非单例或懒加载），容器初始化时不创建、不注入、不执行 hook
+     */
+    public boolean isOnDemand() {
+        return lazy || !isSingleton();
+    }
+
+    public void setCreator(BeanCreator creator) {
+        this.creator = creator;
+    }
+
+    void setConverterRegistry(ConverterRegistry converterRegistry) {
+        this.converterRegistry = converterRegistry;
+        this.injectionPlan = null;
+    }
+
+    public BeanPool getPool() {
+        return pool;
+    }
+
+    public void setPool(BeanPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 按作用域获取 bean 实例：单例直接返回，懒加载单例第一次调用时创建，PROTOTYPE 每次新建，POOLED 从池中借出
+     */
+    public Object getInstance() throws InitializeBeanException {
+        switch (scope) {
+            case PROTOTYPE:
+                return creator.create(this);
+            case POOLED:
+                return pool.borrow();
+            default:
+                Object instance = beanInstance;
+                if (instance != null || !lazy) return instance;
+                return createLazyInstance();
+        }
+    }
+
+    private synchronized Object createLazyInstance() throws InitializeBeanException {
+        if (beanInstance != null) return beanInstance;
+        if (creating) {
+            throw new InitializeBeanException("lazy bean depends on itself while creating : " + getBeanName());
+        }
+        creating = true;
+        try {
+            // hook 执行完成后才发布实例
+            beanInstance = creator.create(this);
+        } finally {
+            creating = false;
+        }
+        return beanInstance;
     }
 
     public void setObjectType(Class objectType) {
@@ -124,4 +505,16 @@ public class ChinaBeanInfo {
     public Class getObjectType() {
         return objectType;
     }
+
+    public BeanTiming getTiming() {
+        return timing;
+    }
+
+    public List<ChinaBeanInfo> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<ChinaBeanInfo> dependencies) {
+        this.dependencies = dependencies;
+    }
 }
@@ -1,13 +1,25 @@
 package com.chinaxing.ioc;
 
 import com.chinaxing.ioc.annotation.*;
+import com.chinaxing.ioc.index.BeanIndex;
+import com.chinaxing.ioc.jfr.BeanEvents;
+import com.chinaxing.ioc.index.BeanIndexEntry;
 import com.chinaxing.ioc.util.AnnotationClassSelector;
+import com.chinaxing.ioc.util.CollectionUtil;
 import com.chinaxing.ioc.util.ReflectionUtil;
+import com.chinaxing.ioc.util.ScanCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * 要解决的问题：
@@ -27,8 +39,9 @@ import java.util.*;
  * Ioc 容器
  * Created by lenovo on 2015/1/29.
  */
-public class ChinaIOC {
+public class ChinaIOC implements AutoCloseable {
     private final static Logger logger = LoggerFactory.getLogger(ChinaIOC.class);
+    private final static AtomicInteger containerIds = new AtomicInteger();
 
     /**
      * 初始状态 ，还未创建
@@ -41,16 +54,72 @@ public class ChinaIOC {
     /**
      * 注入完成，但是还未进行调用hook
      */
-    private Map<Class, ChinaBeanInfo> injectedBeanMap = new HashMap<Class, ChinaBeanInfo>();
+    private Map<Class, ChinaBeanInfo> injectedBeanMap = new LinkedHashMap<Class, ChinaBeanInfo>();
 
-    private BeanContainer beanContainer = new BeanContainer();
+    private final BeanContainer beanContainer;
+    /**
+     * 子容器的父容器，根容器为 null
+     */
+    private final ChinaIOC parent;
+    /**
+     * 运行时统计，ChinaIOCConfig.metricsEnabled 为 false 时为 null
+     */
+    private final ContainerMetrics metrics;
+    private ObjectName metricsName;
+
+    private volatile Properties properties;
+    /**
+     * 属性名 -> 单例 bean 上引用它的注入点，属性重新加载时只重新注入这些字段
+     */
+    private final Map<String, List<PropertyBinding>> propertyBindings = new HashMap<String, List<PropertyBinding>>();
+    private PropertyFileWatcher propertyWatcher;
+
+    private ChinaIOCConfig config;
 
-    private Properties properties;
+    private String basePackage;
+    /**
+     * 从装配快照读取的依赖图，没有使用快照时为 null
+     */
+    private BeanDependencyGraph snapshotGraph;
+
+    private long scanNanos;
+    /**
+     * 依赖图中的 bean，依赖的 bean 在前；关闭时按反序销毁
+     */
+    private List<ChinaBeanInfo> beanOrder;
+    /**
+     * 有销毁 hook 的 bean -> 要先销毁的、依赖它的有销毁 hook 的 bean；compact 时从依赖列表算出，之后 bean 不再保留依赖列表
+     */
+    private Map<ChinaBeanInfo, List<ChinaBeanInfo>> destroyDependents;
+    private boolean closed;
+    private CompletableFuture<Void> readyFuture;
+    private StartupReport startupReport;
+
+    private final BeanCreator beanCreator = new BeanCreator() {
+        @Override
+        public Object create(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+            return createInstance(beanInfo);
+        }
+    };
 
     public <T> T getChinaBean(Class<T> c) throws BeanNotUniqueException {
         return beanContainer.getBeanOfType(c);
     }
 
+    /**
+     * @return 该名称（@ChinaBean(value) 或类名）的 bean，没有时返回 null
+     */
+    public Object getChinaBean(String name) {
+        return beanContainer.getBeanByName(name);
+    }
+
+    /**
+     * @return 该名称的 bean 作为 c 的实例，名称对应工厂 bean 时返回它的产品；没有时返回 null
+     */
+    public <T> T getChinaBean(String name, Class<T> c) {
+        return beanContainer.getBeanByName(name, c);
+    }
+
     public <T> T getChinaBean(Class<T> c, Object... args) throws BeanNotUniqueException {
         return beanContainer.getBeanOfType(c, args);
     }
@@ -59,54 +128,592 @@ public class ChinaIOC {
         return beanContainer.getBeansOfType(tClass);
     }
 
+    /**
+     * @return 所有 bean 的 hook（包括异步 hook）执行完成时完成；任何一个 hook 失败时以
+     * InitializeBeanException 失败，异常信息中包含 bean 名称。initContainer 之前为 null
+     */
+    public CompletableFuture<Void> getReadyFuture() {
+        return readyFuture;
+    }
+
+    /**
+     * @return 这个 bean 和它依赖的 bean 的 hook 都执行完成时，以 bean 实例完成；没有这个类型的 bean 时返回 null
+     */
+    public <T> CompletableFuture<T> getReadyFuture(final Class<T> c) throws BeanNotUniqueException {
+        List<ChinaBeanInfo> beans = beanContainer.getBeanInfos(c);
+        if (beans.isEmpty()) return null;
+        if (beans.size() != 1) {
+            throw new BeanNotUniqueException("bean count " + beans.size());
+        }
+        return beans.get(0).getReadyFuture().thenApply(new Function<Void, T>() {
+            @Override
+            public T apply(Void v) {
+                try {
+                    return getChinaBean(c);
+                } catch (BeanNotUniqueException e) {
+                    throw new CompletionException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return 启动耗时汇总，initContainer 之前为 null
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * @return 启动耗时最多的 n 个 bean
+     */
+    public List<BeanTiming> getSlowestBeans(int n) {
+        return startupReport == null ? Collections.<BeanTiming>emptyList() : startupReport.getSlowestBeans(n);
+    }
+
+    /**
+     * @return 决定启动时间下限的依赖路径，被依赖的 bean 在前
+     */
+    public List<BeanTiming> getCriticalPath() {
+        return startupReport == null ? Collections.<BeanTiming>emptyList() : startupReport.getCriticalPath();
+    }
+
+    /**
+     * 把 POOLED bean 的实例还回池中
+     *
+     * @return 实例不属于任何池、不是借出未归还的实例，或者池已满被丢弃时返回 false
+     */
+    public boolean releaseChinaBean(Object bean) {
+        BeanPool pool = getBeanPool(bean.getClass());
+        return pool != null && pool.release(bean);
+    }
+
+    public BeanPool getBeanPool(Class<?> beanClass) {
+        for (ChinaBeanInfo beanInfo : beanContainer.getBeanInfos(beanClass)) {
+            if (beanInfo.getBeanClass() == beanClass && beanInfo.getPool() != null) return beanInfo.getPool();
+        }
+        return null;
+    }
+
     public ChinaIOC(String basePackage, Properties properties) throws InitializeBeanException {
-        this.properties = properties;
-        List<Class<?>> pkgClassList = ReflectionUtil.listPackageClass(basePackage, new AnnotationClassSelector<ChinaBean>(ChinaBean.class));
+        this(basePackage, properties, new ChinaIOCConfig());
+    }
+
+    public ChinaIOC(String basePackage, Properties properties, ChinaIOCConfig config) throws InitializeBeanException {
+        this.config = config;
+        this.properties = properties != null ? properties : loadPropertiesFile();
+        this.basePackage = basePackage;
+        this.parent = null;
+        this.metrics = config.isMetricsEnabled() ? new ContainerMetrics() : null;
+        this.beanContainer = new BeanContainer(null, metrics);
+        registerMetrics();
+        Object scanEvent = BeanEvents.beginPackageScan();
+        long start = System.nanoTime();
+        discoverBeans();
+        scanNanos = System.nanoTime() - start;
+        BeanEvents.endPackageScan(scanEvent, basePackage, initialBeanMap.size());
+    }
+
+    /**
+     * 子容器：只解析给定的 bean 类，不扫描包；查询本容器没有的类型时交给父容器的只读索引，
+     * 父容器的数据不复制。子容器使用父容器的配置和创建子容器时的属性，属性重新加载不会注入子容器的 bean
+     */
+    private ChinaIOC(ChinaIOC parent, Class<?>[] beanClasses) throws InitializeBeanException {
+        this.parent = parent;
+        this.config = parent.config;
+        this.properties = parent.properties;
+        this.basePackage = parent.basePackage;
+        this.metrics = config.isMetricsEnabled() ? new ContainerMetrics() : null;
+        this.beanContainer = new BeanContainer(parent.beanContainer, metrics);
+        registerMetrics();
+        for (Class c : beanClasses) {
+            if (c.getAnnotation(ChinaBean.class) == null) {
+                throw new InitializeBeanException("child bean class need @ChinaBean : " + c.getName());
+            }
+            ChinaBeanInfo beanInfo = new ChinaBeanInfo(c);
+            PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.SCAN);
+            try {
+                initialBeanInfo(beanInfo);
+            } finally {
+                timer.stop();
+            }
+            initialBeanMap.put(c, beanInfo);
+        }
+    }
+
+    /**
+     * 创建子容器，子容器的 bean 可以注入本容器的 bean，本容器看不到子容器的 bean。
+     * 和根容器一样，用 addBean 添加实例后调用 initContainer 初始化给定的 bean 类
+     *
+     * @param beanClasses 子容器自己的 @ChinaBean 类，同类型时覆盖本容器的 bean
+     */
+    public ChinaIOC createChild(Class<?>... beanClasses) throws InitializeBeanException {
+        return new ChinaIOC(this, beanClasses);
+    }
+
+    public ChinaIOC getParent() {
+        return parent;
+    }
+
+    /**
+     * @return 运行时统计，没有开启 ChinaIOCConfig.metricsEnabled 时为 null
+     */
+    public ContainerMetricsMXBean getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 把统计注册到平台 MBeanServer，注册失败只记录日志；close 时注销
+     */
+    private void registerMetrics() {
+        if (metrics == null) return;
+        try {
+            ObjectName name = new ObjectName("com.chinaxing.ioc:type=ContainerMetrics,package="
+                    + ObjectName.quote(basePackage) + ",id=" + containerIds.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            metricsName = name;
+        } catch (Exception e) {
+            logger.warn("register container metrics of package {} failed", basePackage, e);
+        }
+    }
+
+    private void unregisterMetrics() {
+        if (metricsName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+        } catch (Exception e) {
+            logger.warn("unregister container metrics {} failed", metricsName, e);
+        }
+        metricsName = null;
+    }
+
+    /**
+     * 从装配快照、bean 索引或包扫描得到所有 bean 类，解析 bean 信息
+     */
+    private void discoverBeans() throws InitializeBeanException {
+        if (loadSnapshot()) return;
+        List<BeanIndexEntry> indexEntries = loadBeanIndex(basePackage);
+        if (indexEntries != null) {
+            logger.debug("load {} beans of package : {} from bean index", indexEntries.size(), basePackage);
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            for (BeanIndexEntry entry : indexEntries) {
+                Class c;
+                try {
+                    c = Class.forName(entry.getClassName(), true, classLoader);
+                } catch (ClassNotFoundException e) {
+                    throw new InitializeBeanException("bean index is stale, class not found : " + entry.getClassName());
+                }
+                ChinaBeanInfo beanInfo = new ChinaBeanInfo(c);
+                PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.SCAN);
+                try {
+                    initialBeanInfo(beanInfo, entry);
+                } finally {
+                    timer.stop();
+                }
+                initialBeanMap.put(c, beanInfo);
+            }
+            return;
+        }
+        ScanCache scanCache = config.getScanCacheFile() == null ? null
+                : ScanCache.load(config.getScanCacheFile(), ChinaBean.class.getName());
+        List<Class<?>> pkgClassList = ReflectionUtil.listPackageClass(basePackage,
+                new AnnotationClassSelector<ChinaBean>(ChinaBean.class), scanCache);
+        if (scanCache != null) {
+            try {
+                scanCache.save();
+            } catch (IOException e) {
+                logger.warn("write scan cache failed : {}", config.getScanCacheFile(), e);
+            }
+        }
         for (Class c : pkgClassList) {
             ChinaBeanInfo beanInfo = new ChinaBeanInfo(c);
-            initialBeanInfo(beanInfo);
+            PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.SCAN);
+            try {
+                initialBeanInfo(beanInfo);
+            } finally {
+                timer.stop();
+            }
             initialBeanMap.put(c, beanInfo);
         }
     }
 
+    private Properties loadPropertiesFile() throws InitializeBeanException {
+        if (config.getPropertiesFile() == null) return new Properties();
+        try {
+            return PropertyFileWatcher.load(config.getPropertiesFile());
+        } catch (IOException e) {
+            throw new InitializeBeanException("cannot read properties file : " + config.getPropertiesFile(), e);
+        }
+    }
+
+    private boolean loadSnapshot() throws InitializeBeanException {
+        if (config.getStartupMode() != StartupMode.SNAPSHOT) return false;
+        if (config.getSnapshotFile() == null) {
+            throw new InitializeBeanException("SNAPSHOT startup mode need snapshotFile in ChinaIOCConfig");
+        }
+        snapshotGraph = WiringSnapshot.read(config.getSnapshotFile(), basePackage);
+        if (snapshotGraph == null) return false;
+        logger.debug("load {} beans of package : {} from wiring snapshot", snapshotGraph.getBeans().size(), basePackage);
+        for (ChinaBeanInfo beanInfo : snapshotGraph.getBeans()) {
+            initialBeanScope(beanInfo);
+            initialBeanMap.put(beanInfo.getBeanClass(), beanInfo);
+        }
+        snapshotGraph.bindInjectionPoints();
+        return true;
+    }
+
+    private void writeSnapshot(BeanDependencyGraph graph) {
+        try {
+            WiringSnapshot.write(config.getSnapshotFile(), basePackage, graph);
+        } catch (IOException e) {
+            logger.warn("write wiring snapshot failed : {}", config.getSnapshotFile(), e);
+        } catch (InitializeBeanException e) {
+            logger.warn("write wiring snapshot failed : {}", config.getSnapshotFile(), e);
+        }
+    }
+
+    private List<BeanIndexEntry> loadBeanIndex(String basePackage) throws InitializeBeanException {
+        if (config.getStartupMode() == StartupMode.SCAN) return null;
+        List<BeanIndexEntry> entries;
+        try {
+            entries = BeanIndex.load(basePackage);
+        } catch (Exception e) {
+            throw new InitializeBeanException(e);
+        }
+        if (entries == null && config.getStartupMode() == StartupMode.INDEX) {
+            throw new InitializeBeanException("no bean index found for package " + basePackage + " : " + BeanIndex.INDEX_RESOURCE);
+        }
+        return entries;
+    }
+
     public <T> void addBean(Class<T> clz, T object) {
         beanContainer.registerBean(clz, object);
     }
 
     public void initContainer() throws InitializeBeanException {
-        preInitialClass();
-        for (ChinaBeanInfo beanInfo : injectedBeanMap.values()) {
-            doAfterInitial(beanInfo);
-            beanInfo.setState(BeanState.HOOKED);
+        long start = System.nanoTime();
+        BeanDependencyGraph graph = preInitialClass();
+        beanOrder = graph.getBeanOrder();
+        beanContainer.freeze();
+        startupReport = new StartupReport(graph, scanNanos, System.nanoTime() - start);
+        scheduleAsyncHooks(beanOrder);
+        // 就绪之后的工厂调用、按需创建不再计时，启动报告也不再变化；bean 可能已经压缩，从报告取计时
+        final List<BeanTiming> timings = startupReport.getBeans();
+        readyFuture.whenComplete(new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(Void v, Throwable t) {
+                for (BeanTiming timing : timings) {
+                    timing.finish();
+                }
+            }
+        });
+        if (parent == null) {
+            if (config.getStartupMode() == StartupMode.SNAPSHOT && snapshotGraph == null) {
+                writeSnapshot(graph);
+            }
+            if (config.getPropertiesFile() != null) {
+                try {
+                    propertyWatcher = PropertyFileWatcher.start(config.getPropertiesFile(), this);
+                } catch (IOException e) {
+                    throw new InitializeBeanException("cannot watch properties file : " + config.getPropertiesFile(), e);
+                }
+            }
+        }
+        if (config.isCompactAfterInit()) compact();
+    }
+
+    /**
+     * 释放只在初始化时使用的数据：初始化过程中的 bean 表、快照依赖图，以及单例 bean 的构造器、注入字段、
+     * 同步 hook 等元数据。之后仍然可以查询、调用工厂方法、重新加载属性和 close；
+     * 按需创建实例的 bean（PROTOTYPE、POOLED、懒加载）保留全部元数据
+     */
+    public synchronized void compact() {
+        if (beanOrder == null) return;
+        initialBeanMap = new HashMap<Class, ChinaBeanInfo>();
+        instantBeanMap = new HashMap<Class, ChinaBeanInfo>();
+        injectedBeanMap = new LinkedHashMap<Class, ChinaBeanInfo>();
+        snapshotGraph = null;
+        if (destroyDependents == null) destroyDependents = destroyDependents(beanOrder);
+        for (ChinaBeanInfo beanInfo : beanOrder) {
+            beanInfo.compact();
+        }
+    }
+
+    /**
+     * 用新的属性替换当前属性，对值有变化的属性重新注入引用它的单例 bean 字段；
+     * 被删除的属性保留字段当前的值。需要其他线程立即看到新值的字段应声明为 volatile
+     *
+     * @return 值有变化的属性名
+     */
+    public synchronized Set<String> reloadProperties(Properties updated) {
+        Properties current = properties;
+        Set<String> changed = new TreeSet<String>();
+        for (Object key : updated.keySet()) {
+            if (!updated.get(key).equals(current.get(key))) changed.add(key.toString());
+        }
+        for (Object key : current.keySet()) {
+            if (!updated.containsKey(key)) changed.add(key.toString());
+        }
+        properties = updated;
+        for (String name : changed) {
+            List<PropertyBinding> bindings;
+            synchronized (propertyBindings) {
+                bindings = propertyBindings.get(name);
+                if (bindings == null) continue;
+                bindings = new ArrayList<PropertyBinding>(bindings);
+            }
+            Object value = updated.get(name);
+            if (value == null) {
+                logger.warn("property {} removed, keep current value of {}", name, bindings);
+                continue;
+            }
+            for (PropertyBinding binding : bindings) {
+                try {
+                    binding.inject(value);
+                } catch (Throwable t) {
+                    logger.error("re-inject property {} = {} into {} failed", name, value, binding, t);
+                }
+            }
+        }
+        logger.info("reload properties, changed : {}", changed);
+        return changed;
+    }
+
+    /**
+     * 关闭容器，按依赖的反序执行 @BeforeDestroy：一个 bean 在依赖它的 bean 都销毁后才销毁，互不依赖的分支并行执行，
+     * 关闭耗时取决于最长的依赖链。每个 bean 的 hook 超时后不再等待，出错只记录日志
+     * <p/>
+     * 销毁容器创建的单例、已经创建的懒加载 bean 和 POOLED bean 池中空闲的实例；
+     * PROTOTYPE 实例、借出未归还的实例、addBean 添加的实例和子容器都不会销毁
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        stopPropertyWatcher();
+        unregisterMetrics();
+        if (beanOrder == null) return;
+        List<ChinaBeanInfo> order = beanOrder;
+        Map<ChinaBeanInfo, List<ChinaBeanInfo>> dependents;
+        synchronized (this) {
+            dependents = destroyDependents != null ? destroyDependents : destroyDependents(order);
+        }
+        ExecutorService executor = Executors.newCachedThreadPool(daemonThreads("china-ioc-destroy"));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("china-ioc-destroy-timer"));
+        Map<ChinaBeanInfo, CompletableFuture<Void>> destroyed = new IdentityHashMap<ChinaBeanInfo, CompletableFuture<Void>>();
+        try {
+            for (int i = order.size() - 1; i >= 0; i--) {
+                final ChinaBeanInfo beanInfo = order.get(i);
+                List<ChinaBeanInfo> waitFor = dependents.get(beanInfo);
+                CompletableFuture<?>[] futures = new CompletableFuture[waitFor == null ? 0 : waitFor.size()];
+                for (int d = 0; d < futures.length; d++) {
+                    futures[d] = destroyed.get(waitFor.get(d));
+                }
+                final CompletableFuture<Void> done = new CompletableFuture<Void>();
+                final Executor hookExecutor = executor;
+                final ScheduledExecutorService hookTimer = timer;
+                CompletableFuture.allOf(futures).whenComplete(new BiConsumer<Void, Throwable>() {
+                    @Override
+                    public void accept(Void v, Throwable t) {
+                        destroyBean(beanInfo, hookExecutor, hookTimer, done);
+                    }
+                });
+                destroyed.put(beanInfo, done);
+            }
+            CompletableFuture.allOf(destroyed.values().toArray(new CompletableFuture[destroyed.size()])).join();
+        } finally {
+            executor.shutdown();
+            timer.shutdownNow();
         }
+        logger.info("close container succeed !");
     }
 
+    /**
+     * 销毁时的等待关系：只有有销毁 hook 的 bean 需要等待，没有 hook 的 bean 立即完成。
+     * 每个有 hook 的 bean 沿依赖向前找，经过没有 hook 的 bean，遇到有 hook 的 bean 就停下，它要等这个 bean 先销毁。
+     * 依赖成环时只保留顺序在后的 bean 对前面 bean 的依赖
+     */
+    private static Map<ChinaBeanInfo, List<ChinaBeanInfo>> destroyDependents(List<ChinaBeanInfo> order) {
+        Map<ChinaBeanInfo, Integer> position = new IdentityHashMap<ChinaBeanInfo, Integer>();
+        for (int i = 0; i < order.size(); i++) {
+            position.put(order.get(i), i);
+        }
+        Map<ChinaBeanInfo, List<ChinaBeanInfo>> dependents = new IdentityHashMap<ChinaBeanInfo, List<ChinaBeanInfo>>();
+        for (ChinaBeanInfo beanInfo : order) {
+            if (!beanInfo.hasDestroyHooks()) continue;
+            Set<ChinaBeanInfo> visited = Collections.newSetFromMap(new IdentityHashMap<ChinaBeanInfo, Boolean>());
+            Deque<ChinaBeanInfo> pending = new ArrayDeque<ChinaBeanInfo>();
+            pending.push(beanInfo);
+            while (!pending.isEmpty()) {
+                ChinaBeanInfo current = pending.pop();
+                int at = position.get(current);
+                for (ChinaBeanInfo dependency : current.getDependencies()) {
+                    Integer p = position.get(dependency);
+                    if (p == null || p >= at || !visited.add(dependency)) continue;
+                    if (dependency.hasDestroyHooks()) {
+                        CollectionUtil.addMapList(dependents, dependency, beanInfo);
+                    } else {
+                        pending.push(dependency);
+                    }
+                }
+            }
+        }
+        return dependents;
+    }
+
+    private void destroyBean(final ChinaBeanInfo beanInfo, Executor executor, ScheduledExecutorService timer,
+                             final CompletableFuture<Void> done) {
+        final List<Object> instances = new ArrayList<Object>();
+        if (beanInfo.isSingleton() && beanInfo.getBeanInstance() != null) instances.add(beanInfo.getBeanInstance());
+        if (beanInfo.getPool() != null) instances.addAll(beanInfo.getPool().drain());
+        if (instances.isEmpty() || !beanInfo.hasDestroyHooks()) {
+            beanInfo.setState(BeanState.DESTROYED);
+            done.complete(null);
+            return;
+        }
+        final long timeoutMillis = beanInfo.getDestroyTimeoutMillis() > 0
+                ? beanInfo.getDestroyTimeoutMillis() : config.getDestroyTimeoutMillis();
+        final ScheduledFuture<?> timeout = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (done.complete(null)) {
+                    logger.warn("@BeforeDestroy of bean {} timed out after {} ms", beanInfo.getBeanName(), timeoutMillis);
+                }
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (Object instance : instances) {
+                    try {
+                        beanInfo.invokeDestroyHooks(instance);
+                    } catch (Throwable t) {
+                        logger.error("@BeforeDestroy of bean {} failed", beanInfo.getBeanName(), t);
+                    }
+                }
+                beanInfo.setState(BeanState.DESTROYED);
+                timeout.cancel(false);
+                done.complete(null);
+            }
+        });
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * 停止监视 ChinaIOCConfig.propertiesFile
+     */
+    public synchronized void stopPropertyWatcher() {
+        if (propertyWatcher == null) return;
+        propertyWatcher.close();
+        propertyWatcher = null;
+    }
+
+    /**
+     * 记录单例 bean 的属性注入点，供属性重新加载使用
+     */
+    private void bindProperties(ChinaBeanInfo beanInfo, Object instance) throws InitializeBeanException {
+        for (InjectionPlan.Step step : beanInfo.getInjectionPlan().getSteps()) {
+            InjectionPoint point = step.points[0];
+            if (point.kind != InjectionPoint.Kind.PROPERTY) continue;
+            PropertyBinding binding = new PropertyBinding(beanInfo, instance, step);
+            synchronized (propertyBindings) {
+                List<PropertyBinding> bindings = propertyBindings.get(point.propertyName);
+                if (bindings == null) {
+                    bindings = new ArrayList<PropertyBinding>();
+                    propertyBindings.put(point.propertyName, bindings);
+                }
+                bindings.add(binding);
+            }
+        }
+    }
 
     private void initialBeanInfo(ChinaBeanInfo beanInfo) throws InitializeBeanException {
         Class c = beanInfo.getBeanClass();
-        beanInfo.setUnInjectedFields(ReflectionUtil.getFieldWithAnnotation(c, Inject.class));
-        beanInfo.setHooks(ReflectionUtil.getMethodWithAnnotation(c, AfterInit.class));
-        beanInfo.setConstructor(ReflectionUtil.getUniqueConstructor(c));
         ChinaBean cb = (ChinaBean) c.getAnnotation(ChinaBean.class);
-        String beanName = cb.value();
-        if (beanName != null && !beanName.isEmpty()) {
-            beanInfo.setBeanName(beanName);
-        }
+        BeanIndexEntry entry = new BeanIndexEntry(c.getName());
+        entry.setType(cb.type());
+        entry.setBeanName(cb.value());
         if (cb.type() == ChinaBeanType.FACTORY_BEAN) {
-            beanInfo.setFactoryBean(true);
             List<Method> methods = ReflectionUtil.getMethodWithAnnotation(c, ChinaBeanFactoryMethod.class);
             if (methods.isEmpty())
-                throw new InitializeBeanException("Factory Bean has no FactoryMethod : " + c.getClass().getName());
-            beanInfo.setFactoryMethod(methods.get(0));
+                throw new InitializeBeanException("Factory Bean has no FactoryMethod : " + c.getName());
+            entry.setFactoryMethod(methods.get(0).getName());
             methods = ReflectionUtil.getMethodWithAnnotation(c, ChinaBeanObjectType.class);
             if (methods.isEmpty()) {
-                throw new InitializeBeanException("Factory Bean need @ChinaBeanObjectType annotation " + c.getClass().getName());
+                throw new InitializeBeanException("Factory Bean need @ChinaBeanObjectType annotation " + c.getName());
+            }
+            entry.setObjectTypeMethod(methods.get(0).getName());
+        }
+        initialBeanInfo(beanInfo, entry);
+    }
+
+    /**
+     * 按索引条目初始化 bean 信息，索引里已有的注解数据不再反射读取
+     */
+    private void initialBeanInfo(ChinaBeanInfo beanInfo, BeanIndexEntry entry) throws InitializeBeanException {
+        Class c = beanInfo.getBeanClass();
+        beanInfo.setUnInjectedFields(ReflectionUtil.getFieldWithAnnotation(c, Inject.class));
+        List<Method> injectMethods = ReflectionUtil.getMethodWithAnnotation(c, Inject.class);
+        Collections.sort(injectMethods, new Comparator<Method>() {
+            @Override
+            public int compare(Method m1, Method m2) {
+                return m1.toString().compareTo(m2.toString());
+            }
+        });
+        beanInfo.setInjectMethods(injectMethods);
+        List<Method> hooks = ReflectionUtil.getMethodWithAnnotation(c, AfterInit.class);
+        for (Method m : hooks) {
+            if (m.getParameterCount() != 0)
+                throw new InitializeBeanException("@AfterInit method must have zero arguments :" + m.getName());
+        }
+        beanInfo.setHooks(hooks);
+        List<Method> destroyHooks = ReflectionUtil.getMethodWithAnnotation(c, BeforeDestroy.class);
+        for (Method m : destroyHooks) {
+            if (m.getParameterCount() != 0)
+                throw new InitializeBeanException("@BeforeDestroy method must have zero arguments :" + m.getName());
+        }
+        beanInfo.setDestroyHooks(destroyHooks);
+        beanInfo.setConstructor(ReflectionUtil.getUniqueConstructor(c));
+        String beanName = entry.getBeanName();
+        if (!beanName.isEmpty()) {
+            beanInfo.setBeanName(beanName);
+        }
+        initialBeanScope(beanInfo);
+        // 提前编译注入计划，注入点不合法时在这里失败
+        beanInfo.getInjectionPlan();
+        if (entry.getType() == ChinaBeanType.FACTORY_BEAN) {
+            beanInfo.setFactoryBean(true);
+            if (!beanInfo.isSingleton())
+                throw new InitializeBeanException("Factory Bean must be singleton : " + c.getName());
+            Method factoryMethod = ReflectionUtil.getDeclaredMethod(c, entry.getFactoryMethod(), ChinaBeanFactoryMethod.class);
+            if (factoryMethod == null)
+                throw new InitializeBeanException("Factory Bean has no FactoryMethod : " + c.getName());
+            if (factoryMethod.getAnnotation(ChinaBeanFactoryMethod.class).scope() == ChinaBeanScope.POOLED)
+                throw new InitializeBeanException("FactoryMethod does not support pooled scope : " + c.getName());
+            beanInfo.setFactoryMethod(factoryMethod);
+            Method m = ReflectionUtil.getDeclaredMethod(c, entry.getObjectTypeMethod(), ChinaBeanObjectType.class);
+            if (m == null) {
+                throw new InitializeBeanException("Factory Bean need @ChinaBeanObjectType annotation " + c.getName());
             }
-            Method m = methods.get(0);
             if (!Modifier.isStatic(m.getModifiers())) {
-                throw new InitializeBeanException("@ChinaBeanObjectType need static method" + c.getClass().getName());
+                throw new InitializeBeanException("@ChinaBeanObjectType need static method" + c.getName());
             }
             try {
+                m.setAccessible(true);
                 beanInfo.setObjectType((Class) m.invoke(null));
             } catch (Exception e) {
                 throw new InitializeBeanException(e);
@@ -115,110 +722,306 @@ public class ChinaIOC {
     }
 
 
-    private void preInitialClass() throws InitializeBeanException {
-        int beforeSize = injectedBeanMap.size();
-        /**
-         * 实例化bean
-         */
-        Iterator<Class> iterator = initialBeanMap.keySet().iterator();
-        while (iterator.hasNext()) {
-            Class c = iterator.next();
-            ChinaBeanInfo beanInfo = initialBeanMap.get(c);
-            Object instance = instantBean(beanInfo);
-            if (instance != null) {
-                beanInfo.setBeanInstance(instance);
-                beanInfo.setState(BeanState.INSTANT);
-                instantBeanMap.put(c, beanInfo);
-                beanContainer.registerBean(beanInfo);
-                iterator.remove();
+    private void initialBeanScope(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        ChinaBean cb = beanInfo.getBeanClass().getAnnotation(ChinaBean.class);
+        beanInfo.setScope(cb.scope());
+        boolean canBeLazy = cb.scope() == ChinaBeanScope.SINGLETON && cb.type() == ChinaBeanType.NORMAL_BEAN;
+        if (cb.lazy() == ChinaBeanLazyMode.LAZY && !canBeLazy) {
+            throw new InitializeBeanException("only singleton normal bean can be lazy : " + beanInfo.getBeanClass().getName());
+        }
+        beanInfo.setLazy(canBeLazy && (cb.lazy() == ChinaBeanLazyMode.LAZY
+                || cb.lazy() == ChinaBeanLazyMode.DEFAULT && config.isLazyByDefault()));
+        beanInfo.setCreator(beanCreator);
+        beanInfo.setConverterRegistry(config.getConverterRegistry());
+        if (cb.scope() == ChinaBeanScope.POOLED) {
+            beanInfo.setPool(new BeanPool(beanInfo, beanCreator, cb.poolMaxIdle(), cb.poolMaxTotal(),
+                    cb.poolMaxWaitMillis(), cb.poolIdleTimeoutMillis(), cb.poolStats()));
+        }
+    }
+
+    /**
+     * 按依赖图的拓扑顺序一次完成所有 bean 的创建、注入和 hook；
+     * 并行模式下一个 bean 的依赖注入完成后就可以开始创建
+     */
+    private BeanDependencyGraph preInitialClass() throws InitializeBeanException {
+        final BeanDependencyGraph graph = snapshotGraph != null ? snapshotGraph
+                : new BeanDependencyGraph(initialBeanMap.values(), beanContainer);
+        List<Integer> order = graph.sort();
+        // 所有 bean 一次注册，依赖图保证使用一个 bean 之前它已经创建
+        beanContainer.registerBeans(graph.getBeans());
+        BeanDependencyGraph.NodeAction action = new BeanDependencyGraph.NodeAction() {
+            @Override
+            public void run(int node) throws InitializeBeanException {
+                runNode(graph, node);
+            }
+        };
+        if (config.getParallelism() > 1) {
+            ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+            try {
+                graph.executeParallel(pool, action);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            // 顺序模式保持原来的语义：全部注入完成后再执行 hook
+            for (int node : order) {
+                if (BeanDependencyGraph.stage(node) != BeanDependencyGraph.HOOK) action.run(node);
+            }
+            for (int node : order) {
+                if (BeanDependencyGraph.stage(node) == BeanDependencyGraph.HOOK) action.run(node);
             }
         }
-        /**
-         * 注入bean
-         */
-        iterator = instantBeanMap.keySet().iterator();
-        while (iterator.hasNext()) {
-            Class c = iterator.next();
-            ChinaBeanInfo beanInfo = instantBeanMap.get(c);
-            boolean t = injectBean(beanInfo);
-            if (t) {
-                beanInfo.setState(BeanState.INJECTED);
-                injectedBeanMap.put(c, beanInfo);
-                iterator.remove();
+        logger.info("initialize container succeed !");
+        return graph;
+    }
+
+    /**
+     * 同步 hook 都已执行完，按依赖顺序串起每个 bean 的就绪 future：bean 在依赖的 bean 就绪后
+     * 执行自己的异步 hook，然后就绪。字段依赖成环时后排的 bean 不等待前面的 bean
+     */
+    private void scheduleAsyncHooks(List<ChinaBeanInfo> order) {
+        Executor executor = config.getAsyncHookExecutor();
+        Set<ChinaBeanInfo> scheduled = Collections.newSetFromMap(new IdentityHashMap<ChinaBeanInfo, Boolean>());
+        CompletableFuture<?>[] all = new CompletableFuture[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            final ChinaBeanInfo beanInfo = order.get(i);
+            List<CompletableFuture<Void>> dependencies = new ArrayList<CompletableFuture<Void>>();
+            for (ChinaBeanInfo dependency : beanInfo.getDependencies()) {
+                if (scheduled.contains(dependency)) dependencies.add(dependency.getReadyFuture());
+            }
+            CompletableFuture<Void> done = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[dependencies.size()]));
+            if (!beanInfo.isOnDemand() && beanInfo.hasAsyncHooks()) {
+                done = done.thenRunAsync(new Runnable() {
+                    @Override
+                    public void run() {
+                        runAsyncHooks(beanInfo);
+                    }
+                }, executor);
             }
+            done.whenComplete(new BiConsumer<Void, Throwable>() {
+                @Override
+                public void accept(Void v, Throwable t) {
+                    if (t == null) {
+                        beanInfo.setState(BeanState.HOOKED);
+                        beanInfo.getReadyFuture().complete(null);
+                    } else {
+                        beanInfo.getReadyFuture().completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+                    }
+                }
+            });
+            scheduled.add(beanInfo);
+            all[i] = beanInfo.getReadyFuture();
         }
+        readyFuture = CompletableFuture.allOf(all);
+    }
 
-        if (beforeSize == injectedBeanMap.size()) {
-            throw new InitializeBeanException("cannot init container ...");
+    private void runAsyncHooks(ChinaBeanInfo beanInfo) {
+        PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.HOOK);
+        try {
+            beanInfo.invokeHooks(true);
+        } catch (Throwable t) {
+            logger.error("async @AfterInit of bean {} failed", beanInfo.getBeanName(), t);
+            throw new CompletionException(new InitializeBeanException("@AfterInit of bean " + beanInfo.getBeanName() + " failed", t));
+        } finally {
+            timer.stop();
         }
-        if (initialBeanMap.isEmpty() && instantBeanMap.isEmpty()) {
-            logger.info("initialize container succeed !");
-        } else {
-            preInitialClass();
+    }
+
+    private void runNode(BeanDependencyGraph graph, int node) throws InitializeBeanException {
+        ChinaBeanInfo beanInfo = graph.getBean(node);
+        switch (BeanDependencyGraph.stage(node)) {
+            case BeanDependencyGraph.CREATE:
+                createBean(beanInfo);
+                break;
+            case BeanDependencyGraph.INJECT:
+                injectBeanFields(beanInfo);
+                break;
+            default:
+                if (!beanInfo.isOnDemand()) doAfterInitial(beanInfo);
+                // 有异步 hook 的 bean 在异步 hook 完成后才进入 HOOKED
+                if (beanInfo.isOnDemand() || !beanInfo.hasAsyncHooks()) beanInfo.setState(BeanState.HOOKED);
         }
     }
 
-    private void doAfterInitial(ChinaBeanInfo beanInfo) throws InitializeBeanException {
-        Object instance = beanInfo.getBeanInstance();
-        for (Method m : beanInfo.getHooks()) {
-            if (m.getParameterCount() != 0)
-                throw new InitializeBeanException("@AfterInit method must have zero arguments :" + m.getName());
+    private void createBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        // 非单例、懒加载 bean 在使用时才创建
+        if (!beanInfo.isOnDemand()) {
+            PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.INSTANTIATE);
+            Object instance;
             try {
-                m.setAccessible(true);
-                m.invoke(instance);
-            } catch (Throwable t) {
-                throw new InitializeBeanException(t);
+                instance = instantBean(beanInfo);
+            } finally {
+                timer.stop();
             }
+            if (instance == null) {
+                throw new InitializeBeanException("cannot resolve constructor parameters of bean : " + beanInfo.getBeanName());
+            }
+            beanInfo.setBeanInstance(instance);
+        }
+        Class c = beanInfo.getBeanClass();
+        beanInfo.setState(BeanState.INSTANT);
+        synchronized (this) {
+            initialBeanMap.remove(c);
+            instantBeanMap.put(c, beanInfo);
+        }
+    }
+
+    private void injectBeanFields(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        if (!beanInfo.isOnDemand()) {
+            timedInjectBean(beanInfo);
+            bindProperties(beanInfo, beanInfo.getBeanInstance());
+        }
+        Class c = beanInfo.getBeanClass();
+        beanInfo.setState(BeanState.INJECTED);
+        synchronized (this) {
+            instantBeanMap.remove(c);
+            injectedBeanMap.put(c, beanInfo);
+        }
+    }
+
+    private void doAfterInitial(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.HOOK);
+        try {
+            beanInfo.invokeHooks(false);
+        } catch (Throwable t) {
+            throw new InitializeBeanException("@AfterInit of bean " + beanInfo.getBeanName() + " failed", t);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void timedInjectBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.INJECT);
+        try {
+            beanInfo.getInjectionPlan().inject(beanInfo.getBeanInstance(), valueResolver, beanInfo.getBeanName());
+            beanInfo.markInjected();
+        } finally {
+            timer.stop();
         }
     }
 
-    private boolean injectBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
-        Object instance = beanInfo.getBeanInstance();
-        List<Field> unInjectedFields = beanInfo.getUnInjectedFields();
-        List<Field> injectedFields = beanInfo.getInjectedFields();
-        for (Field f : unInjectedFields) {
-            Inject inject = f.getAnnotation(Inject.class);
-            if (inject.property()) {
+    /**
+     * 解析注入计划中注入点的值
+     */
+    private final InjectionPlan.Resolver valueResolver = new InjectionPlan.Resolver() {
+        @Override
+        public Object resolve(InjectionPoint point) throws InitializeBeanException {
+            return resolveValue(point);
+        }
+    };
+
+    /**
+     * @return 注入点要注入的值，依赖的 bean 不存在时返回 null
+     */
+    private Object resolveValue(InjectionPoint point) throws InitializeBeanException {
+        switch (point.kind) {
+            case PROPERTY:
                 try {
-                    ReflectionUtil.setFieldByProperty(instance, f, properties.get(inject.propertyName()));
-                    injectedFields.add(f);
-                    continue;
-                } catch (Throwable t) {
-                    throw new InitializeBeanException(t);
+                    Object value = properties.get(point.propertyName);
+                    return value == null ? null : point.convert(value);
+                } catch (Exception e) {
+                    throw new InitializeBeanException("cannot convert property " + point.propertyName + " of " + point, e);
                 }
-            }
-            Object injectMember;
-            if (Collection.class.isAssignableFrom(f.getType())) {
-                List<Object> classes = (List<Object>) getChinaBeansOfType(f.getType());
-                if (List.class.isAssignableFrom(f.getType())) {
-                    injectMember = classes;
-                } else if (Set.class.isAssignableFrom(f.getType())) {
-                    Set<Object> it = new HashSet();
-                    it.addAll(classes);
-                    injectMember = it;
-                } else {
-                    throw new InitializeBeanException("current only support Set and List collection type");
+            case PROVIDER:
+                ChinaBeanInfo provided = boundBean(point);
+                if (provided != null) return new BeanProvider(provided, point.elementType);
+                if (point.qualifier != null) return null;
+                List<ChinaBeanInfo> beans = beanContainer.getBeanInfos(point.elementType);
+                if (beans.isEmpty()) return null;
+                if (beans.size() != 1) {
+                    throw new InitializeBeanException(new BeanNotUniqueException("bean count " + beans.size()));
                 }
-            } else {
+                return new BeanProvider(beans.get(0), point.elementType);
+            case COLLECTION:
+                return CollectionInjection.value(point.type, beanContainer.getBeanCollection(point.elementType));
+            default:
+                ChinaBeanInfo bound = boundBean(point);
+                if (bound != null) return namedValue(bound, point.type, point);
+                if (point.qualifier != null) return null;
+                Object proxy = lazyProxy(point.type);
+                if (proxy != null) return proxy;
                 try {
-                    injectMember = getChinaBean(f.getType());
+                    return getChinaBean(point.type);
                 } catch (BeanNotUniqueException e) {
                     throw new InitializeBeanException(e);
                 }
-            }
-            if (injectMember != null) {
-                try {
-                    f.setAccessible(true);
-                    f.set(instance, injectMember);
-                    injectedFields.add(f);
-                } catch (Exception e) {
-                    throw new InitializeBeanException(e);
-                }
-            }
         }
-        unInjectedFields.removeAll(injectedFields);
-        if (unInjectedFields.isEmpty()) return true;
-        return false;
+    }
+
+    /**
+     * 注入点绑定的 bean；没有绑定时按 @Inject(name) 查找，查到后记在注入点上，原型 bean 之后的注入不再查名称索引
+     *
+     * @return 没有绑定也没有指定名称时返回 null，按类型查找
+     */
+    private ChinaBeanInfo boundBean(InjectionPoint point) {
+        ChinaBeanInfo bound = point.boundBean;
+        if (bound == null && point.qualifier != null) {
+            bound = beanContainer.getBeanInfo(point.qualifier);
+            point.boundBean = bound;
+        }
+        return bound;
+    }
+
+    private Object namedValue(ChinaBeanInfo named, Class<?> type, Object injectionPoint) throws InitializeBeanException {
+        if (type.isInterface() && named.isLazy() && named.getBeanInstance() == null && type.isAssignableFrom(named.getBeanClass())) {
+            return LazyBeanProxy.create(type, named);
+        }
+        try {
+            return beanContainer.namedInstance(named, type);
+        } catch (ClassCastException e) {
+            throw new InitializeBeanException("cannot inject " + injectionPoint + " : " + e.getMessage());
+        }
+    }
+
+    private Object resolveCollection(Class<?> type, Type genericType, Object injectionPoint) throws InitializeBeanException {
+        Class<?> elementType = CollectionInjection.elementType(type, genericType, injectionPoint);
+        return CollectionInjection.value(type, beanContainer.getBeanCollection(elementType));
+    }
+
+    /**
+     * 注入点是接口、唯一的 bean 是还未创建的懒加载 bean 时注入代理，保持它的懒加载
+     *
+     * @return 不需要代理时返回 null
+     */
+    private Object lazyProxy(Class type) {
+        if (!type.isInterface()) return null;
+        List<ChinaBeanInfo> beans = beanContainer.getBeanInfos(type);
+        if (beans.size() != 1) return null;
+        ChinaBeanInfo beanInfo = beans.get(0);
+        if (!beanInfo.isLazy() || beanInfo.getBeanInstance() != null) return null;
+        return LazyBeanProxy.create(type, beanInfo);
+    }
+
+    /**
+     * 创建 PROTOTYPE、POOLED bean 的一个新实例，或懒加载 bean 的唯一实例：构造、注入所有字段、执行 hook
+     */
+    private Object createInstance(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+        PhaseTimer timer = PhaseTimer.start(beanInfo, BeanPhase.INSTANTIATE);
+        Object instance;
+        try {
+            instance = instantBean(beanInfo);
+        } finally {
+            timer.stop();
+        }
+        if (instance == null) {
+            throw new InitializeBeanException("cannot resolve constructor parameters of bean : " + beanInfo.getBeanName());
+        }
+        timer = PhaseTimer.start(beanInfo, BeanPhase.INJECT);
+        try {
+            beanInfo.getInjectionPlan().inject(instance, valueResolver, beanInfo.getBeanName());
+        } finally {
+            timer.stop();
+        }
+        if (beanInfo.isLazy()) bindProperties(beanInfo, instance);
+        timer = PhaseTimer.start(beanInfo, BeanPhase.HOOK);
+        try {
+            beanInfo.invokeHooks(instance);
+        } catch (Throwable t) {
+            throw new InitializeBeanException(t);
+        } finally {
+            timer.stop();
+        }
+        return instance;
     }
 
     private Object instantBean(ChinaBeanInfo beanInfo) throws InitializeBeanException {
@@ -228,8 +1031,8 @@ public class ChinaIOC {
          */
         if (c.getParameterCount() == 0) {
             try {
-                return c.newInstance();
-            } catch (Exception e) {
+                return beanInfo.newInstance(new Object[0]);
+            } catch (Throwable e) {
                 throw new InitializeBeanException(e);
             }
         }
@@ -244,7 +1047,22 @@ public class ChinaIOC {
         int i = 0;
         for (Parameter p : parameters) {
             try {
-                Object o = getInjectedChinaBean(p.getType());
+                String qualifier = InjectionPoint.qualifier(p, null);
+                if (!qualifier.isEmpty()) {
+                    ChinaBeanInfo named = beanContainer.getBeanInfo(qualifier);
+                    Object o = named == null ? null : namedValue(named, p.getType(), p);
+                    if (o == null) {
+                        logger.debug("parameter : {} no instance, initial later !", p);
+                        parameterHasMissed = true;
+                        break;
+                    }
+                    args[i++] = o;
+                    continue;
+                }
+                Object o = CollectionInjection.isCollection(p.getType(), p.getParameterizedType())
+                        ? resolveCollection(p.getType(), p.getParameterizedType(), p)
+                        : lazyProxy(p.getType());
+                if (o == null) o = getInjectedChinaBean(p.getType());
                 if (o == null) {
                     logger.debug("parameter : {} no instance, initial later !", p);
                     parameterHasMissed = true;
@@ -259,8 +1077,8 @@ public class ChinaIOC {
 
         if (!parameterHasMissed) {
             try {
-                return c.newInstance(args);
-            } catch (Exception e) {
+                return beanInfo.newInstance(args);
+            } catch (Throwable e) {
                 logger.error("", e);
                 throw new InitializeBeanException(e);
             }
@@ -0,0 +1,146 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.convert.ConverterRegistry;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 容器配置
+ */
+public class ChinaIOCConfig {
+    public static final int SEQUENTIAL = 1;
+
+    private StartupMode startupMode = StartupMode.AUTO;
+    /**
+     * 初始化 bean 的并行度，大于 1 时在 ForkJoinPool 上并行创建、注入和执行 hook
+     */
+    private int parallelism = SEQUENTIAL;
+    /**
+     * lazy 为 DEFAULT 的单例普通 bean 是否懒加载
+     */
+    private boolean lazyByDefault = false;
+    /**
+     * StartupMode.SNAPSHOT 使用的装配快照文件
+     */
+    private File snapshotFile;
+    /**
+     * 执行 @AfterInit(async = true) hook 的线程池
+     */
+    private Executor asyncHookExecutor = ForkJoinPool.commonPool();
+    /**
+     * @Inject(property = true) 字段的类型转换器
+     */
+    private ConverterRegistry converterRegistry = new ConverterRegistry();
+    /**
+     * 属性文件：构造容器时没有传入 properties 就从这里读取；初始化完成后监视这个文件，
+     * 修改后只重新注入值有变化的属性字段
+     */
+    private File propertiesFile;
+    /**
+     * 包扫描缓存文件：记录每个 jar、目录的指纹和其中的 bean 类名，没有变化的 jar、目录不再扫描
+     */
+    private File scanCacheFile;
+    /**
+     * ChinaIOC.close 时每个 bean 的 @BeforeDestroy hook 默认的超时时间
+     */
+    private long destroyTimeoutMillis = 30000;
+    /**
+     * initContainer 完成后调用 ChinaIOC.compact 释放初始化用的元数据
+     */
+    private boolean compactAfterInit = false;
+    /**
+     * 统计运行时按类型、名称查询的次数、BeanNotUniqueException 次数和工厂方法耗时，每个容器注册一个 JMX MBean；
+     * 关闭时查询路径上没有额外开销
+     */
+    private boolean metricsEnabled = false;
+
+    public StartupMode getStartupMode() {
+        return startupMode;
+    }
+
+    public void setStartupMode(StartupMode startupMode) {
+        this.startupMode = startupMode;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isLazyByDefault() {
+        return lazyByDefault;
+    }
+
+    public void setLazyByDefault(boolean lazyByDefault) {
+        this.lazyByDefault = lazyByDefault;
+    }
+
+    public File getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(File snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public Executor getAsyncHookExecutor() {
+        return asyncHookExecutor;
+    }
+
+    public void setAsyncHookExecutor(Executor asyncHookExecutor) {
+        this.asyncHookExecutor = asyncHookExecutor;
+    }
+
+    public ConverterRegistry getConverterRegistry() {
+        return converterRegistry;
+    }
+
+    public void setConverterRegistry(ConverterRegistry converterRegistry) {
+        this.converterRegistry = converterRegistry;
+    }
+
+    public File getPropertiesFile() {
+        return propertiesFile;
+    }
+
+    public void setPropertiesFile(File propertiesFile) {
+        this.propertiesFile = propertiesFile;
+    }
+
+    public File getScanCacheFile() {
+        return scanCacheFile;
+    }
+
+    public void setScanCacheFile(File scanCacheFile) {
+        this.scanCacheFile = scanCacheFile;
+    }
+
+    public long getDestroyTimeoutMillis() {
+        return destroyTimeoutMillis;
+    }
+
+    public void setDestroyTimeoutMillis(long destroyTimeoutMillis) {
+        this.destroyTimeoutMillis = destroyTimeoutMillis;
+    }
+
+    public boolean isCompactAfterInit() {
+        return compactAfterInit;
+    }
+
+    public void setCompactAfterInit(boolean compactAfterInit) {
+        this.compactAfterInit = compactAfterInit;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+}
@@ -0,0 +1,47 @@
+package com.chinaxing.ioc;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 集合注入点：List、Set、Collection 注入元素类型的所有 bean，Map&lt;String, T&gt; 注入 bean 名称到 bean 的映射
+ */
+class CollectionInjection {
+    /**
+     * @return 是否按集合注入；Map 只有 key 为 String 时才按集合注入，否则当作普通的 bean 类型
+     */
+    static boolean isCollection(Class<?> type, Type genericType) {
+        if (Collection.class.isAssignableFrom(type)) return true;
+        if (type != Map.class || !(genericType instanceof ParameterizedType)) return false;
+        return ((ParameterizedType) genericType).getActualTypeArguments()[0] == String.class;
+    }
+
+    /**
+     * @return 集合的元素类型，Map 为 value 类型
+     */
+    static Class<?> elementType(Class<?> type, Type genericType, Object injectionPoint) throws InitializeBeanException {
+        if (type != List.class && type != Set.class && type != Collection.class && type != Map.class) {
+            throw new InitializeBeanException("only List, Set, Collection and Map<String, T> can be injected : " + injectionPoint);
+        }
+        if (genericType instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+            Type argument = arguments[arguments.length - 1];
+            if (argument instanceof Class) return (Class<?>) argument;
+            if (argument instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) argument).getRawType();
+        }
+        throw new InitializeBeanException("collection injection need a concrete element type : " + injectionPoint);
+    }
+
+    /**
+     * @return 注入点类型对应的视图
+     */
+    static Object value(Class<?> type, BeanContainer.BeanCollection beans) {
+        if (type == Set.class) return beans.set;
+        if (type == Map.class) return beans.map;
+        return beans.list;
+    }
+}
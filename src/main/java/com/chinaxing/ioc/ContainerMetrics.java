@@ -0,0 +1,111 @@
+package com.chinaxing.ioc;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个容器的运行时统计。计数器按类型分开，用 LongAdder 分段累加，多线程查询同一类型时不争用同一个变量；
+ * 查询路径上用 ClassValue 取计数器，不查 map
+ * <p/>
+ * 没有开启统计时容器不创建这个对象，查询路径上只多一次 null 判断
+ */
+public class ContainerMetrics implements ContainerMetricsMXBean {
+    private final Counters lookups = new Counters();
+    private final Counters notUnique = new Counters();
+    private final ConcurrentMap<String, LatencyHistogram> factoryLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    ContainerMetrics() {
+    }
+
+    void lookup(Class<?> type) {
+        lookups.get(type).increment();
+    }
+
+    void notUnique(Class<?> type) {
+        notUnique.get(type).increment();
+    }
+
+    /**
+     * @return 工厂 bean 的耗时直方图，同名的 bean 共用一个
+     */
+    LatencyHistogram factoryLatency(String beanName) {
+        LatencyHistogram histogram = factoryLatencies.get(beanName);
+        if (histogram != null) return histogram;
+        histogram = new LatencyHistogram();
+        LatencyHistogram existing = factoryLatencies.putIfAbsent(beanName, histogram);
+        return existing != null ? existing : histogram;
+    }
+
+    @Override
+    public Map<String, Long> getLookupCounts() {
+        return lookups.snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getNotUniqueCounts() {
+        return notUnique.snapshot();
+    }
+
+    @Override
+    public long getNotUniqueTotal() {
+        long total = 0;
+        for (Long count : notUnique.snapshot().values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, FactoryLatency> getFactoryLatencies() {
+        Map<String, FactoryLatency> result = new TreeMap<String, FactoryLatency>();
+        for (Map.Entry<String, LatencyHistogram> entry : factoryLatencies.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        lookups.reset();
+        notUnique.reset();
+        for (LatencyHistogram histogram : factoryLatencies.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * 类型 -> 计数器；ClassValue 不能遍历，创建计数器时同时登记到 map 中用于导出
+     */
+    private static final class Counters {
+        private final ConcurrentMap<Class<?>, LongAdder> all = new ConcurrentHashMap<Class<?>, LongAdder>();
+        private final ClassValue<LongAdder> counters = new ClassValue<LongAdder>() {
+            @Override
+            protected LongAdder computeValue(Class<?> type) {
+                LongAdder counter = new LongAdder();
+                LongAdder existing = all.putIfAbsent(type, counter);
+                return existing != null ? existing : counter;
+            }
+        };
+
+        LongAdder get(Class<?> type) {
+            return counters.get(type);
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> result = new TreeMap<String, Long>();
+            for (Map.Entry<Class<?>, LongAdder> entry : all.entrySet()) {
+                result.put(entry.getKey().getName(), entry.getValue().sum());
+            }
+            return result;
+        }
+
+        void reset() {
+            for (LongAdder counter : all.values()) {
+                counter.reset();
+            }
+        }
+    }
+}
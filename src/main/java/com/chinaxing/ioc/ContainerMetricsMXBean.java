@@ -0,0 +1,28 @@
+package com.chinaxing.ioc;
+
+import java.util.Map;
+
+/**
+ * 容器运行时的查询和工厂调用统计，ChinaIOCConfig.metricsEnabled 时每个容器注册一个，
+ * ObjectName 为 com.chinaxing.ioc:type=ContainerMetrics,package=...,id=...
+ */
+public interface ContainerMetricsMXBean {
+    /**
+     * @return 类型名 -> 按类型、名称查询的次数；子容器委托给父容器的查询计在父容器上
+     */
+    Map<String, Long> getLookupCounts();
+
+    /**
+     * @return 类型名 -> 抛出 BeanNotUniqueException 的次数
+     */
+    Map<String, Long> getNotUniqueCounts();
+
+    long getNotUniqueTotal();
+
+    /**
+     * @return 工厂 bean 名称 -> 工厂方法的耗时分布
+     */
+    Map<String, FactoryLatency> getFactoryLatencies();
+
+    void reset();
+}
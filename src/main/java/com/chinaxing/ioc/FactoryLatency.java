@@ -0,0 +1,46 @@
+package com.chinaxing.ioc;
+
+/**
+ * 一个工厂 bean 的工厂方法耗时分布，分位数是所在 2 的幂次桶的上界，单位微秒
+ */
+public class FactoryLatency {
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    public FactoryLatency(long count, double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " mean=" + meanMicros + "us p50<=" + p50Micros + "us p99<=" + p99Micros
+                + "us max<=" + maxMicros + "us";
+    }
+}
@@ -0,0 +1,122 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 初始化完成后的只读查询索引：每个类型第一次查询时编译成一个 {@link TypeEntry}，
+ * 之后单例查询直接返回实例，不再查 map、遍历列表，也不分配对象
+ * <p/>
+ * 容器注册新 bean 后只作废这次发布涉及的类型，其它类型的 TypeEntry 继续使用。
+ * 每个类型一个固定的槽，作废时放入新的作废标记；编译 TypeEntry 前记下槽里的标记，写回时 CAS，
+ * 编译期间被作废的 TypeEntry 只用于这次查询，不会留在槽里。
+ * 不用 ClassValue.remove：计算中的值不会被它作废，而且它会让所有类型的值一起失效
+ * <p/>
+ * 编译 TypeEntry 只读取 bean 信息，不创建实例也不调用工厂方法：并发查询时可能编译多次，
+ * SINGLETON 的工厂产品由容器在建索引之前创建
+ */
+class FrozenBeanIndex {
+    private final BeanContainer beanContainer;
+    /**
+     * 类型 -> TypeEntry，或者还没有编译、已经作废时的作废标记
+     */
+    private final ClassValue<AtomicReference<Object>> slots = new ClassValue<AtomicReference<Object>>() {
+        @Override
+        protected AtomicReference<Object> computeValue(Class<?> type) {
+            return new AtomicReference<Object>(new Object());
+        }
+    };
+
+    FrozenBeanIndex(BeanContainer beanContainer) {
+        this.beanContainer = beanContainer;
+    }
+
+    TypeEntry get(Class<?> type) {
+        AtomicReference<Object> slot = slots.get(type);
+        Object current = slot.get();
+        if (current instanceof TypeEntry) return (TypeEntry) current;
+        TypeEntry entry = new TypeEntry(type, beanContainer.getLocalBeanInfos(type));
+        slot.compareAndSet(current, entry);
+        return entry;
+    }
+
+    /**
+     * 该类型注册了新 bean，下次查询时重新编译；要在新 bean 写入之后调用
+     */
+    void invalidate(Class<?> type) {
+        slots.get(type).set(new Object());
+    }
+
+    static final class TypeEntry {
+        final int count;
+        final ChinaBeanInfo beanInfo;
+        /**
+         * 唯一的普通 bean 的实例，或 SINGLETON 作用域的工厂产品
+         */
+        final Object singleton;
+        /**
+         * 唯一的 bean 是工厂 bean，按该类型查询要调用工厂方法
+         */
+        final boolean factoryProduct;
+        /**
+         * 唯一的 bean 是编译时还没有创建的懒加载单例，查询时从 bean 信息重新读取实例，创建后不再走普通查询路径
+         */
+        final boolean lazySingleton;
+        /**
+         * 所有 bean 的实例，有任何一个 bean 编译时拿不到缓存的实例（PROTOTYPE、POOLED、未创建的懒加载单例、
+         * 未创建或非 SINGLETON 的工厂产品）时为 null，每次走普通查询路径
+         */
+        final List<Object> beans;
+
+        TypeEntry(Class<?> type, List<ChinaBeanInfo> beanInfos) {
+            ChinaBeanInfo[] infos = beanInfos.toArray(new ChinaBeanInfo[beanInfos.size()]);
+            this.count = infos.length;
+            this.beanInfo = count == 1 ? infos[0] : null;
+            this.factoryProduct = beanInfo != null && isFactoryProduct(beanInfo, type);
+            this.singleton = beanInfo == null ? null
+                    : factoryProduct ? singletonProduct(beanInfo) : singletonInstance(beanInfo);
+            this.lazySingleton = singleton == null && beanInfo != null && !factoryProduct
+                    && beanInfo.isSingleton() && beanInfo.isLazy();
+
+            Object[] instances = new Object[count];
+            boolean hasUncachedInstance = false;
+            for (int i = 0; i < count; i++) {
+                instances[i] = isFactoryProduct(infos[i], type) ? singletonProduct(infos[i]) : singletonInstance(infos[i]);
+                if (instances[i] == null) {
+                    hasUncachedInstance = true;
+                    break;
+                }
+            }
+            this.beans = hasUncachedInstance ? null : Collections.unmodifiableList(Arrays.asList(instances));
+        }
+
+        /**
+         * @return 唯一的懒加载单例已经创建时返回它的实例
+         */
+        Object createdLazyInstance() {
+            return lazySingleton ? beanInfo.getBeanInstance() : null;
+        }
+
+        /**
+         * PROTOTYPE、POOLED 的 bean 每次查询都要取新实例，不能放进索引；
+         * 还未创建的懒加载 bean 走普通查询路径，按类型查询唯一 bean 时创建后改为读取 {@link #lazySingleton}
+         */
+        private static Object singletonInstance(ChinaBeanInfo beanInfo) {
+            return beanInfo.isSingleton() ? beanInfo.getBeanInstance() : null;
+        }
+
+        /**
+         * 已经创建的 SINGLETON 作用域工厂产品也可以直接放进索引；还没有创建的留给普通查询路径处理
+         */
+        private static Object singletonProduct(ChinaBeanInfo beanInfo) {
+            if (beanInfo.getFactoryScope() != ChinaBeanScope.SINGLETON) return null;
+            return beanInfo.getCreatedFactoryProduct();
+        }
+
+        private static boolean isFactoryProduct(ChinaBeanInfo beanInfo, Class<?> type) {
+            return beanInfo.isFactoryBean() && type == beanInfo.getObjectType();
+        }
+    }
+}
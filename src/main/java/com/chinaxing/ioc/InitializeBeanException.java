@@ -12,4 +12,8 @@ public class InitializeBeanException extends Exception {
     public InitializeBeanException(String message) {
         super(message);
     }
+
+    public InitializeBeanException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,137 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.convert.ConverterRegistry;
+import com.chinaxing.ioc.util.MethodHandleUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一个 bean 的所有 @Inject 字段和方法编译成的注入计划：字段在前，方法在后，每一步带着编译好的 MethodHandle。
+ * 注入时一次遍历解析出所有值，全部解析成功后再依次写入字段、调用方法
+ * <p/>
+ * 依赖的 bean 不存在时注入失败；属性不存在时跳过这个字段或方法，保留原来的值，
+ * 只有注入到基本类型时才失败
+ */
+final class InjectionPlan {
+    static final InjectionPlan EMPTY = new InjectionPlan(new Step[0]);
+
+    /**
+     * 解析注入点的值，依赖的 bean 不存在时返回 null
+     */
+    interface Resolver {
+        /**
+         * @return 注入点的值，依赖的 bean 或属性不存在时返回 null
+         */
+        Object resolve(InjectionPoint point) throws InitializeBeanException;
+    }
+
+    /**
+     * 写一个字段或调用一个方法
+     */
+    static final class Step {
+        final InjectionPoint[] points;
+        /**
+         * (Object target, Object[] values)void
+         */
+        final MethodHandle injector;
+
+        Step(InjectionPoint[] points, MethodHandle injector) {
+            this.points = points;
+            this.injector = injector;
+        }
+
+        void apply(Object target, Object[] values) throws Throwable {
+            injector.invokeExact(target, values);
+        }
+    }
+
+    private final Step[] steps;
+    private final List<InjectionPoint> points;
+
+    private InjectionPlan(Step[] steps) {
+        this.steps = steps;
+        List<InjectionPoint> all = new ArrayList<InjectionPoint>();
+        for (Step step : steps) {
+            Collections.addAll(all, step.points);
+        }
+        this.points = Collections.unmodifiableList(all);
+    }
+
+    /**
+     * @param converterRegistry 为属性注入点选择转换器，可以为 null
+     */
+    static InjectionPlan compile(ChinaBeanInfo beanInfo, List<Field> fields, List<Method> methods,
+                                 ConverterRegistry converterRegistry) throws InitializeBeanException {
+        if (fields.isEmpty() && methods.isEmpty()) return EMPTY;
+        Step[] steps = new Step[fields.size() + methods.size()];
+        int i = 0;
+        for (Field f : fields) {
+            MethodHandle injector = beanInfo.getFieldSetter(f).asSpreader(Object[].class, 1);
+            steps[i++] = new Step(new InjectionPoint[]{InjectionPoint.of(f, converterRegistry)}, injector);
+        }
+        for (Method m : methods) {
+            Inject inject = m.getAnnotation(Inject.class);
+            Parameter[] parameters = m.getParameters();
+            if (parameters.length == 0) {
+                throw new InitializeBeanException("@Inject method must have arguments : " + m);
+            }
+            if (inject.property() && parameters.length != 1) {
+                throw new InitializeBeanException("@Inject(property = true) method must have one argument : " + m);
+            }
+            InjectionPoint[] points = new InjectionPoint[parameters.length];
+            for (int p = 0; p < parameters.length; p++) {
+                points[p] = InjectionPoint.of(parameters[p], inject, converterRegistry);
+            }
+            steps[i++] = new Step(points, MethodHandleUtil.injector(m));
+        }
+        return new InjectionPlan(steps);
+    }
+
+    List<InjectionPoint> getPoints() {
+        return points;
+    }
+
+    Step[] getSteps() {
+        return steps;
+    }
+
+    void inject(Object target, Resolver resolver, String beanName) throws InitializeBeanException {
+        if (steps.length == 0) return;
+        Object[][] values = new Object[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            InjectionPoint[] stepPoints = steps[i].points;
+            Object[] stepValues = new Object[stepPoints.length];
+            for (int p = 0; p < stepPoints.length; p++) {
+                InjectionPoint point = stepPoints[p];
+                stepValues[p] = resolver.resolve(point);
+                if (stepValues[p] != null) continue;
+                if (point.kind != InjectionPoint.Kind.PROPERTY) {
+                    throw new InitializeBeanException("cannot inject " + point + " of bean : " + beanName);
+                }
+                if (point.type.isPrimitive()) {
+                    throw new InitializeBeanException("missing property " + point.propertyName + " for " + point
+                            + " of bean : " + beanName);
+                }
+                // 属性方法只有一个参数，整个步骤跳过
+                stepValues = null;
+                break;
+            }
+            values[i] = stepValues;
+        }
+        for (int i = 0; i < steps.length; i++) {
+            if (values[i] == null) continue;
+            try {
+                steps[i].apply(target, values[i]);
+            } catch (Throwable t) {
+                throw new InitializeBeanException("inject " + steps[i].points[0] + " of bean : " + beanName + " failed", t);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.convert.ConverterRegistry;
+import com.chinaxing.ioc.convert.PropertyConverter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+/**
+ * 一个注入点：@Inject 字段，或 @Inject 方法的一个参数。
+ * 注入方式、属性名、Provider 提供的类型和集合元素类型在编译注入计划时就解析好，注入时不再读注解
+ */
+final class InjectionPoint {
+    enum Kind {
+        /**
+         * @Inject(property = true)，注入转换后的属性值
+         */
+        PROPERTY,
+        /**
+         * Provider、Supplier，绑定到提供 elementType 的 bean
+         */
+        PROVIDER,
+        /**
+         * List、Set、Collection、Map&lt;String, T&gt;，注入 elementType 的所有 bean
+         */
+        COLLECTION,
+        BEAN
+    }
+
+    /**
+     * Field 或 Parameter，用于错误信息
+     */
+    final Object member;
+    final Class<?> type;
+    final Kind kind;
+    final String propertyName;
+    /**
+     * PROVIDER 提供的类型或 COLLECTION 的元素类型
+     */
+    final Class<?> elementType;
+    /**
+     * @Inject(name) 指定的 bean 名称，没有指定时为 null
+     */
+    final String qualifier;
+    /**
+     * PROPERTY 注入点的转换器，编译注入计划时选好；没有对应转换器时为 null
+     */
+    final PropertyConverter<?> converter;
+    /**
+     * PROVIDER、BEAN 注入点绑定的 bean：依赖图（或装配快照）解析到的待初始化 bean，或按名称第一次解析到的 bean；
+     * 绑定后注入直接使用，不再按类型或名称查找
+     */
+    volatile ChinaBeanInfo boundBean;
+
+    private InjectionPoint(Object member, Class<?> type, Type genericType, Inject inject, String qualifier,
+                           ConverterRegistry converterRegistry) throws InitializeBeanException {
+        this.member = member;
+        this.type = type;
+        this.propertyName = inject.propertyName();
+        this.qualifier = qualifier.isEmpty() ? null : qualifier;
+        Class<?> providedType = inject.property() ? null : BeanProvider.providedType(type, genericType, member);
+        if (inject.property()) {
+            kind = Kind.PROPERTY;
+            elementType = null;
+        } else if (providedType != null) {
+            kind = Kind.PROVIDER;
+            elementType = providedType;
+        } else if (CollectionInjection.isCollection(type, genericType)) {
+            kind = Kind.COLLECTION;
+            elementType = CollectionInjection.elementType(type, genericType, member);
+        } else {
+            kind = Kind.BEAN;
+            elementType = null;
+        }
+        if (this.qualifier != null && (kind == Kind.PROPERTY || kind == Kind.COLLECTION)) {
+            throw new InitializeBeanException("@Inject(name) is not supported on " + kind + " injection : " + this);
+        }
+        this.converter = kind == Kind.PROPERTY && converterRegistry != null ? converterRegistry.converterFor(type) : null;
+    }
+
+    static InjectionPoint of(Field f, ConverterRegistry converterRegistry) throws InitializeBeanException {
+        Inject inject = f.getAnnotation(Inject.class);
+        return new InjectionPoint(f, f.getType(), f.getGenericType(), inject, inject.name(), converterRegistry);
+    }
+
+    /**
+     * @param inject 方法上的 @Inject；参数上的 @Inject(name) 优先，单参数方法也可以在方法上指定名称
+     */
+    static InjectionPoint of(Parameter p, Inject inject, ConverterRegistry converterRegistry) throws InitializeBeanException {
+        return new InjectionPoint(p, p.getType(), p.getParameterizedType(), inject, qualifier(p, inject), converterRegistry);
+    }
+
+    /**
+     * 把属性值转换成注入点的类型；已经是这个类型的值（比如 Properties 中直接放入的对象）原样返回
+     */
+    Object convert(Object value) throws Exception {
+        if (!type.isPrimitive() && type.isInstance(value)) return value;
+        if (converter == null) {
+            throw new IllegalArgumentException("no property converter for type : " + type.getName());
+        }
+        return converter.convert(value.toString());
+    }
+
+    static String qualifier(Parameter p, Inject inject) {
+        Inject parameterInject = p.getAnnotation(Inject.class);
+        if (parameterInject != null && !parameterInject.name().isEmpty()) return parameterInject.name();
+        if (inject != null && p.getDeclaringExecutable().getParameterCount() == 1) return inject.name();
+        return "";
+    }
+
+    @Override
+    public String toString() {
+        return member instanceof Parameter
+                ? ((Parameter) member).getDeclaringExecutable().getName() + "(" + member + ")"
+                : member.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.chinaxing.ioc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按纳秒数的 2 的幂次分桶的耗时直方图，记录时只增加一个桶和总耗时的 LongAdder，不加锁
+ */
+final class LatencyHistogram {
+    /**
+     * 最后一个桶收集 2^38 纳秒（约 4.6 分钟）以上的耗时
+     */
+    private static final int BUCKETS = 40;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        totalNanos.add(nanos);
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+
+    FactoryLatency snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) return new FactoryLatency(0, 0, 0, 0, 0);
+        return new FactoryLatency(count, totalNanos.sum() / 1000.0 / count,
+                percentile(counts, count, 0.5), percentile(counts, count, 0.99), percentile(counts, count, 1));
+    }
+
+    /**
+     * @return 第 q 分位所在桶的上界（微秒）
+     */
+    private static double percentile(long[] counts, long count, double q) {
+        long rank = (long) Math.ceil(count * q);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return (1L << i) / 1000.0;
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.chinaxing.ioc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * 注入到接口类型字段、构造参数的懒加载 bean 代理，第一次调用方法时才创建 bean
+ * <p/>
+ * equals、hashCode 按代理对象本身计算，toString 在 bean 创建前不会触发创建
+ */
+class LazyBeanProxy implements InvocationHandler {
+    private final ChinaBeanInfo beanInfo;
+    private final boolean accessible;
+    private volatile Object target;
+
+    private LazyBeanProxy(Class<?> type, ChinaBeanInfo beanInfo) {
+        this.beanInfo = beanInfo;
+        this.accessible = Modifier.isPublic(type.getModifiers());
+    }
+
+    static Object create(Class<?> type, ChinaBeanInfo beanInfo) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, new LazyBeanProxy(type, beanInfo));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            String name = method.getName();
+            if ("equals".equals(name)) return proxy == args[0];
+            if ("hashCode".equals(name)) return System.identityHashCode(proxy);
+            if ("toString".equals(name)) {
+                Object t = target;
+                return t != null ? t.toString() : "Lazy(" + beanInfo.getBeanName() + ")";
+            }
+        }
+        Object t = target;
+        if (t == null) {
+            t = beanInfo.getInstance();
+            target = t;
+        }
+        if (!accessible) method.setAccessible(true);
+        try {
+            return method.invoke(t, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.jfr.BeanEvents;
+
+/**
+ * 记录一个 bean 阶段的耗时，同时发出对应的 JFR 事件；bean 停止计时后返回不做任何事的 NOOP，不分配对象
+ */
+final class PhaseTimer {
+    private static final PhaseTimer NOOP = new PhaseTimer();
+
+    private final ChinaBeanInfo beanInfo;
+    /**
+     * 开始时取出的计时，bean 在计时过程中被压缩也能记录
+     */
+    private final BeanTiming timing;
+    private final BeanPhase phase;
+    private final Object event;
+    private final long start;
+
+    private PhaseTimer() {
+        this.beanInfo = null;
+        this.timing = null;
+        this.phase = null;
+        this.event = null;
+        this.start = 0;
+    }
+
+    private PhaseTimer(ChinaBeanInfo beanInfo, BeanTiming timing, BeanPhase phase) {
+        this.beanInfo = beanInfo;
+        this.timing = timing;
+        this.phase = phase;
+        this.event = BeanEvents.begin(phase);
+        this.start = System.nanoTime();
+    }
+
+    static PhaseTimer start(ChinaBeanInfo beanInfo, BeanPhase phase) {
+        BeanTiming timing = beanInfo.getTiming();
+        // 压缩后的 bean 没有计时
+        if (timing == null || !timing.isRecording()) return NOOP;
+        return new PhaseTimer(beanInfo, timing, phase);
+    }
+
+    void stop() {
+        if (this == NOOP) return;
+        timing.add(phase, System.nanoTime() - start);
+        BeanEvents.end(event, beanInfo.getBeanName());
+    }
+}
@@ -0,0 +1,26 @@
+package com.chinaxing.ioc;
+
+/**
+ * 单例 bean 上的一个 @Inject(property = true) 注入点（字段或只有一个参数的方法），使用注入点上编译好的转换器；
+ * 属性重新加载时按属性名找到注入点重新注入
+ */
+class PropertyBinding {
+    private final ChinaBeanInfo beanInfo;
+    private final Object target;
+    private final InjectionPlan.Step step;
+
+    PropertyBinding(ChinaBeanInfo beanInfo, Object target, InjectionPlan.Step step) {
+        this.beanInfo = beanInfo;
+        this.target = target;
+        this.step = step;
+    }
+
+    void inject(Object value) throws Throwable {
+        step.apply(target, new Object[]{step.points[0].convert(value)});
+    }
+
+    @Override
+    public String toString() {
+        return beanInfo.getBeanName() + "." + step.points[0];
+    }
+}
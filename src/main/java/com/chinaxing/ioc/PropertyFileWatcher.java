@@ -0,0 +1,104 @@
+package com.chinaxing.ioc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用 WatchService 监视属性文件所在目录，文件修改后重新读取并交给容器重新注入变化的属性
+ */
+class PropertyFileWatcher implements Runnable {
+    private final static Logger logger = LoggerFactory.getLogger(PropertyFileWatcher.class);
+    /**
+     * 编辑器保存文件时会产生多个事件，等事件停下来再读取
+     */
+    private static final long SETTLE_MILLIS = 50;
+
+    private final File file;
+    private final ChinaIOC container;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private PropertyFileWatcher(File file, ChinaIOC container) throws IOException {
+        this.file = file.getAbsoluteFile();
+        this.container = container;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParentFile().toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this, "china-ioc-property-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    static PropertyFileWatcher start(File file, ChinaIOC container) throws IOException {
+        PropertyFileWatcher watcher = new PropertyFileWatcher(file, container);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = poll(key);
+                // 把同一次保存产生的后续事件一起处理掉
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= poll(key);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean poll(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && ((Path) context).getFileName().toString().equals(file.getName())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        if (!file.isFile()) return;
+        try {
+            container.reloadProperties(load(file));
+        } catch (Throwable t) {
+            logger.error("reload properties from : {} failed", file, t);
+        }
+    }
+
+    void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("close watch service of : {} failed", file, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.chinaxing.ioc;
+
+import java.util.function.Supplier;
+
+/**
+ * 可以注入到 @Inject 字段的 bean 提供者，注入时绑定到唯一的 bean，之后每次 get 都不再查询容器：
+ * 单例直接返回实例，PROTOTYPE、POOLED、懒加载 bean 和工厂产品按各自的作用域创建
+ * <p/>
+ * 字段也可以声明为 {@link Supplier}，注入的是同一个实现
+ */
+public interface Provider<T> extends Supplier<T> {
+    T get();
+}
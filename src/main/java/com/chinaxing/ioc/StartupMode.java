@@ -0,0 +1,24 @@
+package com.chinaxing.ioc;
+
+/**
+ * 容器启动时如何发现 @ChinaBean 类
+ */
+public enum StartupMode {
+    /**
+     * classpath 上有 bean 索引就读索引，否则扫描包
+     */
+    AUTO,
+    /**
+     * 只读索引，没有索引时启动失败
+     */
+    INDEX,
+    /**
+     * 总是扫描包
+     */
+    SCAN,
+    /**
+     * 读取 ChinaIOCConfig.snapshotFile 中的装配快照直接初始化；快照不存在或已失效时按 AUTO 启动，
+     * 初始化完成后重新写入快照
+     */
+    SNAPSHOT;
+}
@@ -0,0 +1,117 @@
+package com.chinaxing.ioc;
+
+import java.util.*;
+
+/**
+ * 容器启动耗时汇总：每个 bean 各阶段的耗时、最慢的 bean，以及决定启动时间下限的关键依赖路径
+ * <p/>
+ * 关键路径按依赖图计算：每个节点的完成时间是它自己的耗时加上依赖中最晚的完成时间，
+ * 从完成最晚的节点沿最晚的依赖回溯得到；并行启动时总耗时不会小于这条路径的耗时
+ */
+public class StartupReport {
+    private final List<BeanTiming> beans;
+    private final List<BeanTiming> criticalPath;
+    private final long criticalPathNanos;
+    private final long scanNanos;
+    private final long initNanos;
+
+    StartupReport(BeanDependencyGraph graph, long scanNanos, long initNanos) throws InitializeBeanException {
+        this.scanNanos = scanNanos;
+        this.initNanos = initNanos;
+        List<BeanTiming> timings = new ArrayList<BeanTiming>();
+        for (ChinaBeanInfo beanInfo : graph.getBeans()) {
+            timings.add(beanInfo.getTiming());
+        }
+        this.beans = Collections.unmodifiableList(timings);
+
+        int n = graph.nodeCount();
+        long[] finish = new long[n];
+        int[] previous = new int[n];
+        int last = -1;
+        for (int node : graph.sort()) {
+            previous[node] = -1;
+            long start = 0;
+            for (Integer d : graph.getDependencies(node)) {
+                if (previous[node] < 0 || finish[d] > start) {
+                    start = finish[d];
+                    previous[node] = d;
+                }
+            }
+            finish[node] = start + nodeNanos(graph, node);
+            if (last < 0 || finish[node] > finish[last]) last = node;
+        }
+        LinkedList<BeanTiming> path = new LinkedList<BeanTiming>();
+        for (int node = last; node >= 0; node = previous[node]) {
+            BeanTiming timing = graph.getBean(node).getTiming();
+            if (path.isEmpty() || path.getFirst() != timing) path.addFirst(timing);
+        }
+        this.criticalPath = Collections.unmodifiableList(new ArrayList<BeanTiming>(path));
+        this.criticalPathNanos = last < 0 ? 0 : finish[last];
+    }
+
+    private static long nodeNanos(BeanDependencyGraph graph, int node) {
+        BeanTiming timing = graph.getBean(node).getTiming();
+        switch (BeanDependencyGraph.stage(node)) {
+            case BeanDependencyGraph.CREATE:
+                return timing.getNanos(BeanPhase.INSTANTIATE);
+            case BeanDependencyGraph.INJECT:
+                return timing.getNanos(BeanPhase.INJECT);
+            default:
+                return timing.getNanos(BeanPhase.HOOK);
+        }
+    }
+
+    public List<BeanTiming> getBeans() {
+        return beans;
+    }
+
+    /**
+     * @return 按总耗时从大到小的前 n 个 bean
+     */
+    public List<BeanTiming> getSlowestBeans(int n) {
+        List<BeanTiming> sorted = new ArrayList<BeanTiming>(beans);
+        Collections.sort(sorted, new Comparator<BeanTiming>() {
+            @Override
+            public int compare(BeanTiming a, BeanTiming b) {
+                return Long.compare(b.getTotalNanos(), a.getTotalNanos());
+            }
+        });
+        return sorted.subList(0, Math.min(n, sorted.size()));
+    }
+
+    /**
+     * @return 关键路径上的 bean，被依赖的在前
+     */
+    public List<BeanTiming> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public long getCriticalPathNanos() {
+        return criticalPathNanos;
+    }
+
+    /**
+     * @return 发现 bean 类（扫描包、读取索引或快照）和解析 bean 信息的耗时
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    /**
+     * @return initContainer 的耗时
+     */
+    public long getInitNanos() {
+        return initNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("scan=").append(scanNanos / 1000).append("us init=").append(initNanos / 1000)
+                .append("us criticalPath=").append(criticalPathNanos / 1000).append("us\n");
+        for (BeanTiming timing : criticalPath) {
+            sb.append("  -> ").append(timing).append('\n');
+        }
+        return sb.toString();
+    }
+}
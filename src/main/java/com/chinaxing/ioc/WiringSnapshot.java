@@ -0,0 +1,233 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.util.ReflectionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 容器解析完成的装配计划的二进制快照：bean 类、构造器、注入字段和注入方法、hook（包括 @BeforeDestroy）、工厂方法和 objectType，
+ * 依赖图，以及每个注入点绑定的 bean
+ * <p/>
+ * 重启时读取快照可以跳过包扫描、注解解析和依赖查找；集合注入仍从容器的集合缓存取值，由容器中已有的 bean 提供的注入点注入时再查找。
+ * 快照用和 ScanCache 相同的内容指纹校验，包里的 class 文件有变化时失效；先比较文件大小、修改时间的快速校验值，变了就不用再读 class 文件
+ */
+class WiringSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(WiringSnapshot.class);
+    private static final int MAGIC = 0x43494F43;
+    private static final int VERSION = 5;
+
+    static void write(File file, String basePackage, BeanDependencyGraph graph) throws IOException, InitializeBeanException {
+        List<ChinaBeanInfo> beans = graph.getBeans();
+        Map<ChinaBeanInfo, Integer> index = new HashMap<ChinaBeanInfo, Integer>();
+        for (int i = 0; i < beans.size(); i++) {
+            index.put(beans.get(i), i);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(basePackage);
+            out.writeLong(ReflectionUtil.packageStamp(basePackage));
+            out.writeLong(ReflectionUtil.packageFingerprint(basePackage));
+            out.writeInt(beans.size());
+            for (ChinaBeanInfo beanInfo : beans) {
+                Class c = beanInfo.getBeanClass();
+                out.writeUTF(c.getName());
+                out.writeUTF(beanInfo.getBeanName());
+                out.writeBoolean(beanInfo.isFactoryBean());
+                Class[] parameterTypes = beanInfo.getConstructor().getParameterTypes();
+                out.writeInt(parameterTypes.length);
+                for (Class p : parameterTypes) {
+                    out.writeUTF(p.getName());
+                }
+                List<Field> fields = beanInfo.getInjectFields();
+                out.writeInt(fields.size());
+                for (Field f : fields) {
+                    out.writeUTF(f.getName());
+                }
+                List<Method> injectMethods = beanInfo.getInjectMethods();
+                out.writeInt(injectMethods.size());
+                for (Method m : injectMethods) {
+                    out.writeUTF(m.getName());
+                    Class[] types = m.getParameterTypes();
+                    out.writeInt(types.length);
+                    for (Class t : types) {
+                        out.writeUTF(t.getName());
+                    }
+                }
+                List<Method> hooks = beanInfo.getHooks();
+                out.writeInt(hooks.size());
+                for (Method m : hooks) {
+                    out.writeUTF(m.getName());
+                }
+                List<Method> destroyHooks = beanInfo.getDestroyHooks();
+                out.writeInt(destroyHooks.size());
+                for (Method m : destroyHooks) {
+                    out.writeUTF(m.getName());
+                }
+                out.writeUTF(beanInfo.isFactoryBean() ? beanInfo.getFactoryMethod().getName() : "");
+                out.writeUTF(beanInfo.isFactoryBean() ? beanInfo.getObjectType().getName() : "");
+                List<ChinaBeanInfo> dependencies = beanInfo.getDependencies();
+                out.writeInt(dependencies.size());
+                for (ChinaBeanInfo dependency : dependencies) {
+                    out.writeInt(index.get(dependency));
+                }
+                List<InjectionPoint> points = beanInfo.getInjectionPlan().getPoints();
+                out.writeInt(points.size());
+                for (InjectionPoint point : points) {
+                    Integer bound = point.boundBean == null ? null : index.get(point.boundBean);
+                    out.writeInt(bound == null ? -1 : bound);
+                }
+            }
+            out.writeInt(graph.nodeCount());
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                List<Integer> deps = graph.getDependencies(node);
+                out.writeInt(deps.size());
+                for (Integer d : deps) {
+                    out.writeInt(d);
+                }
+            }
+        } finally {
+            out.close();
+        }
+        if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+            throw new IOException("cannot replace wiring snapshot : " + file);
+        }
+    }
+
+    /**
+     * @return 快照中的依赖图，bean 信息已按快照设置好（作用域除外）；快照不存在、损坏或已失效时返回 null
+     */
+    static BeanDependencyGraph read(File file, String basePackage) {
+        if (!file.isFile()) return null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                return read(in, basePackage);
+            } finally {
+                in.close();
+            }
+        } catch (Exception e) {
+            logger.info("wiring snapshot {} is stale, fallback to normal startup : {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private static BeanDependencyGraph read(DataInputStream in, String basePackage) throws Exception {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("unknown snapshot format");
+        if (!in.readUTF().equals(basePackage)) throw new IOException("snapshot of another package");
+        if (in.readLong() != ReflectionUtil.packageStamp(basePackage)
+                || in.readLong() != ReflectionUtil.packageFingerprint(basePackage)) {
+            throw new IOException("classes of package changed");
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        int beanCount = in.readInt();
+        List<ChinaBeanInfo> beans = new ArrayList<ChinaBeanInfo>(beanCount);
+        List<int[]> beanDependencies = new ArrayList<int[]>(beanCount);
+        List<int[]> bindings = new ArrayList<int[]>(beanCount);
+        for (int i = 0; i < beanCount; i++) {
+            String className = in.readUTF();
+            Class c = Class.forName(className, true, classLoader);
+            ChinaBeanInfo beanInfo = new ChinaBeanInfo(in.readUTF(), c);
+            boolean factoryBean = in.readBoolean();
+            Class[] parameterTypes = new Class[in.readInt()];
+            for (int p = 0; p < parameterTypes.length; p++) {
+                parameterTypes[p] = Class.forName(in.readUTF(), false, classLoader);
+            }
+            Constructor constructor = c.getDeclaredConstructor(parameterTypes);
+            List<Field> fields = new ArrayList<Field>();
+            for (int n = in.readInt(); n > 0; n--) {
+                fields.add(c.getDeclaredField(in.readUTF()));
+            }
+            List<Method> injectMethods = new ArrayList<Method>();
+            for (int n = in.readInt(); n > 0; n--) {
+                String name = in.readUTF();
+                String[] types = new String[in.readInt()];
+                for (int t = 0; t < types.length; t++) {
+                    types[t] = in.readUTF();
+                }
+                injectMethods.add(injectMethod(c, name, types));
+            }
+            List<Method> hooks = new ArrayList<Method>();
+            for (int n = in.readInt(); n > 0; n--) {
+                hooks.add(c.getDeclaredMethod(in.readUTF()));
+            }
+            List<Method> destroyHooks = new ArrayList<Method>();
+            for (int n = in.readInt(); n > 0; n--) {
+                destroyHooks.add(c.getDeclaredMethod(in.readUTF()));
+            }
+            String factoryMethod = in.readUTF();
+            String objectType = in.readUTF();
+            int[] dependencies = new int[in.readInt()];
+            for (int d = 0; d < dependencies.length; d++) {
+                dependencies[d] = in.readInt();
+            }
+            int[] bound = new int[in.readInt()];
+            for (int p = 0; p < bound.length; p++) {
+                bound[p] = in.readInt();
+                if (bound[p] >= beanCount) throw new IOException("bad binding of " + className);
+            }
+            beanInfo.setUnInjectedFields(fields);
+            beanInfo.setInjectMethods(injectMethods);
+            beanInfo.setHooks(hooks);
+            beanInfo.setDestroyHooks(destroyHooks);
+            beanInfo.setConstructor(constructor);
+            if (factoryBean) {
+                beanInfo.setFactoryBean(true);
+                Method m = ReflectionUtil.getDeclaredMethod(c, factoryMethod, ChinaBeanFactoryMethod.class);
+                if (m == null) throw new IOException("factory method not found : " + factoryMethod);
+                beanInfo.setFactoryMethod(m);
+                beanInfo.setObjectType(Class.forName(objectType, false, classLoader));
+            }
+            beans.add(beanInfo);
+            beanDependencies.add(dependencies);
+            bindings.add(bound);
+        }
+        for (int i = 0; i < beanCount; i++) {
+            List<ChinaBeanInfo> dependencies = new ArrayList<ChinaBeanInfo>();
+            for (int d : beanDependencies.get(i)) {
+                dependencies.add(beans.get(d));
+            }
+            beans.get(i).setDependencies(dependencies);
+        }
+        int nodeCount = in.readInt();
+        List<List<Integer>> nodes = new ArrayList<List<Integer>>(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            int n = in.readInt();
+            List<Integer> deps = new ArrayList<Integer>(n);
+            for (int d = 0; d < n; d++) {
+                deps.add(in.readInt());
+            }
+            nodes.add(deps);
+        }
+        return new BeanDependencyGraph(beans, nodes, bindings);
+    }
+
+    /**
+     * 按参数类型名匹配，基本类型参数不能用 Class.forName 加载
+     */
+    private static Method injectMethod(Class c, String name, String[] types) throws IOException {
+        for (Method m : ReflectionUtil.getMethodWithAnnotation(c, Inject.class)) {
+            if (!m.getName().equals(name) || m.getParameterCount() != types.length) continue;
+            Class[] parameterTypes = m.getParameterTypes();
+            boolean match = true;
+            for (int i = 0; i < types.length && match; i++) {
+                match = parameterTypes[i].getName().equals(types[i]);
+            }
+            if (match) return m;
+        }
+        throw new IOException("inject method not found : " + name);
+    }
+}
@@ -11,4 +11,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface AfterInit {
+    /**
+     * 为 true 时 initContainer 不等待这个 hook，它在依赖的 bean 都就绪后提交到
+     * ChinaIOCConfig.asyncHookExecutor 执行，通过 ChinaIOC.getReadyFuture 等待完成
+     */
+    boolean async() default false;
 }
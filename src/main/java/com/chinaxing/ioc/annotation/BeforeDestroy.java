@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ChinaIOC.close 时在 bean 销毁前执行，依赖这个 bean 的 bean 都已经执行完自己的 hook
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BeforeDestroy {
+    /**
+     * 这个 bean 所有 @BeforeDestroy hook 的超时时间，小于等于 0 时使用 ChinaIOCConfig.destroyTimeoutMillis；
+     * 超时后不再等待，继续销毁它依赖的 bean
+     */
+    long timeoutMillis() default 0;
+}
@@ -14,4 +14,36 @@ public @interface ChinaBean {
     ChinaBeanType type() default ChinaBeanType.NORMAL_BEAN;
 
     String value() default "";
+
+    ChinaBeanScope scope() default ChinaBeanScope.SINGLETON;
+
+    /**
+     * 只用于 SINGLETON 的普通 bean
+     */
+    ChinaBeanLazyMode lazy() default ChinaBeanLazyMode.DEFAULT;
+
+    /**
+     * POOLED：池中最多保留的空闲实例数
+     */
+    int poolMaxIdle() default 8;
+
+    /**
+     * POOLED：同时借出的实例数上限，池中空闲实例不计入；小于等于 0 表示不限制
+     */
+    int poolMaxTotal() default 0;
+
+    /**
+     * POOLED：借出实例数达到 poolMaxTotal 时 borrow 等待归还的最长时间，0 表示立即失败，小于 0 表示一直等待
+     */
+    long poolMaxWaitMillis() default 1000;
+
+    /**
+     * POOLED：空闲超过这个时间的实例被丢弃，小于等于 0 表示不过期
+     */
+    long poolIdleTimeoutMillis() default 60000;
+
+    /**
+     * POOLED：是否统计命中、未命中和淘汰次数
+     */
+    boolean poolStats() default false;
 }
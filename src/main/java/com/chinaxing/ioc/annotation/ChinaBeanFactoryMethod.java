@@ -11,4 +11,8 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface ChinaBeanFactoryMethod {
+    /**
+     * 工厂产品的作用域：SINGLETON 时无参工厂方法只调用一次，产品缓存在容器中
+     */
+    ChinaBeanScope scope() default ChinaBeanScope.PROTOTYPE;
 }
@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.annotation;
+
+/**
+ * 单例 bean 是否在第一次使用时才创建
+ */
+public enum ChinaBeanLazyMode {
+    /**
+     * 使用容器配置 ChinaIOCConfig.lazyByDefault
+     */
+    DEFAULT,
+    /**
+     * 第一次获取或注入时才创建、注入并执行 hook
+     */
+    LAZY,
+    /**
+     * 容器初始化时创建
+     */
+    EAGER;
+}
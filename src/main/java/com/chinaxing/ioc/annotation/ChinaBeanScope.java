@@ -0,0 +1,20 @@
+package com.chinaxing.ioc.annotation;
+
+/**
+ * bean 实例的作用域
+ */
+public enum ChinaBeanScope {
+    /**
+     * 只创建一次，之后总是返回同一个实例
+     */
+    SINGLETON,
+    /**
+     * 每次获取都创建新实例
+     */
+    PROTOTYPE,
+    /**
+     * 从池中借出实例，用完通过 ChinaIOC.releaseChinaBean 归还；只用于 @ChinaBean。
+     * 空闲实例数不超过 poolMaxIdle，设置 poolMaxTotal 后借出的实例数也有上限
+     */
+    POOLED;
+}
@@ -8,10 +8,16 @@ import java.lang.annotation.Target;
 /**
  * Created by lenovo on 2015/1/29.
  */
-@Target({ElementType.METHOD, ElementType.FIELD, ElementType.CONSTRUCTOR})
+@Target({ElementType.METHOD, ElementType.FIELD, ElementType.CONSTRUCTOR, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Inject {
     String propertyName() default "";
 
     boolean property() default false;
+
+    /**
+     * 按 bean 名称（@ChinaBean(value) 或类名）注入，同类型有多个 bean 时用它选择；
+     * 用在方法上只对单参数方法生效，多参数方法和构造器在参数上标注
+     */
+    String name() default "";
 }
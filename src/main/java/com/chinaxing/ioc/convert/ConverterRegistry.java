@@ -0,0 +1,195 @@
+package com.chinaxing.ioc.convert;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 属性类型转换器注册表：内置基本类型及其包装类、String、BigDecimal、BigInteger、Duration、File、Charset 和枚举，
+ * 可以用 {@link #register} 添加或覆盖
+ * <p/>
+ * 每个类型的转换器只查找一次，之后直接从缓存取
+ */
+public class ConverterRegistry {
+    private final Map<Class, PropertyConverter> converters = new ConcurrentHashMap<Class, PropertyConverter>();
+    /**
+     * 字段类型 -> 解析好的转换器，包括按需生成的枚举转换器
+     */
+    private final Map<Class, PropertyConverter> resolved = new ConcurrentHashMap<Class, PropertyConverter>();
+
+    public ConverterRegistry() {
+        register(String.class, new PropertyConverter<String>() {
+            @Override
+            public String convert(String value) {
+                return value;
+            }
+        });
+        PropertyConverter<Integer> intConverter = new PropertyConverter<Integer>() {
+            @Override
+            public Integer convert(String value) {
+                return Integer.valueOf(value.trim());
+            }
+        };
+        register(int.class, intConverter);
+        register(Integer.class, intConverter);
+        PropertyConverter<Long> longConverter = new PropertyConverter<Long>() {
+            @Override
+            public Long convert(String value) {
+                return Long.valueOf(value.trim());
+            }
+        };
+        register(long.class, longConverter);
+        register(Long.class, longConverter);
+        PropertyConverter<Short> shortConverter = new PropertyConverter<Short>() {
+            @Override
+            public Short convert(String value) {
+                return Short.valueOf(value.trim());
+            }
+        };
+        register(short.class, shortConverter);
+        register(Short.class, shortConverter);
+        PropertyConverter<Byte> byteConverter = new PropertyConverter<Byte>() {
+            @Override
+            public Byte convert(String value) {
+                return Byte.valueOf(value.trim());
+            }
+        };
+        register(byte.class, byteConverter);
+        register(Byte.class, byteConverter);
+        PropertyConverter<Double> doubleConverter = new PropertyConverter<Double>() {
+            @Override
+            public Double convert(String value) {
+                return Double.valueOf(value.trim());
+            }
+        };
+        register(double.class, doubleConverter);
+        register(Double.class, doubleConverter);
+        PropertyConverter<Float> floatConverter = new PropertyConverter<Float>() {
+            @Override
+            public Float convert(String value) {
+                return Float.valueOf(value.trim());
+            }
+        };
+        register(float.class, floatConverter);
+        register(Float.class, floatConverter);
+        PropertyConverter<Boolean> booleanConverter = new PropertyConverter<Boolean>() {
+            @Override
+            public Boolean convert(String value) {
+                String v = value.trim();
+                if (v.equalsIgnoreCase("true") || v.equalsIgnoreCase("yes") || v.equals("1")) return Boolean.TRUE;
+                if (v.equalsIgnoreCase("false") || v.equalsIgnoreCase("no") || v.equals("0")) return Boolean.FALSE;
+                throw new IllegalArgumentException("not a boolean : " + value);
+            }
+        };
+        register(boolean.class, booleanConverter);
+        register(Boolean.class, booleanConverter);
+        PropertyConverter<Character> charConverter = new PropertyConverter<Character>() {
+            @Override
+            public Character convert(String value) {
+                if (value.length() != 1) throw new IllegalArgumentException("not a char : " + value);
+                return value.charAt(0);
+            }
+        };
+        register(char.class, charConverter);
+        register(Character.class, charConverter);
+        register(BigDecimal.class, new PropertyConverter<BigDecimal>() {
+            @Override
+            public BigDecimal convert(String value) {
+                return new BigDecimal(value.trim());
+            }
+        });
+        register(BigInteger.class, new PropertyConverter<BigInteger>() {
+            @Override
+            public BigInteger convert(String value) {
+                return new BigInteger(value.trim());
+            }
+        });
+        register(Duration.class, new PropertyConverter<Duration>() {
+            @Override
+            public Duration convert(String value) {
+                return parseDuration(value.trim());
+            }
+        });
+        register(File.class, new PropertyConverter<File>() {
+            @Override
+            public File convert(String value) {
+                return new File(value.trim());
+            }
+        });
+        register(Charset.class, new PropertyConverter<Charset>() {
+            @Override
+            public Charset convert(String value) {
+                return Charset.forName(value.trim());
+            }
+        });
+    }
+
+    public <T> void register(Class<T> type, PropertyConverter<? extends T> converter) {
+        converters.put(type, converter);
+        resolved.clear();
+    }
+
+    /**
+     * @return 字段类型的转换器，没有对应的转换器时返回 null
+     */
+    public PropertyConverter<?> converterFor(Class<?> type) {
+        PropertyConverter converter = resolved.get(type);
+        if (converter != null) return converter;
+        converter = converters.get(type);
+        if (converter == null && type.isEnum()) converter = enumConverter((Class<Enum>) type);
+        if (converter == null) return null;
+        resolved.put(type, converter);
+        return converter;
+    }
+
+    /**
+     * 把属性值转换成字段类型；已经是字段类型的值（比如 Properties 中直接放入的对象）原样返回
+     */
+    public Object convert(Class<?> type, Object value) throws Exception {
+        if (value == null) return null;
+        if (!type.isPrimitive() && type.isInstance(value)) return value;
+        PropertyConverter<?> converter = converterFor(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("no property converter for type : " + type.getName());
+        }
+        return converter.convert(value.toString());
+    }
+
+    private static PropertyConverter enumConverter(final Class<Enum> type) {
+        return new PropertyConverter<Enum>() {
+            @Override
+            public Enum convert(String value) {
+                return Enum.valueOf(type, value.trim());
+            }
+        };
+    }
+
+    /**
+     * 支持 ISO-8601（PT30S）和带单位的写法：500ms、30s、5m、2h、1d，没有单位时按毫秒
+     */
+    static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p") || value.startsWith("-P")) {
+            return Duration.parse(value);
+        }
+        int i = 0;
+        if (i < value.length() && value.charAt(i) == '-') i++;
+        while (i < value.length() && Character.isDigit(value.charAt(i))) i++;
+        long amount = Long.parseLong(value.substring(0, i));
+        String unit = value.substring(i).trim().toLowerCase();
+        TimeUnit timeUnit;
+        if (unit.isEmpty() || unit.equals("ms")) timeUnit = TimeUnit.MILLISECONDS;
+        else if (unit.equals("ns")) timeUnit = TimeUnit.NANOSECONDS;
+        else if (unit.equals("us")) timeUnit = TimeUnit.MICROSECONDS;
+        else if (unit.equals("s")) timeUnit = TimeUnit.SECONDS;
+        else if (unit.equals("m")) timeUnit = TimeUnit.MINUTES;
+        else if (unit.equals("h")) timeUnit = TimeUnit.HOURS;
+        else if (unit.equals("d")) timeUnit = TimeUnit.DAYS;
+        else throw new IllegalArgumentException("unknown duration unit : " + value);
+        return Duration.ofNanos(timeUnit.toNanos(amount));
+    }
+}
@@ -0,0 +1,8 @@
+package com.chinaxing.ioc.convert;
+
+/**
+ * 把属性文件中的字符串转换成字段类型
+ */
+public interface PropertyConverter<T> {
+    T convert(String value) throws Exception;
+}
@@ -0,0 +1,88 @@
+package com.chinaxing.ioc.index;
+
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译期生成的 bean 索引 (META-INF/china-ioc/beans.idx) 的读写
+ * <p/>
+ * 每行一个 bean，以 tab 分隔：类名 类型 bean名称 工厂方法 objectType方法，没有的值留空
+ */
+public class BeanIndex {
+    public static final String INDEX_RESOURCE = "META-INF/china-ioc/beans.idx";
+    private static final String HEADER = "# china-ioc bean index v1";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static void write(Writer writer, Iterable<BeanIndexEntry> entries) throws IOException {
+        BufferedWriter w = new BufferedWriter(writer);
+        w.write(HEADER);
+        w.newLine();
+        for (BeanIndexEntry entry : entries) {
+            w.write(entry.getClassName());
+            w.write('\t');
+            w.write(entry.getType().name());
+            w.write('\t');
+            w.write(entry.getBeanName());
+            w.write('\t');
+            w.write(entry.getFactoryMethod());
+            w.write('\t');
+            w.write(entry.getObjectTypeMethod());
+            w.newLine();
+        }
+        w.flush();
+    }
+
+    public static List<BeanIndexEntry> read(InputStream in) throws IOException {
+        List<BeanIndexEntry> result = new ArrayList<BeanIndexEntry>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 5) throw new IOException("malformed bean index line : " + line);
+            BeanIndexEntry entry = new BeanIndexEntry(columns[0]);
+            entry.setType(ChinaBeanType.valueOf(columns[1]));
+            entry.setBeanName(columns[2]);
+            entry.setFactoryMethod(columns[3]);
+            entry.setObjectTypeMethod(columns[4]);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * 读取 classpath 上所有索引中属于 basePackage 的条目
+     *
+     * @return 没有索引文件，或者索引中没有 basePackage 下的类（其他 jar 带的索引）时返回 null，
+     * 调用方应退回到包扫描
+     */
+    public static List<BeanIndexEntry> load(String basePackage) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+        if (!resources.hasMoreElements()) return null;
+        String prefix = basePackage + ".";
+        Map<String, BeanIndexEntry> result = new LinkedHashMap<String, BeanIndexEntry>();
+        while (resources.hasMoreElements()) {
+            InputStream in = resources.nextElement().openStream();
+            try {
+                for (BeanIndexEntry entry : read(in)) {
+                    if (entry.getClassName().startsWith(prefix)) {
+                        result.put(entry.getClassName(), entry);
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        }
+        if (result.isEmpty()) return null;
+        return new ArrayList<BeanIndexEntry>(result.values());
+    }
+}
@@ -0,0 +1,59 @@
+package com.chinaxing.ioc.index;
+
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+
+/**
+ * 索引文件中的一行：一个 @ChinaBean 类及其注解信息
+ */
+public class BeanIndexEntry {
+    private String className;
+    private ChinaBeanType type = ChinaBeanType.NORMAL_BEAN;
+    private String beanName = "";
+    private String factoryMethod = "";
+    private String objectTypeMethod = "";
+
+    public BeanIndexEntry(String className) {
+        this.className = className;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public ChinaBeanType getType() {
+        return type;
+    }
+
+    public void setType(ChinaBeanType type) {
+        this.type = type;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public void setBeanName(String beanName) {
+        this.beanName = beanName == null ? "" : beanName;
+    }
+
+    public String getFactoryMethod() {
+        return factoryMethod;
+    }
+
+    public void setFactoryMethod(String factoryMethod) {
+        this.factoryMethod = factoryMethod == null ? "" : factoryMethod;
+    }
+
+    public String getObjectTypeMethod() {
+        return objectTypeMethod;
+    }
+
+    public void setObjectTypeMethod(String objectTypeMethod) {
+        this.objectTypeMethod = objectTypeMethod == null ? "" : objectTypeMethod;
+    }
+
+    @Override
+    public String toString() {
+        return className + "[" + type + "]";
+    }
+}
@@ -0,0 +1,100 @@
+package com.chinaxing.ioc.index;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.ChinaBeanObjectType;
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 编译期收集 @ChinaBean 类，生成 {@link BeanIndex#INDEX_RESOURCE}，容器启动时读取索引以代替包扫描
+ * <p/>
+ * 注意：索引只包含本次编译的源文件，增量编译后需要全量重新编译以保证索引完整
+ */
+@SupportedAnnotationTypes("com.chinaxing.ioc.annotation.ChinaBean")
+public class ChinaBeanIndexProcessor extends AbstractProcessor {
+    private final Map<String, BeanIndexEntry> entries = new TreeMap<String, BeanIndexEntry>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ChinaBean.class)) {
+            if (element.getKind() != ElementKind.CLASS) continue;
+            TypeElement type = (TypeElement) element;
+            BeanIndexEntry entry = toEntry(type);
+            if (entry != null) entries.put(entry.getClassName(), entry);
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private BeanIndexEntry toEntry(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        ChinaBean cb = type.getAnnotation(ChinaBean.class);
+        BeanIndexEntry entry = new BeanIndexEntry(className);
+        entry.setType(cb.type());
+        entry.setBeanName(cb.value());
+        if (cb.type() != ChinaBeanType.FACTORY_BEAN) return entry;
+
+        for (ExecutableElement m : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (m.getAnnotation(ChinaBeanFactoryMethod.class) != null && entry.getFactoryMethod().isEmpty()) {
+                entry.setFactoryMethod(m.getSimpleName().toString());
+            }
+            if (m.getAnnotation(ChinaBeanObjectType.class) != null && entry.getObjectTypeMethod().isEmpty()) {
+                if (!m.getModifiers().contains(Modifier.STATIC)) {
+                    error(m, "@ChinaBeanObjectType need static method");
+                    return null;
+                }
+                entry.setObjectTypeMethod(m.getSimpleName().toString());
+            }
+        }
+        if (entry.getFactoryMethod().isEmpty()) {
+            error(type, "Factory Bean has no FactoryMethod : " + className);
+            return null;
+        }
+        if (entry.getObjectTypeMethod().isEmpty()) {
+            error(type, "Factory Bean need @ChinaBeanObjectType annotation " + className);
+            return null;
+        }
+        return entry;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", BeanIndex.INDEX_RESOURCE);
+            Writer writer = new OutputStreamWriter(file.openOutputStream(), "UTF-8");
+            try {
+                BeanIndex.write(writer, entries.values());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write bean index : " + e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
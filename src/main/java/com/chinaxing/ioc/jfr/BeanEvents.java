@@ -0,0 +1,43 @@
+package com.chinaxing.ioc.jfr;
+
+import com.chinaxing.ioc.BeanPhase;
+
+/**
+ * 发出 JFR 事件的入口；运行环境没有 jdk.jfr 时什么也不做
+ * <p/>
+ * 事件类只在 {@link JfrEvents} 中引用，这个类本身不依赖 jdk.jfr
+ */
+public final class BeanEvents {
+    private static final boolean AVAILABLE = isAvailable();
+
+    private BeanEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * @return 已经开始计时的事件，jfr 不可用时返回 null
+     */
+    public static Object begin(BeanPhase phase) {
+        return AVAILABLE ? JfrEvents.begin(phase) : null;
+    }
+
+    public static void end(Object event, String beanName) {
+        if (event != null) JfrEvents.end(event, beanName);
+    }
+
+    public static Object beginPackageScan() {
+        return AVAILABLE ? JfrEvents.beginPackageScan() : null;
+    }
+
+    public static void endPackageScan(Object event, String basePackage, int beanCount) {
+        if (event != null) JfrEvents.endPackageScan(event, basePackage, beanCount);
+    }
+}
@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 调用工厂方法
+ */
+@Name("com.chinaxing.ioc.BeanFactory")
+@Label("Bean Factory Invocation")
+class BeanFactoryEvent extends BeanPhaseEvent {
+}
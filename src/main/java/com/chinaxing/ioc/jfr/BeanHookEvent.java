@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 执行 @AfterInit
+ */
+@Name("com.chinaxing.ioc.BeanHook")
+@Label("Bean Hook")
+class BeanHookEvent extends BeanPhaseEvent {
+}
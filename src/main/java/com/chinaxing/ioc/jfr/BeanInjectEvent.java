@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 注入字段
+ */
+@Name("com.chinaxing.ioc.BeanInject")
+@Label("Bean Inject")
+class BeanInjectEvent extends BeanPhaseEvent {
+}
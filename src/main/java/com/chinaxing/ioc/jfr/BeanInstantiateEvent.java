@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 调用构造器创建实例
+ */
+@Name("com.chinaxing.ioc.BeanInstantiate")
+@Label("Bean Instantiate")
+class BeanInstantiateEvent extends BeanPhaseEvent {
+}
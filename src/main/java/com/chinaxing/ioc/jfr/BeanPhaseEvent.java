@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * 一个 bean 的一个初始化阶段，持续时间就是该阶段的耗时
+ */
+@Category({"China IOC", "Bean"})
+abstract class BeanPhaseEvent extends Event {
+    @Label("Bean Name")
+    String beanName;
+}
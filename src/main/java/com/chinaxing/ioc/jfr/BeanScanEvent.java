@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 解析 bean 的注解、构造器、字段和 hook
+ */
+@Name("com.chinaxing.ioc.BeanScan")
+@Label("Bean Scan")
+class BeanScanEvent extends BeanPhaseEvent {
+}
@@ -0,0 +1,52 @@
+package com.chinaxing.ioc.jfr;
+
+import com.chinaxing.ioc.BeanPhase;
+
+class JfrEvents {
+    static Object begin(BeanPhase phase) {
+        BeanPhaseEvent event;
+        switch (phase) {
+            case SCAN:
+                event = new BeanScanEvent();
+                break;
+            case INSTANTIATE:
+                event = new BeanInstantiateEvent();
+                break;
+            case INJECT:
+                event = new BeanInjectEvent();
+                break;
+            case HOOK:
+                event = new BeanHookEvent();
+                break;
+            default:
+                event = new BeanFactoryEvent();
+        }
+        event.begin();
+        return event;
+    }
+
+    static void end(Object event, String beanName) {
+        BeanPhaseEvent e = (BeanPhaseEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.beanName = beanName;
+            e.commit();
+        }
+    }
+
+    static Object beginPackageScan() {
+        PackageScanEvent event = new PackageScanEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endPackageScan(Object event, String basePackage, int beanCount) {
+        PackageScanEvent e = (PackageScanEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.basePackage = basePackage;
+            e.beanCount = beanCount;
+            e.commit();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 发现 bean 类：扫描包或读取 bean 索引、装配快照
+ */
+@Name("com.chinaxing.ioc.PackageScan")
+@Label("Package Scan")
+@Category({"China IOC", "Container"})
+class PackageScanEvent extends Event {
+    @Label("Base Package")
+    String basePackage;
+    @Label("Bean Count")
+    int beanCount;
+}
@@ -1,11 +1,12 @@
 package com.chinaxing.ioc.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 
 /**
  * Created by lenovo on 2015/1/29.
  */
-public class AnnotationClassSelector<T extends Annotation> implements ClassSelector {
+public class AnnotationClassSelector<T extends Annotation> implements ClassHeaderSelector {
     private Class<T> annotationClass;
 
     public AnnotationClassSelector(Class<T> tClass) {
@@ -16,4 +17,11 @@ public class AnnotationClassSelector<T extends Annotation> implements ClassSelec
     public boolean select(Class c) {
         return c.isAnnotationPresent(annotationClass);
     }
+
+    @Override
+    public boolean selectHeader(ClassHeader header) {
+        // @Inherited 的注解可能来自父类，文件头上看不出来
+        return header.hasAnnotation(annotationClass.getName())
+                || annotationClass.isAnnotationPresent(Inherited.class);
+    }
 }
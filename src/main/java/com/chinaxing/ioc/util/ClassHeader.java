@@ -0,0 +1,63 @@
+package com.chinaxing.ioc.util;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * 从 class 文件头解析出的类信息，不需要加载类
+ */
+public class ClassHeader {
+    private final int accessFlags;
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final List<String> annotationNames;
+
+    public ClassHeader(int accessFlags, String className, String superClassName,
+                       List<String> interfaceNames, List<String> annotationNames) {
+        this.accessFlags = accessFlags;
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.annotationNames = annotationNames;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return java.lang.Object 和接口的父类为 null
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * RuntimeVisibleAnnotations 中的注解类名
+     */
+    public List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & Modifier.INTERFACE) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & Modifier.ABSTRACT) != 0;
+    }
+
+    public boolean hasAnnotation(String annotationClassName) {
+        return annotationNames.contains(annotationClassName);
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+}
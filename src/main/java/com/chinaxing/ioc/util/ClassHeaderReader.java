@@ -0,0 +1,162 @@
+package com.chinaxing.ioc.util;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 直接解析 class 文件的常量池、父类、接口和 RuntimeVisibleAnnotations 属性，
+ * 扫描时用来在加载类之前过滤
+ */
+public class ClassHeaderReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    public static ClassHeader read(InputStream in) throws IOException {
+        return read(new DataInputStream(new BufferedInputStream(in)));
+    }
+
+    public static ClassHeader read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not a class file");
+        in.readUnsignedShort(); // minor_version
+        in.readUnsignedShort(); // major_version
+
+        int poolCount = in.readUnsignedShort();
+        String[] utf8 = new String[poolCount];
+        int[] classNameIndex = new int[poolCount];
+        for (int i = 1; i < poolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skip(in, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skip(in, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skip(in, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag : " + tag);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        String className = className(utf8, classNameIndex, in.readUnsignedShort());
+        String superClassName = className(utf8, classNameIndex, in.readUnsignedShort());
+        // 接口的 class 文件中父类是 java.lang.Object
+        if ((accessFlags & Modifier.INTERFACE) != 0) superClassName = null;
+        int interfaceCount = in.readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<String>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(className(utf8, classNameIndex, in.readUnsignedShort()));
+        }
+
+        skipMembers(in); // fields
+        skipMembers(in); // methods
+
+        List<String> annotationNames = Collections.emptyList();
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                annotationNames = readAnnotationNames(in, utf8);
+            } else {
+                skip(in, length);
+            }
+        }
+        return new ClassHeader(accessFlags, className, superClassName, interfaceNames, annotationNames);
+    }
+
+    private static List<String> readAnnotationNames(DataInputStream in, String[] utf8) throws IOException {
+        int count = in.readUnsignedShort();
+        List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(readAnnotation(in, utf8));
+        }
+        return result;
+    }
+
+    /**
+     * 读一个 annotation 结构，返回注解类名
+     */
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.readUnsignedShort(); // element_name_index
+            skipElementValue(in, utf8);
+        }
+        // Lcom/foo/Bar; -> com.foo.Bar
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                skip(in, 4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default: // B C D F I J S Z s c
+                skip(in, 2);
+        }
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            skip(in, 6); // access_flags name_index descriptor_index
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                skip(in, 2);
+                skip(in, in.readInt());
+            }
+        }
+    }
+
+    private static String className(String[] utf8, int[] classNameIndex, int index) {
+        if (index == 0) return null;
+        return utf8[classNameIndex[index]].replace('/', '.');
+    }
+
+    private static void skip(DataInputStream in, int n) throws IOException {
+        while (n > 0) {
+            int skipped = in.skipBytes(n);
+            if (skipped <= 0) throw new EOFException();
+            n -= skipped;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.util;
+
+/**
+ * 可以只根据 class 文件头做预选的 ClassSelector，预选不通过的类不会被加载
+ */
+public interface ClassHeaderSelector extends ClassSelector {
+    /**
+     * @return false 表示一定不会被选中；true 时还会加载类再调用 {@link #select(Class)}
+     */
+    public boolean selectHeader(ClassHeader header);
+}
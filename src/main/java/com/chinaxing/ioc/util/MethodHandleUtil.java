@@ -0,0 +1,105 @@
+package com.chinaxing.ioc.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 把构造器、字段、方法编译成统一签名的 MethodHandle，调用方用 invokeExact 调用，避免每次反射
+ * <p/>
+ * 静态字段、方法的 handle 没有 target 参数，补一个忽略的 Object 参数后签名和实例成员一致
+ */
+public class MethodHandleUtil {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType HOOK_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SPREAD_INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType INJECTOR_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+    private static final MethodHandle FIELD_SET;
+
+    static {
+        try {
+            FIELD_SET = LOOKUP.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @return (Object[] args)Object
+     */
+    public static MethodHandle constructor(Constructor c) {
+        c.setAccessible(true);
+        try {
+            return LOOKUP.unreflectConstructor(c)
+                    .asSpreader(Object[].class, c.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("cannot access constructor : " + c, e);
+        }
+    }
+
+    /**
+     * @return (Object target, Object value)void
+     */
+    public static MethodHandle setter(Field f) {
+        f.setAccessible(true);
+        try {
+            return withTarget(LOOKUP.unreflectSetter(f), f.getModifiers()).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // 老版本 JDK 不允许通过 MethodHandle 写 final 字段，退回到 Field.set
+            return FIELD_SET.bindTo(f);
+        }
+    }
+
+    /**
+     * @return (Object target)void，返回值被丢弃
+     */
+    public static MethodHandle hook(Method m) {
+        return unreflect(m).asType(HOOK_TYPE);
+    }
+
+    /**
+     * @return (Object target)Object，只适用于无参方法
+     */
+    public static MethodHandle invoker(Method m) {
+        return unreflect(m).asType(INVOKER_TYPE);
+    }
+
+    /**
+     * @return (Object target, Object[] args)Object
+     */
+    public static MethodHandle spreadInvoker(Method m) {
+        return unreflect(m)
+                .asSpreader(Object[].class, m.getParameterCount())
+                .asType(SPREAD_INVOKER_TYPE);
+    }
+
+    /**
+     * @return (Object target, Object[] args)void，返回值被丢弃
+     */
+    public static MethodHandle injector(Method m) {
+        return unreflect(m)
+                .asSpreader(Object[].class, m.getParameterCount())
+                .asType(INJECTOR_TYPE);
+    }
+
+    private static MethodHandle unreflect(Method m) {
+        m.setAccessible(true);
+        try {
+            return withTarget(LOOKUP.unreflect(m), m.getModifiers());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("cannot access method : " + m, e);
+        }
+    }
+
+    private static MethodHandle withTarget(MethodHandle handle, int modifiers) {
+        return Modifier.isStatic(modifiers) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+    }
+}
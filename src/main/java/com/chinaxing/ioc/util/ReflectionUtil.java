@@ -1,20 +1,25 @@
 package com.chinaxing.ioc.util;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
+import com.chinaxing.ioc.convert.ConverterRegistry;
+
+import java.io.*;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.CRC32;
 
 /**
  * Created by lenovo on 2015/1/29.
  */
 public class ReflectionUtil {
+    private static final ConverterRegistry CONVERTERS = new ConverterRegistry();
+
     public static Type getParameterType(Object o, String parameter) {
         Class currentClass = o.getClass();
         TypeVariable[] typeVariables = currentClass.getTypeParameters();
@@ -31,45 +36,44 @@ public class ReflectionUtil {
     }
 
     public static <T> List<Class<? extends T>> listPackageClass(String pkgName, ClassSelector selector) {
-        List<Class<? extends T>> result = new ArrayList<Class<? extends T>>();
+        return listPackageClass(pkgName, selector, null);
+    }
 
+    /**
+     * 包（含子包）下选中的类。每个 classpath 根（jar 或目录）只遍历一次，有多个根时并行读取；
+     * 给了 cache 时，内容没变的 jar、目录直接使用缓存的类名，不再解析 class 文件头
+     */
+    public static <T> List<Class<? extends T>> listPackageClass(final String pkgName, final ClassSelector selector, final ScanCache cache) {
+        List<Class<? extends T>> result = new ArrayList<Class<? extends T>>();
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         try {
-            Enumeration<URL> resources = classLoader.getResources(pkgName.replace(".", "/"));
-            while (resources.hasMoreElements()) {
-                URL resource = resources.nextElement();
-                if (resource.getProtocol().equalsIgnoreCase("jar")) {
-                    JarURLConnection urlConnection = (JarURLConnection) resource.openConnection();
-                    JarFile jarFile = urlConnection.getJarFile();
-                    String prefix = urlConnection.getEntryName();
-                    Enumeration<JarEntry> entryEnumeration = jarFile.entries();
-                    while (entryEnumeration.hasMoreElements()) {
-                        JarEntry entry = entryEnumeration.nextElement();
-                        if (entry.isDirectory()) continue;
-                        if (!entry.getName().startsWith(prefix)) continue;
-                        if (entry.getName().endsWith(".class")) {
-                            String className = entry.getName().substring(0, entry.getName().length() - 6).replace("/", ".");
-                            loadClass(className, result, selector);
+            List<URL> roots = Collections.list(classLoader.getResources(pkgName.replace(".", "/")));
+            List<CompletableFuture<List<ScanUnit>>> scans = new ArrayList<CompletableFuture<List<ScanUnit>>>();
+            for (final URL root : roots) {
+                Supplier<List<ScanUnit>> scan = new Supplier<List<ScanUnit>>() {
+                    @Override
+                    public List<ScanUnit> get() {
+                        try {
+                            return scanRoot(root, pkgName, selector, cache);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
                         }
                     }
-                    continue;
-                }
-                File f = new File(resource.getFile());
-                if (!f.isDirectory()) { // should not be file , but a directory
-                    continue;
-                }
-                for (File file : f.listFiles()) {
-                    if (file.isFile()) {
-                        String classFileName = file.getName();
-                        if (file.getName().endsWith(".class")) {
-                            String className = classFileName.substring(0, classFileName.length() - 6);
-                            loadClass(pkgName + "." + className, result, selector);
-                        }
-                        continue;
+                };
+                scans.add(roots.size() > 1 ? CompletableFuture.supplyAsync(scan) : CompletableFuture.completedFuture(scan.get()));
+            }
+            // 类按根的顺序在当前线程加载
+            for (CompletableFuture<List<ScanUnit>> scan : scans) {
+                for (ScanUnit unit : scan.join()) {
+                    List<String> selected = new ArrayList<String>();
+                    for (String className : unit.classNames) {
+                        Class c = loadClass(className, selector, classLoader);
+                        if (c == null) continue;
+                        result.add(c);
+                        selected.add(className);
                     }
-                    if (file.isDirectory()) {
-                        List<Class<? extends T>> classes = listPackageClass(pkgName + "." + file.getName(), selector);
-                        result.addAll(classes);
+                    if (cache != null && !unit.cached && unit.key != null) {
+                        cache.put(unit.key, unit.stamp, unit.fingerprint, selected);
                     }
                 }
             }
@@ -79,14 +83,232 @@ public class ReflectionUtil {
         return result;
     }
 
-    private static <T> void loadClass(String className, List<Class<? extends T>> result, ClassSelector selector) {
+    /**
+     * 一个 jar（按包前缀）或目录中的候选类名
+     */
+    private static final class ScanUnit {
+        /**
+         * 缓存的 key，不能缓存时为 null
+         */
+        final String key;
+        final long stamp;
+        final long fingerprint;
+        final List<String> classNames;
+        final boolean cached;
+
+        ScanUnit(String key, long stamp, long fingerprint, List<String> classNames, boolean cached) {
+            this.key = key;
+            this.stamp = stamp;
+            this.fingerprint = fingerprint;
+            this.classNames = classNames;
+            this.cached = cached;
+        }
+    }
+
+    private static List<ScanUnit> scanRoot(URL resource, String pkgName, ClassSelector selector, ScanCache cache) throws IOException {
+        List<ScanUnit> units = new ArrayList<ScanUnit>();
+        if (resource.getProtocol().equalsIgnoreCase("jar")) {
+            units.add(scanJar(resource, selector, cache));
+            return units;
+        }
+        File f = new File(resource.getFile());
+        if (f.isDirectory()) { // should not be file , but a directory
+            scanDirectory(f, pkgName, selector, cache, units);
+        }
+        return units;
+    }
+
+    private static ScanUnit scanJar(URL resource, ClassSelector selector, ScanCache cache) throws IOException {
+        // 只有本地 jar 文件才能取指纹，先查缓存，命中时只读 central directory，不解压条目
+        String key = null;
+        long stamp = 0;
+        long fingerprint = 0;
+        File jar = localJar(resource);
+        JarURLConnection urlConnection = (JarURLConnection) resource.openConnection();
+        String prefix = urlConnection.getEntryName();
+        if (cache != null && jar != null) {
+            key = resource.toString();
+            stamp = 31 * jar.length() + jar.lastModified();
+            fingerprint = jarFingerprint(jar, prefix);
+            List<String> classNames = cache.get(key, stamp, fingerprint);
+            if (classNames != null) return new ScanUnit(key, stamp, fingerprint, classNames, true);
+        }
+        List<String> classNames = new ArrayList<String>();
+        JarFile jarFile = urlConnection.getJarFile();
+        Enumeration<JarEntry> entryEnumeration = jarFile.entries();
+        while (entryEnumeration.hasMoreElements()) {
+            JarEntry entry = entryEnumeration.nextElement();
+            if (entry.isDirectory()) continue;
+            if (!entry.getName().startsWith(prefix)) continue;
+            if (entry.getName().endsWith(".class")) {
+                if (!selectHeader(jarFile.getInputStream(entry), selector)) continue;
+                classNames.add(entry.getName().substring(0, entry.getName().length() - 6).replace("/", "."));
+            }
+        }
+        return new ScanUnit(key, stamp, fingerprint, classNames, false);
+    }
+
+    /**
+     * jar 中包前缀下 class 条目的名称和 CRC-32，都取自 central directory，不解压条目。
+     * 直接打开文件而不是用 JarURLConnection，后者会缓存打开过的 JarFile，看不到 jar 被替换
+     */
+    private static long jarFingerprint(File jar, String prefix) throws IOException {
+        SortedSet<String> stamps = new TreeSet<String>();
+        JarFile jarFile = new JarFile(jar);
         try {
-            Class c = Class.forName(className);
-            if (selector.select(c)) {
-                result.add(c);
+            Enumeration<JarEntry> entryEnumeration = jarFile.entries();
+            while (entryEnumeration.hasMoreElements()) {
+                JarEntry entry = entryEnumeration.nextElement();
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix) || !entry.getName().endsWith(".class"))
+                    continue;
+                stamps.add(entry.getName() + ":" + entry.getCrc());
+            }
+        } finally {
+            jarFile.close();
+        }
+        CRC32 crc = new CRC32();
+        for (String stamp : stamps) {
+            crc.update(stamp.getBytes("UTF-8"));
+            crc.update('\n');
+        }
+        return crc.getValue() << 16 | stamps.size();
+    }
+
+    /**
+     * @return jar:file:/x.jar!/pkg 对应的本地 jar 文件，嵌套 jar 或远程 jar 返回 null
+     */
+    private static File localJar(URL resource) {
+        String path = resource.getPath();
+        int separator = path.indexOf("!/");
+        if (separator < 0 || path.indexOf("!/", separator + 2) >= 0 || !path.startsWith("file:")) return null;
+        try {
+            File jar = new File(new URL(path.substring(0, separator)).toURI());
+            return jar.isFile() ? jar : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 每个目录单独缓存，只重新扫描有变化的目录
+     */
+    private static void scanDirectory(File dir, String pkgName, ClassSelector selector, ScanCache cache, List<ScanUnit> units) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        List<File> classFiles = new ArrayList<File>();
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(".class")) {
+                classFiles.add(file);
+            } else if (file.isDirectory()) {
+                scanDirectory(file, pkgName + "." + file.getName(), selector, cache, units);
+            }
+        }
+        String key = null;
+        long stamp = 0;
+        long fingerprint = 0;
+        if (cache != null) {
+            key = dir.getAbsolutePath();
+            stamp = directoryStamp(classFiles);
+            fingerprint = directoryFingerprint(classFiles);
+            List<String> classNames = cache.get(key, stamp, fingerprint);
+            if (classNames != null) {
+                units.add(new ScanUnit(key, stamp, fingerprint, classNames, true));
+                return;
+            }
+        }
+        List<String> classNames = new ArrayList<String>();
+        for (File file : classFiles) {
+            try {
+                if (!selectHeader(new FileInputStream(file), selector)) continue;
+            } catch (FileNotFoundException e) {
+                continue;
+            }
+            String classFileName = file.getName();
+            classNames.add(pkgName + "." + classFileName.substring(0, classFileName.length() - 6));
+        }
+        units.add(new ScanUnit(key, stamp, fingerprint, classNames, false));
+    }
+
+    /**
+     * 目录中 class 文件的名称、大小和修改时间，不读取文件，只用来快速判断目录变了
+     */
+    private static long directoryStamp(List<File> classFiles) {
+        SortedSet<String> stamps = new TreeSet<String>();
+        for (File file : classFiles) {
+            stamps.add(file.getName() + ":" + file.length() + ":" + file.lastModified());
+        }
+        CRC32 crc = new CRC32();
+        for (String stamp : stamps) {
+            crc.update(stamp.getBytes());
+        }
+        return crc.getValue() << 16 | stamps.size();
+    }
+
+    /**
+     * 目录中 class 文件的名称和内容的 CRC-32：构建工具固定了修改时间（可重现构建）时，大小和修改时间看不出内容变化
+     */
+    private static long directoryFingerprint(List<File> classFiles) {
+        SortedMap<String, File> sorted = new TreeMap<String, File>();
+        for (File file : classFiles) {
+            sorted.put(file.getName(), file);
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        for (Map.Entry<String, File> e : sorted.entrySet()) {
+            crc.update(e.getKey().getBytes());
+            crc.update('\n');
+            try {
+                InputStream in = new FileInputStream(e.getValue());
+                try {
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        crc.update(buffer, 0, n);
+                    }
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                // 列出目录之后被删除的文件只按名称计算
             }
+        }
+        return crc.getValue() << 16 | sorted.size();
+    }
+
+    /**
+     * 用 class 文件头预选，选不中的类不需要加载；非 ClassHeaderSelector 总是返回 true
+     */
+    private static boolean selectHeader(InputStream in, ClassSelector selector) {
+        if (!(selector instanceof ClassHeaderSelector)) {
+            closeQuietly(in);
+            return true;
+        }
+        try {
+            return ((ClassHeaderSelector) selector).selectHeader(ClassHeaderReader.read(in));
+        } catch (IOException e) {
+            return true; // 解析失败就加载类来判断
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private static Class loadClass(String className, ClassSelector selector, ClassLoader classLoader) {
+        try {
+            // 预选过的类只加载不初始化，静态初始化留到真正使用时
+            Class c = selector instanceof ClassHeaderSelector
+                    ? Class.forName(className, false, classLoader)
+                    : Class.forName(className);
+            return selector.select(c) ? c : null;
         } catch (Throwable t) {
             t.printStackTrace();
+            return null;
         }
     }
 
@@ -143,6 +365,13 @@ public class ReflectionUtil {
         return result;
     }
 
+    public static Method getDeclaredMethod(Class c, String name, Class<? extends Annotation> annotationClass) {
+        for (Method m : c.getDeclaredMethods()) {
+            if (m.getName().equals(name) && m.isAnnotationPresent(annotationClass)) return m;
+        }
+        return null;
+    }
+
     public static Set<Class<?>> getSuperClasses(Class c) {
         Set<Class<?>> result = new LinkedHashSet<Class<?>>();
         do {
@@ -169,11 +398,82 @@ public class ReflectionUtil {
 
     public static void setFieldByProperty(Object obj, Field f, Object property) throws Throwable {
         f.setAccessible(true);
-        if (f.getType() == int.class || f.getType() == Integer.class) {
-            f.set(obj, Integer.parseInt(property.toString()));
-        } else {
-            f.set(obj, property);
+        f.set(obj, convertProperty(f.getType(), property));
+    }
+
+    public static Object convertProperty(Class type, Object property) {
+        try {
+            return CONVERTERS.convert(type, property);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("cannot convert property " + property + " to " + type.getName(), e);
+        }
+    }
+
+    /**
+     * 包（含子包）的快速校验值：本地 jar 的文件大小和修改时间，目录中 class 文件的名称、大小和修改时间，不读取文件内容。
+     * 校验值变了说明包一定变了；没变时还要比较 {@link #packageFingerprint}
+     */
+    public static long packageStamp(String pkgName) throws IOException {
+        return packageFingerprint(pkgName, false);
+    }
+
+    /**
+     * 包（含子包）的内容指纹，和 ScanCache 的指纹相同：本地 jar 用 central directory 中条目的 CRC-32，
+     * 目录用 class 文件内容的 CRC-32，嵌套 jar 等取不到文件时用条目的大小和 CRC。包里增加、删除或修改了类，指纹都会变化
+     */
+    public static long packageFingerprint(String pkgName) throws IOException {
+        return packageFingerprint(pkgName, true);
+    }
+
+    private static long packageFingerprint(String pkgName, boolean content) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        SortedSet<String> stamps = new TreeSet<String>();
+        Enumeration<URL> resources = classLoader.getResources(pkgName.replace(".", "/"));
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if (!resource.getProtocol().equalsIgnoreCase("jar")) {
+                addDirectoryStamps(new File(resource.getFile()), stamps, content);
+                continue;
+            }
+            File jar = localJar(resource);
+            if (jar != null) {
+                String prefix = resource.getPath().substring(resource.getPath().indexOf("!/") + 2);
+                stamps.add(resource + ":" + (content ? jarFingerprint(jar, prefix) : 31 * jar.length() + jar.lastModified()));
+                continue;
+            }
+            JarURLConnection urlConnection = (JarURLConnection) resource.openConnection();
+            JarFile jarFile = urlConnection.getJarFile();
+            String prefix = urlConnection.getEntryName();
+            Enumeration<JarEntry> entryEnumeration = jarFile.entries();
+            while (entryEnumeration.hasMoreElements()) {
+                JarEntry entry = entryEnumeration.nextElement();
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix) || !entry.getName().endsWith(".class"))
+                    continue;
+                stamps.add(entry.getName() + ":" + entry.getSize() + ":" + entry.getCrc());
+            }
+        }
+        CRC32 crc = new CRC32();
+        for (String stamp : stamps) {
+            crc.update(stamp.getBytes("UTF-8"));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    private static void addDirectoryStamps(File dir, Set<String> stamps, boolean content) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        List<File> classFiles = new ArrayList<File>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                addDirectoryStamps(file, stamps, content);
+            } else if (file.getName().endsWith(".class")) {
+                classFiles.add(file);
+            }
         }
+        stamps.add(dir.getAbsolutePath() + ":" + (content ? directoryFingerprint(classFiles) : directoryStamp(classFiles)));
     }
 
     public static URL getClassPathResource(String resource) {
@@ -0,0 +1,117 @@
+package com.chinaxing.ioc.util;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 包扫描的磁盘缓存：每个 jar（按包前缀）或目录保存一个指纹和其中选中的类名，
+ * 指纹没变的 jar、目录不再解析 class 文件头，直接使用缓存的类名
+ * <p/>
+ * 指纹按内容计算：jar 是 central directory 中 class 条目的 CRC-32，目录是其中 class 文件内容的 CRC-32（不含子目录，子目录单独缓存）。
+ * 另存一个文件大小、修改时间的快速校验值，它变了就直接当作变化，没变时仍要比较内容指纹，构建工具可能固定了修改时间
+ */
+public class ScanCache {
+    private static final int MAGIC = 0x43494F53;
+    private static final int VERSION = 2;
+
+    private final File file;
+    /**
+     * 缓存的用途，比如选择器，不同用途的缓存不能混用
+     */
+    private final String scope;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private volatile boolean dirty;
+
+    private ScanCache(File file, String scope) {
+        this.file = file;
+        this.scope = scope;
+    }
+
+    /**
+     * 读取缓存文件；文件不存在、损坏或用途不同时得到一个空缓存
+     */
+    public static ScanCache load(File file, String scope) {
+        ScanCache cache = new ScanCache(file, scope);
+        if (!file.isFile()) return cache;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(scope)) return cache;
+                for (int n = in.readInt(); n > 0; n--) {
+                    String key = in.readUTF();
+                    long stamp = in.readLong();
+                    long fingerprint = in.readLong();
+                    List<String> classNames = new ArrayList<String>();
+                    for (int c = in.readInt(); c > 0; c--) {
+                        classNames.add(in.readUTF());
+                    }
+                    cache.entries.put(key, new Entry(stamp, fingerprint, classNames));
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * @return 快速校验值和指纹都一致时缓存的类名，否则返回 null
+     */
+    List<String> get(String key, long stamp, long fingerprint) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.stamp == stamp && entry.fingerprint == fingerprint ? entry.classNames : null;
+    }
+
+    void put(String key, long stamp, long fingerprint, List<String> classNames) {
+        entries.put(key, new Entry(stamp, fingerprint, Collections.unmodifiableList(new ArrayList<String>(classNames))));
+        dirty = true;
+    }
+
+    /**
+     * 有变化时写回缓存文件
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) return;
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(scope);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue().stamp);
+                out.writeLong(e.getValue().fingerprint);
+                out.writeInt(e.getValue().classNames.size());
+                for (String className : e.getValue().classNames) {
+                    out.writeUTF(className);
+                }
+            }
+        } finally {
+            out.close();
+        }
+        if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+            throw new IOException("cannot replace scan cache : " + file);
+        }
+        dirty = false;
+    }
+
+    private static final class Entry {
+        final long stamp;
+        final long fingerprint;
+        final List<String> classNames;
+
+        Entry(long stamp, long fingerprint, List<String> classNames) {
+            this.stamp = stamp;
+            this.fingerprint = fingerprint;
+            this.classNames = classNames;
+        }
+    }
+}
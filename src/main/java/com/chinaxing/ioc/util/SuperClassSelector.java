@@ -1,12 +1,19 @@
 package com.chinaxing.ioc.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Modifier;
+import java.util.*;
 
 /**
  * Created by lenovo on 2015/1/29.
  */
-public class SuperClassSelector implements ClassSelector {
+public class SuperClassSelector implements ClassHeaderSelector {
     private Class superClass;
+    /**
+     * 已经读过的父类型文件头，null 表示无法读取
+     */
+    private Map<String, ClassHeader> headerCache = new HashMap<String, ClassHeader>();
 
     public SuperClassSelector(Class superClass) {
         this.superClass = superClass;
@@ -18,4 +25,48 @@ public class SuperClassSelector implements ClassSelector {
                 && !Modifier.isInterface(c.getModifiers())
                 && !Modifier.isAbstract(c.getModifiers());
     }
+
+    @Override
+    public boolean selectHeader(ClassHeader header) {
+        if (header.isInterface() || header.isAbstract()) return false;
+        String target = superClass.getName();
+        if (target.equals(header.getClassName()) || target.equals("java.lang.Object")) return true;
+        boolean targetInJdk = target.startsWith("java.");
+        Deque<String> pending = new ArrayDeque<String>();
+        Set<String> visited = new HashSet<String>();
+        addSuperTypes(header, pending);
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (!visited.add(name)) continue;
+            if (name.equals(target)) return true;
+            // JDK 里的类不会继承应用里的类型
+            if (!targetInJdk && name.startsWith("java.")) continue;
+            ClassHeader superHeader = readHeader(name);
+            if (superHeader == null) return true; // 读不到就交给 select(Class) 判断
+            addSuperTypes(superHeader, pending);
+        }
+        return false;
+    }
+
+    private void addSuperTypes(ClassHeader header, Deque<String> pending) {
+        if (header.getSuperClassName() != null) pending.add(header.getSuperClassName());
+        pending.addAll(header.getInterfaceNames());
+    }
+
+    private synchronized ClassHeader readHeader(String className) {
+        if (headerCache.containsKey(className)) return headerCache.get(className);
+        ClassHeader header = null;
+        try {
+            InputStream in = ReflectionUtil.getClassPathResourceAsInputStream(className.replace('.', '/') + ".class");
+            try {
+                header = ClassHeaderReader.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // 交给 select(Class) 判断
+        }
+        headerCache.put(className, header);
+        return header;
+    }
 }
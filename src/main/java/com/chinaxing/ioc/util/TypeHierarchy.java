@@ -0,0 +1,42 @@
+package com.chinaxing.ioc.util;
+
+import java.util.*;
+
+/**
+ * 类型的完整继承体系：所有父类，以及类本身和所有父类实现的接口（包括接口继承的接口）
+ * <p/>
+ * 结果按类缓存在 ClassValue 中，随类卸载一起回收
+ */
+public class TypeHierarchy {
+    private static final ClassValue<Set<Class<?>>> SUPER_TYPES = new ClassValue<Set<Class<?>>>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            return Collections.unmodifiableSet(computeSuperTypes(type));
+        }
+    };
+
+    /**
+     * @return 不包含 c 本身的所有父类和接口，父类在前，按从近到远的顺序；不可修改
+     */
+    public static Set<Class<?>> getSuperTypes(Class<?> c) {
+        return SUPER_TYPES.get(c);
+    }
+
+    private static Set<Class<?>> computeSuperTypes(Class<?> type) {
+        Set<Class<?>> result = new LinkedHashSet<Class<?>>();
+        for (Class<?> c = type.getSuperclass(); c != null; c = c.getSuperclass()) {
+            result.add(c);
+        }
+        Deque<Class<?>> pending = new ArrayDeque<Class<?>>();
+        pending.add(type);
+        for (Class<?> c : result) {
+            pending.add(c);
+        }
+        while (!pending.isEmpty()) {
+            for (Class<?> i : pending.poll().getInterfaces()) {
+                if (result.add(i)) pending.add(i);
+            }
+        }
+        return result;
+    }
+}
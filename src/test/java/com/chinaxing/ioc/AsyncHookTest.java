@@ -0,0 +1,107 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.Events;
+import com.chinaxing.ioc.testbeans.async.Dictionary;
+import com.chinaxing.ioc.testbeans.async.Plain;
+import com.chinaxing.ioc.testbeans.async.SearchIndex;
+import com.chinaxing.ioc.testbeans.asyncfail.Dependent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class AsyncHookTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        Events.clear();
+        Dictionary.gate = new CountDownLatch(0);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        Dictionary.gate.countDown();
+        executor.shutdownNow();
+    }
+
+    private ChinaIOC start(String basePackage) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setAsyncHookExecutor(executor);
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties(), config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test(timeout = 10000)
+    public void initContainerDoesNotWaitForAsyncHooks() throws Exception {
+        Dictionary.gate = new CountDownLatch(1);
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.async");
+        // 同步 hook 在 initContainer 中已经执行
+        assertEquals(1, Events.get().size());
+        assertEquals("dictionary init", Events.get().get(0));
+        assertFalse(ioc.getReadyFuture().isDone());
+        assertFalse(ioc.getReadyFuture(SearchIndex.class).isDone());
+        assertSame(ioc.getChinaBean(Plain.class), ioc.getReadyFuture(Plain.class).get(5, TimeUnit.SECONDS));
+
+        Dictionary.gate.countDown();
+        ioc.getReadyFuture().get(5, TimeUnit.SECONDS);
+        assertSame(ioc.getChinaBean(SearchIndex.class), ioc.getReadyFuture(SearchIndex.class).get());
+    }
+
+    @Test(timeout = 10000)
+    public void asyncHooksRunInDependencyOrder() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Events.clear();
+            ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.async");
+            ioc.getReadyFuture().get(5, TimeUnit.SECONDS);
+            List<String> events = Events.get();
+            assertTrue(events.toString(), events.indexOf("dictionary warm") >= 0);
+            assertTrue(events.toString(), events.indexOf("dictionary warm") < events.indexOf("searchIndex warm"));
+        }
+    }
+
+    @Test
+    public void beansWithoutAsyncHooksAreReadyImmediately() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.async");
+        assertNull(ioc.getReadyFuture(String.class));
+        assertTrue(ioc.getReadyFuture(Plain.class).isDone());
+    }
+
+    @Test(timeout = 10000)
+    public void asyncHookFailureNamesBeanAndFailsDependents() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.asyncfail");
+        try {
+            ioc.getReadyFuture().get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InitializeBeanException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("brokenWarmup"));
+            assertEquals("warmup failed", e.getCause().getCause().getMessage());
+        }
+        try {
+            ioc.getReadyFuture(Dependent.class).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("brokenWarmup"));
+        }
+        // 依赖的 bean 失败后自己的异步 hook 不再执行
+        assertFalse(Events.get().contains("dependent warm"));
+    }
+
+    @Test
+    public void syncHookFailureNamesBean() {
+        try {
+            start("com.chinaxing.ioc.testbeans.hookfail");
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("badHook"));
+        }
+    }
+}
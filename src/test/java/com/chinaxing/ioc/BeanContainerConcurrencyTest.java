@@ -0,0 +1,91 @@
+package com.chinaxing.ioc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class BeanContainerConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int BEANS_PER_WRITER = 500;
+
+    interface Shape {
+    }
+
+    static class Circle implements Shape {
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentRegistrationIsNotLostAndExpandsAtomically() throws Exception {
+        final BeanContainer container = new BeanContainer();
+        container.freeze();
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<String> violation = new AtomicReference<String>();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<?>> writers = new ArrayList<Future<?>>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < BEANS_PER_WRITER; i++) {
+                            container.registerBeanExpand(Circle.class, new Circle());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<Future<?>>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        int last = 0;
+                        while (writing.get()) {
+                            int shapes = container.getBeansOfType(Shape.class).size();
+                            int circles = container.getBeansOfType(Circle.class).size();
+                            // 一次注册的所有类型同时可见，后读的 Circle 不会比先读的 Shape 少
+                            if (circles < shapes) violation.set("circles " + circles + " < shapes " + shapes);
+                            if (shapes < last) violation.set("shape count went back from " + last + " to " + shapes);
+                            last = shapes;
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(violation.get());
+        assertEquals(WRITERS * BEANS_PER_WRITER, container.getBeansOfType(Circle.class).size());
+        assertEquals(WRITERS * BEANS_PER_WRITER, container.getBeansOfType(Shape.class).size());
+        assertEquals(WRITERS * BEANS_PER_WRITER, container.countBeansOfType(Shape.class));
+    }
+
+    @Test
+    public void registeredBeanIsFoundByName() throws Exception {
+        BeanContainer container = new BeanContainer();
+        Circle circle = new Circle();
+        container.registerBean(Circle.class, circle);
+        assertSame(circle, container.getBeanByName(Circle.class.getName()));
+        assertSame(circle, container.getBeanOfType(Circle.class));
+        assertNull(container.getBeanOfType(Shape.class));
+    }
+}
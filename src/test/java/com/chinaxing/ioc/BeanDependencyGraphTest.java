@@ -0,0 +1,99 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.Events;
+import com.chinaxing.ioc.testbeans.fieldcycle.FieldA;
+import com.chinaxing.ioc.testbeans.fieldcycle.FieldB;
+import com.chinaxing.ioc.testbeans.graph.Controller;
+import com.chinaxing.ioc.testbeans.graph.Repository;
+import com.chinaxing.ioc.testbeans.graph.Service;
+import com.chinaxing.ioc.testbeans.missing.Gateway;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class BeanDependencyGraphTest {
+    @Before
+    public void setUp() {
+        Events.clear();
+    }
+
+    private static ChinaIOC start(String basePackage) throws InitializeBeanException {
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties());
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void createsDependenciesFirst() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.graph");
+        assertEquals(Arrays.asList("new repository", "new service"), Events.get());
+        Controller controller = ioc.getChinaBean(Controller.class);
+        assertTrue(controller.injectedBeforeHook);
+        assertSame(ioc.getChinaBean(Service.class), controller.service);
+        assertSame(ioc.getChinaBean(Repository.class), controller.service.repository);
+    }
+
+    @Test
+    public void longChainIsSortedWithoutRecursion() throws Exception {
+        int n = 10000;
+        List<ChinaBeanInfo> beans = new ArrayList<ChinaBeanInfo>();
+        List<List<Integer>> nodes = new ArrayList<List<Integer>>();
+        for (int i = 0; i < n; i++) {
+            ChinaBeanInfo beanInfo = new ChinaBeanInfo("bean" + i, Object.class);
+            // bean i 依赖 bean i + 1
+            beanInfo.setDependencies(new ArrayList<ChinaBeanInfo>());
+            if (i > 0) beans.get(i - 1).getDependencies().add(beanInfo);
+            beans.add(beanInfo);
+            int create = i * 3;
+            nodes.add(i + 1 < n ? Arrays.asList(create + 4) : new ArrayList<Integer>());
+            nodes.add(Arrays.asList(create));
+            nodes.add(Arrays.asList(create + 1));
+        }
+        BeanDependencyGraph graph = new BeanDependencyGraph(beans, nodes, null);
+
+        List<Integer> order = graph.sort();
+        assertEquals(3 * n, order.size());
+        assertEquals(Integer.valueOf(3 * (n - 1)), order.get(0));
+        List<ChinaBeanInfo> beanOrder = graph.getBeanOrder();
+        assertEquals("bean" + (n - 1), beanOrder.get(0).getBeanName());
+        assertEquals("bean0", beanOrder.get(n - 1).getBeanName());
+    }
+
+    @Test
+    public void constructorCycleIsReported() {
+        try {
+            start("com.chinaxing.ioc.testbeans.cycle");
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("dependency cycle : "));
+            assertTrue(e.getMessage(), e.getMessage().contains("cycleA -(constructor parameter"));
+            assertTrue(e.getMessage(), e.getMessage().contains("cycleB -(constructor parameter"));
+        }
+    }
+
+    @Test
+    public void fieldCycleIsAllowed() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.fieldcycle");
+        FieldA a = ioc.getChinaBean(FieldA.class);
+        FieldB b = ioc.getChinaBean(FieldB.class);
+        assertSame(b, a.b);
+        assertSame(a, b.a);
+    }
+
+    @Test
+    public void missingDependencyNamesBeanAndType() {
+        try {
+            start("com.chinaxing.ioc.testbeans.missing");
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("no bean of type " + Gateway.class.getName()));
+            assertTrue(e.getMessage(), e.getMessage().contains("of bean needy"));
+        }
+    }
+}
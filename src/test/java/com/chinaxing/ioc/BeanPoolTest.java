@@ -0,0 +1,180 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.scope.Buffer;
+import com.chinaxing.ioc.testbeans.scope.Parser;
+import com.chinaxing.ioc.testbeans.scope.Shared;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BeanPoolTest {
+    private static class CountingCreator implements BeanCreator {
+        final AtomicInteger created = new AtomicInteger();
+        volatile boolean fail;
+
+        @Override
+        public Object create(ChinaBeanInfo beanInfo) throws InitializeBeanException {
+            if (fail) throw new InitializeBeanException("create failed");
+            return "instance" + created.incrementAndGet();
+        }
+    }
+
+    private static BeanPool pool(CountingCreator creator, int maxIdle, int maxTotal, long maxWaitMillis, long idleTimeoutMillis) {
+        return new BeanPool(new ChinaBeanInfo("pooled", Object.class), creator, maxIdle, maxTotal, maxWaitMillis,
+                idleTimeoutMillis, true);
+    }
+
+    @Test
+    public void releasedInstanceIsReused() throws Exception {
+        CountingCreator creator = new CountingCreator();
+        BeanPool pool = pool(creator, 2, 0, 0, 0);
+        Object first = pool.borrow();
+        assertTrue(pool.release(first));
+        assertSame(first, pool.borrow());
+        assertEquals(1, creator.created.get());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(-1, pool.getAvailablePermits());
+    }
+
+    @Test
+    public void instancesOverMaxIdleAreDropped() throws Exception {
+        BeanPool pool = pool(new CountingCreator(), 1, 0, 0, 0);
+        Object a = pool.borrow();
+        Object b = pool.borrow();
+        assertTrue(pool.release(a));
+        assertFalse(pool.release(b));
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getEvictions());
+    }
+
+    @Test
+    public void idleInstancesExpire() throws Exception {
+        CountingCreator creator = new CountingCreator();
+        BeanPool pool = pool(creator, 2, 0, 0, 1);
+        Object first = pool.borrow();
+        pool.release(first);
+        Thread.sleep(20);
+        assertNotSame(first, pool.borrow());
+        assertEquals(2, creator.created.get());
+        assertEquals(1, pool.getEvictions());
+    }
+
+    @Test
+    public void borrowFailsWhenMaxTotalIsReached() throws Exception {
+        BeanPool pool = pool(new CountingCreator(), 2, 2, 0, 0);
+        Object a = pool.borrow();
+        pool.borrow();
+        assertEquals(0, pool.getAvailablePermits());
+        try {
+            pool.borrow();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage().startsWith("pooled bean exhausted"));
+        }
+        pool.release(a);
+        assertSame(a, pool.borrow());
+    }
+
+    @Test(timeout = 10000)
+    public void borrowWaitsForRelease() throws Exception {
+        final BeanPool pool = pool(new CountingCreator(), 1, 1, 5000, 0);
+        final Object a = pool.borrow();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    pool.release(a);
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+            assertSame(a, pool.borrow());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedCreationReturnsPermit() throws Exception {
+        CountingCreator creator = new CountingCreator();
+        BeanPool pool = pool(creator, 1, 1, 0, 0);
+        creator.fail = true;
+        try {
+            pool.borrow();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertEquals("create failed", e.getMessage());
+        }
+        assertEquals(1, pool.getAvailablePermits());
+        creator.fail = false;
+        assertNotNull(pool.borrow());
+    }
+
+    @Test
+    public void doubleReleaseIsRejected() throws Exception {
+        BeanPool pool = pool(new CountingCreator(), 2, 1, 0, 0);
+        Object a = pool.borrow();
+        assertTrue(pool.release(a));
+        assertFalse(pool.release(a));
+        assertEquals(1, pool.getAvailablePermits());
+        assertEquals(1, pool.getIdleCount());
+        // 只剩一个许可，两次借出不会拿到同一个实例
+        assertSame(a, pool.borrow());
+        try {
+            pool.borrow();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage().startsWith("pooled bean exhausted"));
+        }
+    }
+
+    @Test
+    public void foreignInstanceIsRejected() throws Exception {
+        BeanPool pool = pool(new CountingCreator(), 2, 1, 0, 0);
+        Object a = pool.borrow();
+        // 和借出的实例 equals 但不是同一个对象
+        assertFalse(pool.release(new String("instance1")));
+        assertEquals(0, pool.getAvailablePermits());
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.release(a));
+        assertEquals(1, pool.getAvailablePermits());
+    }
+
+    @Test
+    public void prototypeBeanIsCreatedPerLookup() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.scope", new Properties());
+        ioc.initContainer();
+        Parser a = ioc.getChinaBean(Parser.class);
+        Parser b = ioc.getChinaBean(Parser.class);
+        assertNotSame(a, b);
+        assertSame(ioc.getChinaBean(Shared.class), a.shared);
+        assertTrue(a.hooked && b.hooked);
+    }
+
+    @Test
+    public void pooledBeanIsBorrowedAndReleased() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.scope", new Properties());
+        ioc.initContainer();
+        BeanPool pool = ioc.getBeanPool(Buffer.class);
+        assertNotNull(pool);
+        Buffer a = ioc.getChinaBean(Buffer.class);
+        Buffer b = ioc.getChinaBean(Buffer.class);
+        assertNotSame(a, b);
+        assertNotNull(a.shared);
+        // poolMaxTotal = 2，poolMaxWaitMillis = 0
+        assertNull(ioc.getChinaBean(Buffer.class));
+        assertTrue(ioc.releaseChinaBean(a));
+        assertSame(a, ioc.getChinaBean(Buffer.class));
+        assertEquals(1, pool.getHits());
+        assertFalse(ioc.releaseChinaBean(new Shared()));
+        assertTrue(ioc.releaseChinaBean(a));
+        assertFalse(ioc.releaseChinaBean(a));
+        assertEquals(1, pool.getAvailablePermits());
+    }
+}
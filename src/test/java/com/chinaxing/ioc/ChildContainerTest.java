@@ -0,0 +1,76 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.child.TenantContext;
+import com.chinaxing.ioc.testbeans.child.TenantGreeter;
+import com.chinaxing.ioc.testbeans.parent.Database;
+import com.chinaxing.ioc.testbeans.parent.DefaultGreeter;
+import com.chinaxing.ioc.testbeans.parent.Greeter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class ChildContainerTest {
+    private ChinaIOC parent;
+
+    @Before
+    public void setUp() throws Exception {
+        Database.created.set(0);
+        parent = new ChinaIOC("com.chinaxing.ioc.testbeans.parent", new Properties());
+        parent.initContainer();
+    }
+
+    private ChinaIOC child(Class<?>... beanClasses) throws InitializeBeanException {
+        ChinaIOC child = parent.createChild(beanClasses);
+        child.initContainer();
+        return child;
+    }
+
+    @Test
+    public void childBeansAreInjectedWithParentBeans() throws Exception {
+        ChinaIOC child = child(TenantContext.class);
+        assertSame(parent, child.getParent());
+        TenantContext context = child.getChinaBean(TenantContext.class);
+        assertNotNull(context);
+        assertSame(parent.getChinaBean(Database.class), context.database);
+        assertSame(parent.getChinaBean(Greeter.class), context.greeter);
+        assertSame(parent.getChinaBean("database"), child.getChinaBean("database"));
+        // 父容器的单例不会重新创建
+        assertEquals(1, Database.created.get());
+    }
+
+    @Test
+    public void childBeanShadowsParentBeanOfSameType() throws Exception {
+        ChinaIOC child = child(TenantContext.class, TenantGreeter.class);
+        TenantGreeter tenantGreeter = child.getChinaBean(TenantGreeter.class);
+        assertSame(tenantGreeter, child.getChinaBean(Greeter.class));
+        TenantContext context = child.getChinaBean(TenantContext.class);
+        assertSame(tenantGreeter, context.greeter);
+        assertEquals(1, context.greeters.size());
+        assertSame(tenantGreeter, context.greeters.get(0));
+        assertTrue(parent.getChinaBean(Greeter.class) instanceof DefaultGreeter);
+    }
+
+    @Test
+    public void parentCannotSeeChildBeans() throws Exception {
+        child(TenantContext.class, TenantGreeter.class);
+        assertNull(parent.getChinaBean(TenantContext.class));
+        assertNull(parent.getChinaBean("tenantContext"));
+        assertEquals(1, parent.getChinaBeansOfType(Greeter.class).size());
+    }
+
+    @Test
+    public void siblingsAreIndependent() throws Exception {
+        ChinaIOC first = child(TenantContext.class);
+        ChinaIOC second = child(TenantContext.class, TenantGreeter.class);
+        TenantContext a = first.getChinaBean(TenantContext.class);
+        TenantContext b = second.getChinaBean(TenantContext.class);
+        assertNotSame(a, b);
+        assertSame(a.database, b.database);
+        assertEquals("hello", a.greeter.greet());
+        assertEquals("hello tenant", b.greeter.greet());
+        assertNull(first.getChinaBean(TenantGreeter.class));
+    }
+}
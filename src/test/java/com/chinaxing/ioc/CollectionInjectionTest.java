@@ -0,0 +1,111 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.collection.*;
+import com.chinaxing.ioc.testbeans.collectionproto.FirstChain;
+import com.chinaxing.ioc.testbeans.collectionproto.ProtoHandler;
+import com.chinaxing.ioc.testbeans.collectionproto.SecondChain;
+import com.chinaxing.ioc.testbeans.collectionproto.SingleHandler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class CollectionInjectionTest {
+    private static ChinaIOC start(String basePackage) throws InitializeBeanException {
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties());
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void collectionsAreResolvedByElementType() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.collection");
+        PluginHost host = ioc.getChinaBean(PluginHost.class);
+        AlphaPlugin alpha = ioc.getChinaBean(AlphaPlugin.class);
+        BetaPlugin beta = ioc.getChinaBean(BetaPlugin.class);
+        assertEquals(2, host.list.size());
+        assertTrue(host.list.contains(alpha) && host.list.contains(beta));
+        assertEquals(2, host.set.size());
+        assertEquals(host.list, new ArrayList<Plugin>(host.all));
+        assertSame(alpha, host.byName.get("alpha"));
+        assertSame(beta, host.byName.get("beta"));
+        // Map 和 List 顺序一致
+        assertEquals(host.list, new ArrayList<Plugin>(host.byName.values()));
+        assertTrue(host.none.isEmpty());
+    }
+
+    @Test
+    public void constructorParameterReceivesCollection() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.collection");
+        PluginHost host = ioc.getChinaBean(PluginHost.class);
+        assertEquals(host.list, host.constructed);
+    }
+
+    @Test
+    public void singletonCollectionIsSharedAndImmutable() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.collection");
+        PluginHost host = ioc.getChinaBean(PluginHost.class);
+        assertSame(host.list, ioc.getChinaBean(OtherHost.class).list);
+        assertSame(host.list, host.constructed);
+        try {
+            host.list.add(new AlphaPlugin());
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            host.byName.remove("alpha");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void prototypeElementsAreNotShared() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.collectionproto");
+        FirstChain first = ioc.getChinaBean(FirstChain.class);
+        SecondChain second = ioc.getChinaBean(SecondChain.class);
+        assertEquals(2, first.handlers.size());
+        assertNotSame(first.handlers, second.handlers);
+        SingleHandler single = ioc.getChinaBean(SingleHandler.class);
+        assertTrue(first.handlers.contains(single) && second.handlers.contains(single));
+        ProtoHandler a = null;
+        ProtoHandler b = null;
+        for (Object handler : first.handlers) {
+            if (handler instanceof ProtoHandler) a = (ProtoHandler) handler;
+        }
+        for (Object handler : second.handlers) {
+            if (handler instanceof ProtoHandler) b = (ProtoHandler) handler;
+        }
+        assertNotNull(a);
+        assertNotNull(b);
+        assertNotSame(a, b);
+    }
+
+    @Test
+    public void cachedCollectionIsRebuiltAfterRegistration() {
+        BeanContainer container = new BeanContainer();
+        container.registerBeanExpand(AlphaPlugin.class, new AlphaPlugin());
+        BeanContainer.BeanCollection before = container.getBeanCollection(Plugin.class);
+        assertSame(before, container.getBeanCollection(Plugin.class));
+        assertEquals(1, before.list.size());
+        container.registerBeanExpand(BetaPlugin.class, new BetaPlugin());
+        BeanContainer.BeanCollection after = container.getBeanCollection(Plugin.class);
+        assertNotSame(before, after);
+        assertEquals(2, after.list.size());
+        assertEquals(1, before.list.size());
+    }
+
+    @Test
+    public void onlyInterfaceCollectionTypesCanBeInjected() {
+        try {
+            start("com.chinaxing.ioc.testbeans.collectionbad");
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("only List, Set, Collection and Map<String, T> can be injected"));
+        }
+    }
+}
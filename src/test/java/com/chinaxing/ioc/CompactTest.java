@@ -0,0 +1,132 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.testbeans.Events;
+import com.chinaxing.ioc.testbeans.compact.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CompactTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.compact";
+
+    @Before
+    public void setUp() {
+        Events.clear();
+    }
+
+    private static Properties properties(String size) {
+        Properties properties = new Properties();
+        properties.setProperty("store.size", size);
+        return properties;
+    }
+
+    /**
+     * 等异步 hook 执行完再返回，避免它在后面的测试中记录事件
+     */
+    private static ChinaIOC start(boolean compactAfterInit) throws Exception {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setCompactAfterInit(compactAfterInit);
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, properties("1"), config);
+        ioc.initContainer();
+        ioc.getReadyFuture().get(5, TimeUnit.SECONDS);
+        return ioc;
+    }
+
+    private static ChinaBeanInfo storeInfo(ChinaBeanScope scope) throws Exception {
+        ChinaBeanInfo beanInfo = new ChinaBeanInfo("store", Store.class);
+        beanInfo.setScope(scope);
+        beanInfo.setConstructor(Store.class.getConstructor());
+        beanInfo.setUnInjectedFields(Collections.singletonList(Store.class.getField("size")));
+        beanInfo.setHooks(Collections.singletonList(Store.class.getMethod("init")));
+        beanInfo.setDestroyHooks(Collections.singletonList(Store.class.getMethod("close")));
+        return beanInfo;
+    }
+
+    @Test
+    public void compactDropsSingletonMetadata() throws Throwable {
+        ChinaBeanInfo beanInfo = storeInfo(ChinaBeanScope.SINGLETON);
+        beanInfo.compact();
+        assertNull(beanInfo.getConstructor());
+        assertTrue(beanInfo.getInjectFields().isEmpty());
+        assertTrue(beanInfo.getHooks().isEmpty());
+        assertTrue(beanInfo.getDependencies().isEmpty());
+        assertNull(beanInfo.getTiming());
+        // close 仍然需要销毁 hook
+        assertTrue(beanInfo.hasDestroyHooks());
+        // 压缩后仍然可以按字段注入，只是不再缓存 setter
+        Store store = new Store();
+        beanInfo.injectField(store, Store.class.getField("size"), 3);
+        assertEquals(3, store.size);
+    }
+
+    @Test
+    public void onDemandBeanKeepsMetadata() throws Exception {
+        ChinaBeanInfo beanInfo = storeInfo(ChinaBeanScope.PROTOTYPE);
+        beanInfo.compact();
+        assertNotNull(beanInfo.getConstructor());
+        assertEquals(1, beanInfo.getInjectFields().size());
+        assertEquals(Collections.<Method>singletonList(Store.class.getMethod("init")), beanInfo.getHooks());
+    }
+
+    @Test(timeout = 10000)
+    public void compactedContainerStillWorks() throws Exception {
+        ChinaIOC ioc = start(true);
+        assertTrue(Events.get().contains("store warm"));
+        Store store = ioc.getChinaBean(Store.class);
+        assertEquals(1, store.size);
+
+        Task a = ioc.getChinaBean(Task.class);
+        Task b = ioc.getChinaBean(Task.class);
+        assertNotSame(a, b);
+        assertSame(store, a.store);
+        assertTrue(a.hooked && b.hooked);
+
+        Cache cache = ioc.getChinaBean(Cache.class);
+        assertSame(store, cache.store);
+        assertTrue(cache.hooked);
+
+        assertNotNull(ioc.getChinaBean(Id.class));
+        assertNotSame(ioc.getChinaBean(Id.class), ioc.getChinaBean(Id.class));
+
+        ioc.reloadProperties(properties("2"));
+        assertEquals(2, store.size);
+
+        ioc.close();
+        assertTrue(Events.get().contains("store closed"));
+    }
+
+    @Test(timeout = 10000)
+    public void destroyOrderSurvivesCompactThroughBeanWithoutHooks() throws Exception {
+        for (boolean compact : new boolean[]{false, true}) {
+            Events.clear();
+            ChinaIOCConfig config = new ChinaIOCConfig();
+            config.setCompactAfterInit(compact);
+            ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.compactdestroy", new Properties(), config);
+            ioc.initContainer();
+            ioc.close();
+            assertEquals(Arrays.asList("api closed", "db closed"), Events.get());
+        }
+    }
+
+    @Test
+    public void compactIsIdempotentAndIgnoredBeforeInit() throws Exception {
+        ChinaIOC notStarted = new ChinaIOC(PACKAGE, properties("1"));
+        notStarted.compact();
+        notStarted.initContainer();
+        notStarted.getReadyFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(1, notStarted.getChinaBean(Store.class).size);
+
+        ChinaIOC ioc = start(false);
+        ioc.compact();
+        ioc.compact();
+        assertTrue(ioc.getChinaBean(Task.class).hooked);
+    }
+}
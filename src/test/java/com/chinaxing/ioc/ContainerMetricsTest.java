@@ -0,0 +1,127 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.metrics.Console;
+import com.chinaxing.ioc.testbeans.metrics.Meter;
+import com.chinaxing.ioc.testbeans.metrics.Sensor;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ContainerMetricsTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.metrics";
+
+    private final List<ChinaIOC> containers = new ArrayList<ChinaIOC>();
+
+    @After
+    public void tearDown() {
+        for (ChinaIOC ioc : containers) {
+            ioc.close();
+        }
+    }
+
+    private ChinaIOC start(boolean metrics) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setMetricsEnabled(metrics);
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, new Properties(), config);
+        containers.add(ioc);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    private static Set<ObjectName> registered() throws Exception {
+        return ManagementFactory.getPlatformMBeanServer().queryNames(new ObjectName(
+                "com.chinaxing.ioc:type=ContainerMetrics,package=" + ObjectName.quote(PACKAGE) + ",*"), null);
+    }
+
+    private static void lookupSensor(ChinaIOC ioc) {
+        try {
+            ioc.getChinaBean(Sensor.class);
+            fail();
+        } catch (BeanNotUniqueException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void disabledMetricsAreNull() throws Exception {
+        int before = registered().size();
+        ChinaIOC ioc = start(false);
+        assertNull(ioc.getMetrics());
+        assertEquals(before, registered().size());
+    }
+
+    @Test
+    public void lookupsAreCountedPerType() throws Exception {
+        ChinaIOC ioc = start(true);
+        ContainerMetricsMXBean metrics = ioc.getMetrics();
+        metrics.reset();
+        for (int i = 0; i < 3; i++) {
+            ioc.getChinaBean(Console.class);
+        }
+        ioc.getChinaBean("console");
+        assertEquals(Long.valueOf(4), metrics.getLookupCounts().get(Console.class.getName()));
+
+        metrics.reset();
+        assertEquals(Long.valueOf(0), metrics.getLookupCounts().get(Console.class.getName()));
+    }
+
+    @Test
+    public void notUniqueLookupsAreCounted() throws Exception {
+        ChinaIOC ioc = start(true);
+        ContainerMetricsMXBean metrics = ioc.getMetrics();
+        lookupSensor(ioc);
+        lookupSensor(ioc);
+        assertEquals(Long.valueOf(2), metrics.getNotUniqueCounts().get(Sensor.class.getName()));
+        assertEquals(2, metrics.getNotUniqueTotal());
+    }
+
+    @Test
+    public void factoryLatencyIsRecorded() throws Exception {
+        ChinaIOC ioc = start(true);
+        ContainerMetricsMXBean metrics = ioc.getMetrics();
+        metrics.reset();
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(ioc.getChinaBean(Meter.class));
+        }
+        FactoryLatency latency = metrics.getFactoryLatencies().get("meter");
+        assertNotNull(latency);
+        assertEquals(5, latency.getCount());
+        assertTrue(latency.toString(), latency.getMeanMicros() >= 1000);
+        assertTrue(latency.toString(), latency.getP50Micros() <= latency.getP99Micros());
+        assertTrue(latency.toString(), latency.getP99Micros() <= latency.getMaxMicros());
+    }
+
+    @Test
+    public void childLookupsAreCountedOnParent() throws Exception {
+        ChinaIOC parent = start(true);
+        parent.getMetrics().reset();
+        ChinaIOC child = parent.createChild();
+        containers.add(child);
+        child.initContainer();
+        child.getChinaBean(Console.class);
+        assertEquals(Long.valueOf(1), parent.getMetrics().getLookupCounts().get(Console.class.getName()));
+    }
+
+    @Test
+    public void mbeanIsRegisteredUntilClose() throws Exception {
+        Set<ObjectName> before = registered();
+        ChinaIOC ioc = start(true);
+        lookupSensor(ioc);
+        Set<ObjectName> names = registered();
+        names.removeAll(before);
+        assertEquals(1, names.size());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1L, server.getAttribute(names.iterator().next(), "NotUniqueTotal"));
+        ioc.close();
+        assertEquals(before, registered());
+    }
+}
@@ -0,0 +1,92 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.Events;
+import com.chinaxing.ioc.testbeans.destroyscope.Conn;
+import com.chinaxing.ioc.testbeans.destroyscope.Temp;
+import com.chinaxing.ioc.testbeans.destroyscope.UsedLazy;
+import com.chinaxing.ioc.testbeans.destroytimeout.Stuck;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class DestroyTest {
+    @Before
+    public void setUp() {
+        Events.clear();
+        Stuck.release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        Stuck.release.countDown();
+    }
+
+    private static ChinaIOC start(String basePackage) throws InitializeBeanException {
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties());
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void beansAreDestroyedInReverseDependencyOrder() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.destroy");
+        ioc.close();
+        assertEquals(Arrays.asList("service closed", "repo closed", "pool closed"), Events.get());
+        // 重复关闭不会再执行 hook
+        ioc.close();
+        assertEquals(3, Events.get().size());
+    }
+
+    @Test(timeout = 10000)
+    public void independentBeansAreDestroyedInParallel() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.destroyparallel");
+        long start = System.nanoTime();
+        ioc.close();
+        long millis = (System.nanoTime() - start) / 1000000;
+        assertEquals(3, Events.get().size());
+        assertTrue("close took " + millis + " ms", millis < 800);
+    }
+
+    @Test(timeout = 10000)
+    public void timedOutOrFailedHookDoesNotBlockShutdown() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.destroytimeout");
+        long start = System.nanoTime();
+        ioc.close();
+        long millis = (System.nanoTime() - start) / 1000000;
+        assertTrue("close took " + millis + " ms", millis < 5000);
+        assertEquals(Collections.singletonList("base closed"), Events.get());
+    }
+
+    @Test
+    public void onlyCreatedLazyBeansAreDestroyed() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.destroyscope");
+        assertNotNull(ioc.getChinaBean(UsedLazy.class));
+        ioc.close();
+        List<String> events = Events.get();
+        assertTrue(events.toString(), events.contains("usedLazy closed"));
+        assertFalse(events.toString(), events.contains("unusedLazy created"));
+        assertFalse(events.toString(), events.contains("unusedLazy closed"));
+    }
+
+    @Test
+    public void prototypesAndBorrowedInstancesAreNotDestroyed() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.destroyscope");
+        assertNotNull(ioc.getChinaBean(Temp.class));
+        Conn idle = ioc.getChinaBean(Conn.class);
+        ioc.getChinaBean(Conn.class);
+        assertTrue(ioc.releaseChinaBean(idle));
+        ioc.close();
+        List<String> events = Events.get();
+        assertFalse(events.toString(), events.contains("temp closed"));
+        // 只有归还到池中的空闲实例被销毁
+        assertEquals(events.toString(), 1, Collections.frequency(events, "conn closed"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.factory.ClientUser;
+import com.chinaxing.ioc.testbeans.factory.ExpensiveClient;
+import com.chinaxing.ioc.testbeans.factory.ExpensiveClientFactory;
+import com.chinaxing.ioc.testbeans.factory.Token;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class FactoryProductTest {
+    @Before
+    public void setUp() {
+        ExpensiveClientFactory.calls.set(0);
+    }
+
+    @Test
+    public void singletonProductIsCreatedOnce() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.factory", new Properties());
+        ioc.initContainer();
+        ClientUser user = ioc.getChinaBean(ClientUser.class);
+        assertSame(user.first, user.second);
+        assertSame(user.first, ioc.getChinaBean(ExpensiveClient.class));
+        assertSame(user.first, ioc.getChinaBeansOfType(ExpensiveClient.class).get(0));
+        assertEquals(1, ExpensiveClientFactory.calls.get());
+    }
+
+    @Test
+    public void prototypeProductIsCreatedPerLookup() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.factory", new Properties());
+        ioc.initContainer();
+        ClientUser user = ioc.getChinaBean(ClientUser.class);
+        assertNotSame(user.firstToken, user.secondToken);
+        assertNotSame(ioc.getChinaBean(Token.class), ioc.getChinaBean(Token.class));
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentFirstAccessCreatesOneProduct() throws Exception {
+        final BeanContainer container = new BeanContainer();
+        container.registerFactoryBean(ExpensiveClientFactory.class, new ExpensiveClientFactory(),
+                ExpensiveClientFactory.class.getMethod("create"), ExpensiveClient.class);
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<ExpensiveClient>> results = new ArrayList<Future<ExpensiveClient>>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<ExpensiveClient>() {
+                    @Override
+                    public ExpensiveClient call() throws Exception {
+                        start.await();
+                        return container.getBeanOfType(ExpensiveClient.class);
+                    }
+                }));
+            }
+            start.countDown();
+            ExpensiveClient first = results.get(0).get();
+            assertNotNull(first);
+            for (Future<ExpensiveClient> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, ExpensiveClientFactory.calls.get());
+    }
+}
@@ -0,0 +1,141 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FrozenBeanIndexTest {
+    interface Shape {
+    }
+
+    static class Circle implements Shape {
+    }
+
+    static class Square implements Shape {
+    }
+
+    static class Client {
+    }
+
+    static class ClientFactory {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)
+        public Client create() {
+            calls.incrementAndGet();
+            return new Client();
+        }
+    }
+
+    private static ClientFactory registerFactory(BeanContainer container) throws Exception {
+        ClientFactory factory = new ClientFactory();
+        container.registerFactoryBean(ClientFactory.class, factory, ClientFactory.class.getMethod("create"), Client.class);
+        return factory;
+    }
+
+    @Test
+    public void frozenLookupReturnsSameSingleton() throws Exception {
+        BeanContainer container = new BeanContainer();
+        Circle circle = new Circle();
+        container.registerBeanExpand(Circle.class, circle);
+        container.freeze();
+        assertTrue(container.isFrozen());
+        assertSame(circle, container.getBeanOfType(Circle.class));
+        assertSame(circle, container.getBeanOfType(Shape.class));
+        assertNull(container.getBeanOfType(Square.class));
+        List<Shape> shapes = container.getBeansOfType(Shape.class);
+        assertEquals(1, shapes.size());
+        assertSame(shapes, container.getBeansOfType(Shape.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenBeanListIsImmutable() {
+        BeanContainer container = new BeanContainer();
+        container.registerBeanExpand(Circle.class, new Circle());
+        container.freeze();
+        container.getBeansOfType(Shape.class).clear();
+    }
+
+    @Test
+    public void singletonProductIsCreatedWhenFreezing() throws Exception {
+        BeanContainer container = new BeanContainer();
+        ClientFactory factory = registerFactory(container);
+        container.freeze();
+        assertEquals(1, factory.calls.get());
+        Client client = container.getBeanOfType(Client.class);
+        assertNotNull(client);
+        assertSame(client, container.getBeanOfType(Client.class));
+        assertSame(client, container.getBeansOfType(Client.class).get(0));
+        assertEquals(1, factory.calls.get());
+    }
+
+    @Test
+    public void registrationAfterFreezeIsVisible() throws Exception {
+        BeanContainer container = new BeanContainer();
+        container.registerBeanExpand(Circle.class, new Circle());
+        container.freeze();
+        assertNotNull(container.getBeanOfType(Shape.class));
+
+        ClientFactory factory = registerFactory(container);
+        assertEquals(1, factory.calls.get());
+        assertNotNull(container.getBeanOfType(Client.class));
+        container.registerBeanExpand(Square.class, new Square());
+        assertEquals(2, container.getBeansOfType(Shape.class).size());
+        try {
+            container.getBeanOfType(Shape.class);
+            fail();
+        } catch (BeanNotUniqueException e) {
+            assertEquals("bean count 2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void registrationInvalidatesOnlyPublishedTypes() {
+        BeanContainer container = new BeanContainer();
+        container.registerBeanExpand(Circle.class, new Circle());
+        container.freeze();
+        FrozenBeanIndex index = container.getFrozenIndex();
+        FrozenBeanIndex.TypeEntry circle = index.get(Circle.class);
+        FrozenBeanIndex.TypeEntry shape = index.get(Shape.class);
+        FrozenBeanIndex.TypeEntry client = index.get(Client.class);
+
+        container.registerBeanExpand(Square.class, new Square());
+        assertSame(index, container.getFrozenIndex());
+        assertSame(circle, index.get(Circle.class));
+        assertSame(client, index.get(Client.class));
+        assertNotSame(shape, index.get(Shape.class));
+        assertEquals(2, index.get(Shape.class).count);
+        assertEquals(1, index.get(Square.class).count);
+    }
+
+    @Test
+    public void lazySingletonIsReadFromIndexAfterCreation() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        ChinaBeanInfo beanInfo = new ChinaBeanInfo("circle", Circle.class);
+        beanInfo.setLazy(true);
+        beanInfo.setCreator(new BeanCreator() {
+            @Override
+            public Object create(ChinaBeanInfo beanInfo) {
+                created.incrementAndGet();
+                return new Circle();
+            }
+        });
+        BeanContainer container = new BeanContainer();
+        container.registerBean(beanInfo);
+        container.freeze();
+        FrozenBeanIndex.TypeEntry entry = container.getFrozenIndex().get(Circle.class);
+        assertTrue(entry.lazySingleton);
+        assertNull(entry.createdLazyInstance());
+        assertEquals(0, created.get());
+
+        Circle circle = container.getBeanOfType(Circle.class);
+        assertSame(circle, entry.createdLazyInstance());
+        assertSame(circle, container.getBeanOfType(Circle.class));
+        assertEquals(1, created.get());
+    }
+}
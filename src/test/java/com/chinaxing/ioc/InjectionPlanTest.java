@@ -0,0 +1,139 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.method.Car;
+import com.chinaxing.ioc.testbeans.method.Engine;
+import com.chinaxing.ioc.testbeans.method.Wheel;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class InjectionPlanTest {
+    static class Target {
+        @Inject(property = true, propertyName = "title")
+        String title = "keep";
+        @Inject
+        Object dependency;
+        Object first;
+        Object second;
+
+        @Inject
+        void set(Object first, Object second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    private static InjectionPlan plan() throws Exception {
+        ChinaBeanInfo beanInfo = new ChinaBeanInfo("target", Target.class);
+        beanInfo.setUnInjectedFields(Arrays.asList(Target.class.getDeclaredField("title"),
+                Target.class.getDeclaredField("dependency")));
+        beanInfo.setInjectMethods(Collections.singletonList(
+                Target.class.getDeclaredMethod("set", Object.class, Object.class)));
+        return beanInfo.getInjectionPlan();
+    }
+
+    private static InjectionPlan.Resolver resolver(final Object... values) {
+        return new InjectionPlan.Resolver() {
+            private int next;
+
+            @Override
+            public Object resolve(InjectionPoint point) {
+                return values[next++];
+            }
+        };
+    }
+
+    @Test
+    public void fieldsAndMethodsAreCompiledInOrder() throws Exception {
+        InjectionPlan plan = plan();
+        assertEquals(3, plan.getSteps().length);
+        assertEquals(4, plan.getPoints().size());
+        assertEquals(InjectionPoint.Kind.PROPERTY, plan.getPoints().get(0).kind);
+        assertEquals(InjectionPoint.Kind.BEAN, plan.getPoints().get(1).kind);
+
+        Target target = new Target();
+        plan.inject(target, resolver("title", "dependency", "first", "second"), "target");
+        assertEquals("title", target.title);
+        assertEquals("dependency", target.dependency);
+        assertEquals("first", target.first);
+        assertEquals("second", target.second);
+    }
+
+    @Test
+    public void missingPropertyKeepsCurrentValue() throws Exception {
+        Target target = new Target();
+        plan().inject(target, resolver(null, "dependency", "first", "second"), "target");
+        assertEquals("keep", target.title);
+        assertEquals("dependency", target.dependency);
+    }
+
+    @Test
+    public void nothingIsWrittenWhenADependencyIsMissing() throws Exception {
+        Target target = new Target();
+        try {
+            plan().inject(target, resolver("title", "dependency", "first", null), "target");
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("cannot inject"));
+            assertTrue(e.getMessage(), e.getMessage().endsWith("of bean : target"));
+        }
+        // 所有值解析成功后才写入
+        assertEquals("keep", target.title);
+        assertNull(target.dependency);
+        assertNull(target.first);
+    }
+
+    @Test
+    public void beanReceivesFieldAndMethodInjection() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("car.name", "beetle");
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.method", properties);
+        ioc.initContainer();
+        Car car = ioc.getChinaBean(Car.class);
+        Engine engine = ioc.getChinaBean(Engine.class);
+        Wheel wheel = ioc.getChinaBean(Wheel.class);
+        assertSame(engine, car.engine);
+        assertSame(wheel, car.wheel);
+        assertSame(engine, car.assembledEngine);
+        assertSame(wheel, car.assembledWheel);
+        assertTrue(car.fieldsFirst);
+        assertEquals("beetle", car.name);
+    }
+
+    @Test
+    public void missingOptionalPropertiesAreSkipped() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.method", new Properties());
+        ioc.initContainer();
+        Car car = ioc.getChinaBean(Car.class);
+        assertNotNull(car);
+        assertEquals("red", car.color);
+        assertNull(car.name);
+        assertFalse(car.labelSet);
+        assertEquals("none", car.label);
+    }
+
+    @Test
+    public void missingPrimitivePropertyFails() {
+        try {
+            new ChinaIOC("com.chinaxing.ioc.testbeans.methodprimitive", new Properties()).initContainer();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("missing property gauge.max"));
+        }
+    }
+
+    @Test
+    public void injectMethodNeedsArguments() {
+        try {
+            new ChinaIOC("com.chinaxing.ioc.testbeans.methodbad", new Properties()).initContainer();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("@Inject method must have arguments"));
+        }
+    }
+}
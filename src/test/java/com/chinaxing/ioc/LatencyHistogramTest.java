@@ -0,0 +1,35 @@
+package com.chinaxing.ioc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void percentilesAreBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+        FactoryLatency latency = histogram.snapshot();
+        assertEquals(100, latency.getCount());
+        assertEquals(10.99, latency.getMeanMicros(), DELTA);
+        // 1000ns 在 (512, 1024] 桶中，1ms 在 (2^19, 2^20] 桶中
+        assertEquals(1.024, latency.getP50Micros(), DELTA);
+        assertEquals(1.024, latency.getP99Micros(), DELTA);
+        assertEquals(1048.576, latency.getMaxMicros(), DELTA);
+    }
+
+    @Test
+    public void emptyAndResetHistogramHasNoCount() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getCount());
+        histogram.record(5);
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMaxMicros(), DELTA);
+    }
+}
@@ -0,0 +1,122 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.lazy.Dashboard;
+import com.chinaxing.ioc.testbeans.lazy.Report;
+import com.chinaxing.ioc.testbeans.lazy.ReportImpl;
+import com.chinaxing.ioc.testbeans.lazydefault.DefaultBean;
+import com.chinaxing.ioc.testbeans.lazydefault.EagerBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class LazyBeanTest {
+    @Before
+    public void setUp() {
+        ReportImpl.created.set(0);
+        DefaultBean.created.set(0);
+        EagerBean.created.set(0);
+    }
+
+    private static ChinaIOC start(String basePackage, boolean lazyByDefault) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setLazyByDefault(lazyByDefault);
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties(), config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void lazyBeanIsInjectedAsProxyAndCreatedOnFirstUse() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.lazy", false);
+        Dashboard dashboard = ioc.getChinaBean(Dashboard.class);
+        assertTrue(Proxy.isProxyClass(dashboard.report.getClass()));
+        assertEquals(0, ReportImpl.created.get());
+
+        assertEquals("report hooked=true", dashboard.report.render());
+        assertEquals(1, ReportImpl.created.get());
+        assertSame(ioc.getChinaBean(ReportImpl.class), ioc.getChinaBean(Report.class));
+        assertEquals(1, ReportImpl.created.get());
+    }
+
+    @Test
+    public void objectMethodsDoNotCreateBean() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.lazy", false);
+        Report report = ioc.getChinaBean(Dashboard.class).report;
+        assertEquals(report, report);
+        assertFalse(report.equals(null));
+        assertEquals(System.identityHashCode(report), report.hashCode());
+        Set<Report> set = new HashSet<Report>();
+        set.add(report);
+        assertTrue(set.contains(report));
+        assertTrue(report.toString(), report.toString().startsWith("Lazy("));
+        assertEquals(0, ReportImpl.created.get());
+
+        report.render();
+        assertEquals(ioc.getChinaBean(ReportImpl.class).toString(), report.toString());
+        assertFalse(report.equals(ioc.getChinaBean(ReportImpl.class)));
+        assertTrue(set.contains(report));
+        assertEquals(1, ReportImpl.created.get());
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentFirstLookupCreatesOneInstance() throws Exception {
+        final ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.lazy", false);
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<ReportImpl>> results = new ArrayList<Future<ReportImpl>>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<ReportImpl>() {
+                    @Override
+                    public ReportImpl call() throws Exception {
+                        start.await();
+                        return ioc.getChinaBean(ReportImpl.class);
+                    }
+                }));
+            }
+            start.countDown();
+            ReportImpl first = results.get(0).get();
+            for (Future<ReportImpl> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, ReportImpl.created.get());
+    }
+
+    @Test
+    public void lazyByDefaultAppliesToDefaultModeOnly() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.lazydefault", true);
+        assertEquals(0, DefaultBean.created.get());
+        assertEquals(1, EagerBean.created.get());
+        assertNotNull(ioc.getChinaBean(DefaultBean.class));
+        assertEquals(1, DefaultBean.created.get());
+    }
+
+    @Test
+    public void eagerByDefault() throws Exception {
+        start("com.chinaxing.ioc.testbeans.lazydefault", false);
+        assertEquals(1, DefaultBean.created.get());
+    }
+
+    @Test
+    public void onlySingletonCanBeLazy() {
+        try {
+            start("com.chinaxing.ioc.testbeans.lazybad", false);
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("only singleton normal bean can be lazy"));
+        }
+    }
+}
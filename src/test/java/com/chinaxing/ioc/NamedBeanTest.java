@@ -0,0 +1,81 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.named.*;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class NamedBeanTest {
+    private static ChinaIOC start(String basePackage) throws InitializeBeanException {
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties());
+        ioc.initContainer();
+        return ioc;
+    }
+
+    private static void assertStartFails(String basePackage, String message) {
+        try {
+            start(basePackage);
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void beansAreLookedUpByName() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.named");
+        assertTrue(ioc.getChinaBean("local") instanceof LocalCache);
+        assertSame(ioc.getChinaBean(RemoteCache.class), ioc.getChinaBean("remote", Cache.class));
+        assertSame(ioc.getChinaBean(Unnamed.class), ioc.getChinaBean(Unnamed.class.getName()));
+        assertNull(ioc.getChinaBean("missing"));
+        assertNull(ioc.getChinaBean("missing", Cache.class));
+    }
+
+    @Test(expected = BeanNotUniqueException.class)
+    public void sameTypeIsStillNotUniqueByType() throws Exception {
+        start("com.chinaxing.ioc.testbeans.named").getChinaBean(Cache.class);
+    }
+
+    @Test
+    public void factoryBeanNameGivesProductForProductType() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.named");
+        Clock clock = ioc.getChinaBean("clock", Clock.class);
+        assertNotNull(clock);
+        assertSame(ioc.getChinaBean(Clock.class), clock);
+    }
+
+    @Test
+    public void qualifiersSelectBeanAtEveryInjectionPoint() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.named");
+        CacheUser user = ioc.getChinaBean(CacheUser.class);
+        Object local = ioc.getChinaBean("local");
+        Object remote = ioc.getChinaBean("remote");
+        assertSame(local, user.constructed);
+        assertSame(remote, user.field);
+        assertSame(remote, user.set);
+        assertSame(local, user.provider.get());
+        assertSame(ioc.getChinaBean(Clock.class), user.clock);
+    }
+
+    @Test
+    public void qualifierIsRejectedOnPropertyInjection() {
+        assertStartFails("com.chinaxing.ioc.testbeans.namedprop", "@Inject(name) is not supported on PROPERTY injection");
+    }
+
+    @Test
+    public void qualifierIsRejectedOnCollectionInjection() {
+        assertStartFails("com.chinaxing.ioc.testbeans.namedcoll", "@Inject(name) is not supported on COLLECTION injection");
+    }
+
+    @Test
+    public void unknownQualifierFails() {
+        assertStartFails("com.chinaxing.ioc.testbeans.namedmissing", "no bean named nothing");
+    }
+
+    @Test
+    public void duplicateNamesAreRejected() {
+        assertStartFails("com.chinaxing.ioc.testbeans.nameddup", "duplicate bean name same");
+    }
+}
@@ -0,0 +1,68 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.Events;
+import com.chinaxing.ioc.testbeans.graph.Controller;
+import com.chinaxing.ioc.testbeans.parallel.Joiner;
+import com.chinaxing.ioc.testbeans.parallel.Rendezvous;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ParallelInitTest {
+    @Before
+    public void setUp() {
+        Events.clear();
+    }
+
+    private static ChinaIOC start(String basePackage, int parallelism) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setParallelism(parallelism);
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties(), config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    private static String rootMessage(Throwable t) {
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+
+    @Test(timeout = 20000)
+    public void independentBeansAreCreatedConcurrently() throws Exception {
+        Rendezvous.latch = new CountDownLatch(3);
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.parallel", 4);
+        assertTrue(ioc.getChinaBean(Joiner.class).allConcurrent);
+    }
+
+    @Test
+    public void parallelStartupCreatesEachBeanOnceInDependencyOrder() throws Exception {
+        // 重复多次：节点完成得早时曾经被重复提交
+        for (int i = 0; i < 50; i++) {
+            Events.clear();
+            ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.graph", 4);
+            assertEquals(Arrays.asList("new repository", "new service"), Events.get());
+            assertTrue(ioc.getChinaBean(Controller.class).injectedBeforeHook);
+        }
+    }
+
+    @Test
+    public void sequentialModeInitializesSameGraph() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.graph", ChinaIOCConfig.SEQUENTIAL);
+        assertTrue(ioc.getChinaBean(Controller.class).injectedBeforeHook);
+    }
+
+    @Test
+    public void failureStopsParallelStartup() {
+        try {
+            start("com.chinaxing.ioc.testbeans.parallelfail", 4);
+            fail();
+        } catch (InitializeBeanException e) {
+            assertEquals("broken on purpose", rootMessage(e));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.convert.ConverterRegistry;
+import com.chinaxing.ioc.convert.PropertyConverter;
+import com.chinaxing.ioc.testbeans.props.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PropertyReloadTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.props";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 记录查找转换器的次数
+     */
+    private static class CountingRegistry extends ConverterRegistry {
+        final AtomicInteger lookups = new AtomicInteger();
+
+        CountingRegistry() {
+            register(HostPort.class, new PropertyConverter<HostPort>() {
+                @Override
+                public HostPort convert(String value) {
+                    int i = value.lastIndexOf(':');
+                    return new HostPort(value.substring(0, i), Integer.parseInt(value.substring(i + 1)));
+                }
+            });
+        }
+
+        @Override
+        public PropertyConverter<?> converterFor(Class<?> type) {
+            lookups.incrementAndGet();
+            return super.converterFor(type);
+        }
+    }
+
+    private static Properties properties() {
+        Properties properties = new Properties();
+        properties.setProperty("server.port", "8080");
+        properties.setProperty("server.maxBytes", "4294967296");
+        properties.setProperty("server.timeout", "30s");
+        properties.setProperty("server.enabled", "true");
+        properties.setProperty("server.mode", "FAST");
+        properties.setProperty("server.upstream", "backend:9090");
+        return properties;
+    }
+
+    private static ChinaIOCConfig config(ConverterRegistry registry) {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setConverterRegistry(registry);
+        return config;
+    }
+
+    private static ChinaIOC start(Properties properties, ChinaIOCConfig config) throws InitializeBeanException {
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, properties, config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    private static void write(File file, Properties properties) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void propertiesAreConvertedToFieldTypes() throws Exception {
+        ChinaIOC ioc = start(properties(), config(new CountingRegistry()));
+        ServerSettings settings = ioc.getChinaBean(ServerSettings.class);
+        assertEquals(8080, settings.port);
+        assertEquals(4294967296L, settings.maxBytes);
+        assertEquals(Duration.ofSeconds(30), settings.timeout);
+        assertTrue(settings.enabled);
+        assertEquals(Mode.FAST, settings.mode);
+        assertEquals("backend", settings.upstream.host);
+        assertEquals(9090, settings.upstream.port);
+    }
+
+    @Test
+    public void reloadReinjectsOnlyChangedProperties() throws Exception {
+        ChinaIOC ioc = start(properties(), config(new CountingRegistry()));
+        ServerSettings settings = ioc.getChinaBean(ServerSettings.class);
+        PortUser portUser = ioc.getChinaBean(PortUser.class);
+        // 没有变化的属性不会重新注入，手工改过的值保留
+        settings.maxBytes = 1;
+
+        Properties updated = properties();
+        updated.setProperty("server.port", "9000");
+        updated.setProperty("server.mode", "SAFE");
+        assertEquals(new TreeSet<String>(Arrays.asList("server.mode", "server.port")), ioc.reloadProperties(updated));
+        assertEquals(9000, settings.port);
+        assertEquals(9000, portUser.port);
+        assertEquals(Mode.SAFE, settings.mode);
+        assertEquals(1, settings.maxBytes);
+    }
+
+    @Test
+    public void removedPropertyKeepsCurrentValue() throws Exception {
+        ChinaIOC ioc = start(properties(), config(new CountingRegistry()));
+        ServerSettings settings = ioc.getChinaBean(ServerSettings.class);
+        Properties updated = properties();
+        updated.remove("server.timeout");
+        assertEquals(new TreeSet<String>(Arrays.asList("server.timeout")), ioc.reloadProperties(updated));
+        assertEquals(Duration.ofSeconds(30), settings.timeout);
+    }
+
+    @Test
+    public void badValueOnReloadKeepsContainerUsable() throws Exception {
+        ChinaIOC ioc = start(properties(), config(new CountingRegistry()));
+        ServerSettings settings = ioc.getChinaBean(ServerSettings.class);
+        Properties updated = properties();
+        updated.setProperty("server.port", "not a number");
+        updated.setProperty("server.enabled", "false");
+        ioc.reloadProperties(updated);
+        assertEquals(8080, settings.port);
+        assertFalse(settings.enabled);
+    }
+
+    @Test
+    public void convertersAreChosenOnceWhenPlanIsCompiled() throws Exception {
+        CountingRegistry registry = new CountingRegistry();
+        ChinaIOC ioc = start(properties(), config(registry));
+        int lookups = registry.lookups.get();
+        assertTrue(lookups > 0);
+        for (int i = 0; i < 10; i++) {
+            Properties updated = properties();
+            updated.setProperty("server.port", String.valueOf(9000 + i));
+            updated.setProperty("server.upstream", "backend:" + (9100 + i));
+            ioc.reloadProperties(updated);
+        }
+        assertEquals(9009, ioc.getChinaBean(ServerSettings.class).port);
+        assertEquals(lookups, registry.lookups.get());
+    }
+
+    @Test(timeout = 30000)
+    public void watchedFileIsReloaded() throws Exception {
+        File file = folder.newFile("server.properties");
+        write(file, properties());
+        ChinaIOCConfig config = config(new CountingRegistry());
+        config.setPropertiesFile(file);
+        ChinaIOC ioc = start(null, config);
+        try {
+            PortUser portUser = ioc.getChinaBean(PortUser.class);
+            assertEquals(8080, portUser.port);
+            Properties updated = properties();
+            updated.setProperty("server.port", "9443");
+            write(file, updated);
+            while (portUser.port != 9443) {
+                Thread.sleep(50);
+            }
+            assertEquals(9443, ioc.getChinaBean(ServerSettings.class).port);
+        } finally {
+            ioc.stopPropertyWatcher();
+        }
+    }
+}
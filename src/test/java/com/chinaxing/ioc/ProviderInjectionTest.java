@@ -0,0 +1,76 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.provider.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class ProviderInjectionTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.provider";
+
+    private static ChinaIOC start(boolean metrics) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setMetricsEnabled(metrics);
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, new Properties(), config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void providerReturnsInstanceAccordingToScope() throws Exception {
+        ChinaIOC ioc = start(false);
+        Consumer consumer = ioc.getChinaBean(Consumer.class);
+        Counter counter = ioc.getChinaBean(Counter.class);
+        assertSame(counter, consumer.counter.get());
+        assertSame(counter, consumer.namedCounter.get());
+
+        Job a = consumer.jobs.get();
+        Job b = consumer.jobs.get();
+        assertNotSame(a, b);
+        assertSame(counter, a.counter);
+
+        // 工厂产品每次调用工厂方法
+        assertNotNull(consumer.tickets.get());
+        assertNotSame(consumer.tickets.get(), consumer.tickets.get());
+    }
+
+    @Test
+    public void providerIsBoundToBeanInfo() throws Exception {
+        ChinaIOC ioc = start(false);
+        Consumer consumer = ioc.getChinaBean(Consumer.class);
+        assertTrue(consumer.counter instanceof BeanProvider);
+        assertEquals("Provider(counter)", consumer.counter.toString());
+    }
+
+    @Test
+    public void providerGetDoesNotLookUpContainer() throws Exception {
+        ChinaIOC ioc = start(true);
+        try {
+            Consumer consumer = ioc.getChinaBean(Consumer.class);
+            Map<String, Long> before = new HashMap<String, Long>(ioc.getMetrics().getLookupCounts());
+            assertFalse(before.isEmpty());
+            for (int i = 0; i < 100; i++) {
+                consumer.counter.get();
+                consumer.jobs.get();
+                consumer.tickets.get();
+            }
+            assertEquals(before, ioc.getMetrics().getLookupCounts());
+        } finally {
+            ioc.close();
+        }
+    }
+
+    @Test
+    public void providerNeedsTypeArgument() {
+        try {
+            new ChinaIOC("com.chinaxing.ioc.testbeans.providerbad", new Properties()).initContainer();
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Provider injection need a concrete type argument"));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.timing.Worker;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class StartupReportTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.timing";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ChinaIOC start() throws Exception {
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, new Properties());
+        ioc.initContainer();
+        ioc.getReadyFuture().get();
+        return ioc;
+    }
+
+    private static BeanTiming timing(ChinaIOC ioc, String beanName) {
+        for (BeanTiming timing : ioc.getStartupReport().getBeans()) {
+            if (timing.getBeanName().equals(beanName)) return timing;
+        }
+        throw new AssertionError("no timing of " + beanName);
+    }
+
+    private static List<String> names(List<BeanTiming> timings) {
+        List<String> names = new ArrayList<String>();
+        for (BeanTiming timing : timings) {
+            names.add(timing.getBeanName());
+        }
+        return names;
+    }
+
+    @Test
+    public void reportNamesSlowestBeansAndCriticalPath() throws Exception {
+        ChinaIOC ioc = start();
+        StartupReport report = ioc.getStartupReport();
+        assertNotNull(report);
+        assertEquals(4, report.getBeans().size());
+        assertEquals("slow", ioc.getSlowestBeans(1).get(0).getBeanName());
+        assertTrue(timing(ioc, "slow").getNanos(BeanPhase.INSTANTIATE) >= 50000000L);
+        assertTrue(timing(ioc, "slow").getNanos(BeanPhase.SCAN) > 0);
+
+        List<String> path = names(ioc.getCriticalPath());
+        assertTrue(path.toString(), path.indexOf("slow") >= 0 && path.indexOf("slow") < path.indexOf("downstream"));
+        assertTrue(report.getCriticalPathNanos() >= 55000000L);
+        assertTrue(report.toString().contains("slow"));
+    }
+
+    @Test
+    public void timingStopsWhenContainerIsReady() throws Exception {
+        ChinaIOC ioc = start();
+        BeanTiming worker = timing(ioc, "worker");
+        assertFalse(worker.isRecording());
+        long total = worker.getTotalNanos();
+        assertNotNull(ioc.getChinaBean(Worker.class));
+        assertNotNull(ioc.getChinaBean(Worker.class));
+        assertEquals(total, worker.getTotalNanos());
+    }
+
+    @Test
+    public void phasesAreRecordedAsJfrEvents() throws Exception {
+        File dump = new File(folder.getRoot(), "startup.jfr");
+        Recording recording = new Recording();
+        try {
+            recording.enable("com.chinaxing.ioc.BeanInstantiate").withThreshold(Duration.ZERO);
+            recording.start();
+            ChinaIOC ioc = start();
+            // 就绪之后创建的原型 bean 不再发出事件
+            ioc.getChinaBean(Worker.class);
+            recording.stop();
+            recording.dump(dump.toPath());
+        } finally {
+            recording.close();
+        }
+        List<String> beanNames = new ArrayList<String>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump.toPath())) {
+            if (event.getEventType().getName().equals("com.chinaxing.ioc.BeanInstantiate")) {
+                beanNames.add(event.getString("beanName"));
+            }
+        }
+        assertTrue(beanNames.toString(), beanNames.contains("slow"));
+        assertTrue(beanNames.toString(), beanNames.contains("downstream"));
+        assertFalse(beanNames.toString(), beanNames.contains("worker"));
+    }
+}
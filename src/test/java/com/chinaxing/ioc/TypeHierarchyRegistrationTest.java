@@ -0,0 +1,66 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.hierarchy.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class TypeHierarchyRegistrationTest {
+    interface Shape {
+    }
+
+    interface Polygon extends Shape {
+    }
+
+    static class Square implements Polygon {
+    }
+
+    private static ChinaBeanInfo beanInfo(String name, Object instance) {
+        ChinaBeanInfo beanInfo = new ChinaBeanInfo(name, instance.getClass());
+        beanInfo.setBeanInstance(instance);
+        beanInfo.setState(BeanState.HOOKED);
+        return beanInfo;
+    }
+
+    @Test
+    public void beanIsFoundBySuperInterface() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.hierarchy", new Properties());
+        ioc.initContainer();
+        UserEntity user = ioc.getChinaBean(UserEntity.class);
+        assertSame(user, ioc.getChinaBean(Named.class));
+        assertSame(user, ioc.getChinaBean(Entity.class));
+        assertSame(user, ioc.getChinaBean(AbstractEntity.class));
+        assertSame(user, ioc.getChinaBean(NameHolder.class).named);
+    }
+
+    @Test
+    public void registerBeansPublishesBatchInOneVersion() {
+        BeanContainer container = new BeanContainer();
+        List<ChinaBeanInfo> beans = new ArrayList<ChinaBeanInfo>();
+        for (int i = 0; i < 3; i++) {
+            beans.add(beanInfo("square" + i, new Square()));
+        }
+        container.registerBeans(beans);
+        assertEquals(beans, container.getBeanInfos(Shape.class, 1));
+        assertEquals(beans, container.getBeanInfos(Polygon.class, 1));
+        assertEquals(beans, container.getBeanInfos(Square.class, 1));
+        assertTrue(container.getBeanInfos(Shape.class, 0).isEmpty());
+        assertEquals(3, container.getBeansOfType(Shape.class).size());
+        assertSame(beans.get(1), container.getBeanInfo("square1"));
+    }
+
+    @Test
+    public void laterBatchAppendsToExistingTypes() {
+        BeanContainer container = new BeanContainer();
+        List<ChinaBeanInfo> first = new ArrayList<ChinaBeanInfo>();
+        first.add(beanInfo("a", new Square()));
+        container.registerBeans(first);
+        container.registerBeanExpand(Square.class, new Square());
+        assertEquals(2, container.getBeansOfType(Shape.class).size());
+        assertEquals(1, container.getBeanInfos(Shape.class, 1).size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.chinaxing.ioc;
+
+import com.chinaxing.ioc.testbeans.snapshot.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class WiringSnapshotTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.snapshot";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ChinaIOC start(File snapshot) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setStartupMode(StartupMode.SNAPSHOT);
+        config.setSnapshotFile(snapshot);
+        Properties properties = new Properties();
+        properties.setProperty("client.size", "3");
+        ChinaIOC ioc = new ChinaIOC(PACKAGE, properties, config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    private static void assertWired(ChinaIOC ioc) throws Exception {
+        Client client = ioc.getChinaBean(Client.class);
+        Settings settings = ioc.getChinaBean(Settings.class);
+        assertSame(settings, client.settings);
+        assertSame(ioc.getChinaBean("backup"), client.store);
+        assertEquals(2, client.stores.size());
+        assertSame(settings, client.settingsProvider.get());
+        assertSame(ioc.getChinaBean(Session.class), client.session);
+        assertSame(settings, client.session.settings);
+        assertEquals(3, client.size);
+        assertTrue(client.hooked);
+    }
+
+    private static InjectionPoint point(ChinaBeanInfo beanInfo, String name) throws InitializeBeanException {
+        for (InjectionPoint point : beanInfo.getInjectionPlan().getPoints()) {
+            if (point.toString().endsWith("." + name)) return point;
+        }
+        throw new AssertionError("no injection point " + name);
+    }
+
+    @Test
+    public void restartFromSnapshotWiresSameBeans() throws Exception {
+        File snapshot = new File(folder.getRoot(), "wiring.snap");
+        assertWired(start(snapshot));
+        assertTrue(snapshot.isFile());
+        assertNotNull(WiringSnapshot.read(snapshot, PACKAGE));
+        assertWired(start(snapshot));
+    }
+
+    @Test
+    public void snapshotKeepsResolvedBindings() throws Exception {
+        File snapshot = new File(folder.getRoot(), "wiring.snap");
+        start(snapshot);
+        BeanDependencyGraph graph = WiringSnapshot.read(snapshot, PACKAGE);
+        assertNotNull(graph);
+        graph.bindInjectionPoints();
+        ChinaBeanInfo client = null;
+        for (ChinaBeanInfo beanInfo : graph.getBeans()) {
+            if (beanInfo.getBeanClass() == Client.class) client = beanInfo;
+        }
+        assertNotNull(client);
+        assertEquals("backup", point(client, "store").boundBean.getBeanName());
+        assertEquals(Settings.class, point(client, "settingsProvider").boundBean.getBeanClass());
+        assertEquals(SessionFactory.class, point(client, "session").boundBean.getBeanClass());
+        // 集合和属性注入点不绑定
+        assertNull(point(client, "stores").boundBean);
+        assertNull(point(client, "size").boundBean);
+    }
+
+    @Test
+    public void changedClassFileInvalidatesSnapshot() throws Exception {
+        File snapshot = new File(folder.getRoot(), "wiring.snap");
+        start(snapshot);
+        File classFile = new File(Settings.class.getResource("Settings.class").toURI());
+        long lastModified = classFile.lastModified();
+        assertTrue(classFile.setLastModified(lastModified + 2000));
+        try {
+            assertNull(WiringSnapshot.read(snapshot, PACKAGE));
+            // 失效时按普通方式启动并重写快照
+            assertWired(start(snapshot));
+            assertNotNull(WiringSnapshot.read(snapshot, PACKAGE));
+        } finally {
+            classFile.setLastModified(lastModified);
+        }
+    }
+
+    @Test
+    public void contentChangeWithSameSizeAndTimeInvalidatesSnapshot() throws Exception {
+        File snapshot = new File(folder.getRoot(), "wiring.snap");
+        start(snapshot);
+        // 可重现构建固定了修改时间：改 SourceFile 属性中的一个字节，大小和修改时间都不变
+        File classFile = new File(Settings.class.getResource("Settings.class").toURI());
+        long lastModified = classFile.lastModified();
+        byte[] original = Files.readAllBytes(classFile.toPath());
+        try {
+            Files.write(classFile.toPath(), replace(original, "Settings.java", "Settingx.java"));
+            assertTrue(classFile.setLastModified(lastModified));
+            assertNull(WiringSnapshot.read(snapshot, PACKAGE));
+        } finally {
+            Files.write(classFile.toPath(), original);
+            classFile.setLastModified(lastModified);
+        }
+        assertNotNull(WiringSnapshot.read(snapshot, PACKAGE));
+    }
+
+    private static byte[] replace(byte[] bytes, String from, String to) throws Exception {
+        byte[] f = from.getBytes("UTF-8");
+        for (int i = 0; i + f.length <= bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + f.length), f)) {
+                byte[] result = bytes.clone();
+                System.arraycopy(to.getBytes("UTF-8"), 0, result, i, f.length);
+                return result;
+            }
+        }
+        throw new AssertionError(from + " not found");
+    }
+
+    @Test
+    public void unreadableSnapshotFallsBackToNormalStartup() throws Exception {
+        File snapshot = folder.newFile("broken.snap");
+        OutputStream out = new FileOutputStream(snapshot);
+        try {
+            out.write(new byte[]{1, 2, 3});
+        } finally {
+            out.close();
+        }
+        assertNull(WiringSnapshot.read(snapshot, PACKAGE));
+        assertWired(start(snapshot));
+        assertNotNull(WiringSnapshot.read(snapshot, PACKAGE));
+    }
+
+    @Test
+    public void snapshotOfAnotherPackageIsIgnored() throws Exception {
+        File snapshot = new File(folder.getRoot(), "wiring.snap");
+        start(snapshot);
+        assertNull(WiringSnapshot.read(snapshot, "com.chinaxing.ioc.testbeans.graph"));
+    }
+
+    @Test
+    public void snapshotModeNeedsFile() {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setStartupMode(StartupMode.SNAPSHOT);
+        try {
+            new ChinaIOC(PACKAGE, new Properties(), config);
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage().contains("snapshotFile"));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.chinaxing.ioc.convert;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConverterRegistryTest {
+    private final ConverterRegistry registry = new ConverterRegistry();
+
+    @Test
+    public void convertsBuiltInTypes() throws Exception {
+        assertEquals(8080, registry.convert(int.class, "8080"));
+        assertEquals(8080, registry.convert(Integer.class, "8080"));
+        assertEquals(1L << 40, registry.convert(long.class, String.valueOf(1L << 40)));
+        assertEquals(true, registry.convert(boolean.class, "true"));
+        assertEquals(1.5d, registry.convert(double.class, "1.5"));
+        assertEquals('x', registry.convert(char.class, "x"));
+        assertEquals(new BigDecimal("1.25"), registry.convert(BigDecimal.class, "1.25"));
+        assertEquals(new File("/tmp/a"), registry.convert(File.class, "/tmp/a"));
+        assertEquals(Charset.forName("UTF-8"), registry.convert(Charset.class, "UTF-8"));
+        assertEquals(TimeUnit.SECONDS, registry.convert(TimeUnit.class, " SECONDS "));
+    }
+
+    @Test
+    public void parsesDurationsWithUnits() {
+        assertEquals(Duration.ofMillis(500), ConverterRegistry.parseDuration("500"));
+        assertEquals(Duration.ofMillis(500), ConverterRegistry.parseDuration("500ms"));
+        assertEquals(Duration.ofSeconds(30), ConverterRegistry.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(5), ConverterRegistry.parseDuration("5m"));
+        assertEquals(Duration.ofHours(2), ConverterRegistry.parseDuration("2h"));
+        assertEquals(Duration.ofDays(1), ConverterRegistry.parseDuration("1d"));
+        assertEquals(Duration.ofSeconds(30), ConverterRegistry.parseDuration("PT30S"));
+    }
+
+    @Test
+    public void valueOfTargetTypeIsNotConverted() throws Exception {
+        Duration duration = Duration.ofSeconds(1);
+        assertSame(duration, registry.convert(Duration.class, duration));
+        assertNull(registry.convert(Duration.class, null));
+    }
+
+    @Test
+    public void registeredConverterReplacesBuiltIn() throws Exception {
+        PropertyConverter<?> builtIn = registry.converterFor(Integer.class);
+        assertSame(builtIn, registry.converterFor(Integer.class));
+        registry.register(Integer.class, new PropertyConverter<Integer>() {
+            @Override
+            public Integer convert(String value) {
+                return Integer.decode(value);
+            }
+        });
+        assertNotSame(builtIn, registry.converterFor(Integer.class));
+        assertEquals(255, registry.convert(Integer.class, "0xff"));
+    }
+
+    @Test
+    public void unknownTypeHasNoConverter() throws Exception {
+        assertNull(registry.converterFor(Thread.class));
+        try {
+            registry.convert(Thread.class, "main");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("no property converter for type"));
+        }
+    }
+}
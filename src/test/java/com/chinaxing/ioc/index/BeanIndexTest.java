@@ -0,0 +1,135 @@
+package com.chinaxing.ioc.index;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import com.chinaxing.ioc.InitializeBeanException;
+import com.chinaxing.ioc.StartupMode;
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+import com.chinaxing.ioc.testbeans.index.Connection;
+import com.chinaxing.ioc.testbeans.index.IndexedService;
+import com.chinaxing.ioc.testbeans.index.UnindexedBean;
+import com.chinaxing.ioc.testbeans.noindex.PlainBean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * 测试 classpath 上的索引 (src/test/resources) 只包含 testbeans.index 包中的 IndexedService 和 ConnectionFactory
+ */
+public class BeanIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ChinaIOC start(String basePackage, StartupMode mode) throws InitializeBeanException {
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setStartupMode(mode);
+        ChinaIOC ioc = new ChinaIOC(basePackage, new Properties(), config);
+        ioc.initContainer();
+        return ioc;
+    }
+
+    @Test
+    public void indexModeCreatesOnlyIndexedBeans() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.index", StartupMode.INDEX);
+        IndexedService service = ioc.getChinaBean(IndexedService.class);
+        assertNotNull(service);
+        assertNotNull(service.connection);
+        assertSame(service, ioc.getChinaBean("indexedService"));
+        assertTrue(ioc.getChinaBeansOfType(UnindexedBean.class).isEmpty());
+    }
+
+    @Test
+    public void scanModeIgnoresIndex() throws Exception {
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.index", StartupMode.SCAN);
+        assertNotNull(ioc.getChinaBean(UnindexedBean.class));
+        assertNotNull(ioc.getChinaBean(Connection.class));
+    }
+
+    @Test
+    public void autoModeScansPackageMissingFromIndex() throws Exception {
+        assertNull(BeanIndex.load("com.chinaxing.ioc.testbeans.noindex"));
+        ChinaIOC ioc = start("com.chinaxing.ioc.testbeans.noindex", StartupMode.AUTO);
+        assertNotNull(ioc.getChinaBean(PlainBean.class));
+    }
+
+    @Test
+    public void indexModeFailsForPackageMissingFromIndex() {
+        try {
+            start("com.chinaxing.ioc.testbeans.noindex", StartupMode.INDEX);
+            fail();
+        } catch (InitializeBeanException e) {
+            assertTrue(e.getMessage().contains("com.chinaxing.ioc.testbeans.noindex"));
+        }
+    }
+
+    @Test
+    public void loadMatchesWholePackageSegments() throws Exception {
+        assertEquals(2, BeanIndex.load("com.chinaxing.ioc.testbeans.index").size());
+        assertNull(BeanIndex.load("com.chinaxing.ioc.testbeans.ind"));
+    }
+
+    @Test
+    public void writeAndReadRoundTrip() throws Exception {
+        BeanIndexEntry entry = new BeanIndexEntry("a.Factory");
+        entry.setType(ChinaBeanType.FACTORY_BEAN);
+        entry.setBeanName("factory");
+        entry.setFactoryMethod("create");
+        entry.setObjectTypeMethod("type");
+        StringWriter writer = new StringWriter();
+        BeanIndex.write(writer, Arrays.asList(entry, new BeanIndexEntry("a.Plain")));
+
+        List<BeanIndexEntry> read = BeanIndex.read(new ByteArrayInputStream(writer.toString().getBytes("UTF-8")));
+        assertEquals(2, read.size());
+        assertEquals("a.Factory", read.get(0).getClassName());
+        assertEquals(ChinaBeanType.FACTORY_BEAN, read.get(0).getType());
+        assertEquals("factory", read.get(0).getBeanName());
+        assertEquals("create", read.get(0).getFactoryMethod());
+        assertEquals("type", read.get(0).getObjectTypeMethod());
+        assertEquals("", read.get(1).getBeanName());
+    }
+
+    @Test
+    public void processorWritesIndexOfAnnotatedClasses() throws Exception {
+        File src = folder.newFolder("src");
+        File out = folder.newFolder("out");
+        File source = new File(src, "Gen.java");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+        try {
+            writer.write("package gen;\n"
+                    + "import com.chinaxing.ioc.annotation.*;\n"
+                    + "@ChinaBean(value = \"gen\", type = ChinaBeanType.FACTORY_BEAN)\n"
+                    + "public class Gen {\n"
+                    + "    @ChinaBeanFactoryMethod public String make() { return \"\"; }\n"
+                    + "    @ChinaBeanObjectType public static Class type() { return String.class; }\n"
+                    + "}\n");
+        } finally {
+            writer.close();
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int status = compiler.run(null, null, null, "-proc:only", "-d", out.getPath(),
+                "-cp", System.getProperty("java.class.path"),
+                "-processor", ChinaBeanIndexProcessor.class.getName(), source.getPath());
+        assertEquals(0, status);
+
+        InputStream in = new FileInputStream(new File(out, BeanIndex.INDEX_RESOURCE));
+        try {
+            List<BeanIndexEntry> entries = BeanIndex.read(in);
+            assertEquals(1, entries.size());
+            assertEquals("gen.Gen", entries.get(0).getClassName());
+            assertEquals("gen", entries.get(0).getBeanName());
+            assertEquals("make", entries.get(0).getFactoryMethod());
+            assertEquals("type", entries.get(0).getObjectTypeMethod());
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.chinaxing.ioc.testbeans;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 测试 bean 记录构造、hook 等事件的顺序
+ */
+public class Events {
+    private static final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+    public static void add(String event) {
+        events.add(event);
+    }
+
+    public static List<String> get() {
+        synchronized (events) {
+            return new ArrayList<String>(events);
+        }
+    }
+
+    public static void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package com.chinaxing.ioc.testbeans.async;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+import java.util.concurrent.CountDownLatch;
+
+@ChinaBean("dictionary")
+public class Dictionary {
+    /**
+     * 测试打开之前异步 hook 一直等待
+     */
+    public static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @AfterInit
+    public void init() {
+        Events.add("dictionary init");
+    }
+
+    @AfterInit(async = true)
+    public void warm() throws InterruptedException {
+        gate.await();
+        Events.add("dictionary warm");
+    }
+}
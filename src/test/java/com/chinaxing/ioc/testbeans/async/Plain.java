@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.async;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("plain")
+public class Plain {
+}
@@ -0,0 +1,17 @@
+package com.chinaxing.ioc.testbeans.async;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("searchIndex")
+public class SearchIndex {
+    @Inject
+    public Dictionary dictionary;
+
+    @AfterInit(async = true)
+    public void warm() {
+        Events.add("searchIndex warm");
+    }
+}
@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.asyncfail;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("brokenWarmup")
+public class Broken {
+    @AfterInit(async = true)
+    public void warm() {
+        throw new IllegalStateException("warmup failed");
+    }
+}
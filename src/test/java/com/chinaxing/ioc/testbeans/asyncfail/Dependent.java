@@ -0,0 +1,17 @@
+package com.chinaxing.ioc.testbeans.asyncfail;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("dependent")
+public class Dependent {
+    @Inject
+    public Broken broken;
+
+    @AfterInit(async = true)
+    public void warm() {
+        Events.add("dependent warm");
+    }
+}
@@ -0,0 +1,21 @@
+package com.chinaxing.ioc.testbeans.child;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.parent.Database;
+import com.chinaxing.ioc.testbeans.parent.Greeter;
+
+import java.util.List;
+
+/**
+ * 只在子容器中注册，不会被扫描
+ */
+@ChinaBean("tenantContext")
+public class TenantContext {
+    @Inject
+    public Database database;
+    @Inject
+    public Greeter greeter;
+    @Inject
+    public List<Greeter> greeters;
+}
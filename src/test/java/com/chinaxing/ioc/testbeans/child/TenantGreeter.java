@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.child;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.parent.Greeter;
+
+@ChinaBean("tenantGreeter")
+public class TenantGreeter implements Greeter {
+    @Override
+    public String greet() {
+        return "hello tenant";
+    }
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.collection;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("alpha")
+public class AlphaPlugin implements Plugin {
+}
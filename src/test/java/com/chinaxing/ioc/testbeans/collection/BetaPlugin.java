@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.collection;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("beta")
+public class BetaPlugin implements Plugin {
+}
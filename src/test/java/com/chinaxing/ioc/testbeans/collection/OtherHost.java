@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.collection;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.List;
+
+@ChinaBean
+public class OtherHost {
+    @Inject
+    public List<Plugin> list;
+}
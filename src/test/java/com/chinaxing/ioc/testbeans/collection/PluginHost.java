@@ -0,0 +1,29 @@
+package com.chinaxing.ioc.testbeans.collection;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@ChinaBean
+public class PluginHost {
+    public final List<Plugin> constructed;
+    @Inject
+    public List<Plugin> list;
+    @Inject
+    public Set<Plugin> set;
+    @Inject
+    public Collection<Plugin> all;
+    @Inject
+    public Map<String, Plugin> byName;
+    @Inject
+    public List<Runnable> none;
+
+    @Inject
+    public PluginHost(List<Plugin> constructed) {
+        this.constructed = constructed;
+    }
+}
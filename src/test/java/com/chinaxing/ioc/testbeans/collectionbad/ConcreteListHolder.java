@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.collectionbad;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.ArrayList;
+
+@ChinaBean
+public class ConcreteListHolder {
+    @Inject
+    public ArrayList<Runnable> runnables;
+}
@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.collectionproto;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.List;
+
+@ChinaBean
+public class FirstChain {
+    @Inject
+    public List<Handler> handlers;
+}
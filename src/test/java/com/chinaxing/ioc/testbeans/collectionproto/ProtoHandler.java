@@ -0,0 +1,8 @@
+package com.chinaxing.ioc.testbeans.collectionproto;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+
+@ChinaBean(value = "proto", scope = ChinaBeanScope.PROTOTYPE)
+public class ProtoHandler implements Handler {
+}
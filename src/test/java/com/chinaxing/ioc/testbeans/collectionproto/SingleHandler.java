@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.collectionproto;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("single")
+public class SingleHandler implements Handler {
+}
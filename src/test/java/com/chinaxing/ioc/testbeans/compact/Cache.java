@@ -0,0 +1,18 @@
+package com.chinaxing.ioc.testbeans.compact;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean(lazy = ChinaBeanLazyMode.LAZY)
+public class Cache {
+    @Inject
+    public Store store;
+    public boolean hooked;
+
+    @AfterInit
+    void init() {
+        hooked = store != null;
+    }
+}
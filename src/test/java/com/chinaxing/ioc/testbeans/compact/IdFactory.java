@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.compact;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class IdFactory {
+    @ChinaBeanFactoryMethod
+    public Id create() {
+        return new Id();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Id.class;
+    }
+}
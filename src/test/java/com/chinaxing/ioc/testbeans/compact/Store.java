@@ -0,0 +1,28 @@
+package com.chinaxing.ioc.testbeans.compact;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("store")
+public class Store {
+    @Inject(property = true, propertyName = "store.size")
+    public volatile int size;
+
+    @AfterInit
+    public void init() {
+        Events.add("store init");
+    }
+
+    @AfterInit(async = true)
+    public void warm() {
+        Events.add("store warm");
+    }
+
+    @BeforeDestroy
+    public void close() {
+        Events.add("store closed");
+    }
+}
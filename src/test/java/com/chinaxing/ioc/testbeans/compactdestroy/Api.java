@@ -0,0 +1,21 @@
+package com.chinaxing.ioc.testbeans.compactdestroy;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("api")
+public class Api {
+    public final Dao dao;
+
+    public Api(Dao dao) {
+        this.dao = dao;
+    }
+
+    @BeforeDestroy
+    void close() throws InterruptedException {
+        // Db 没有等待时会先记录
+        Thread.sleep(100);
+        Events.add("api closed");
+    }
+}
@@ -0,0 +1,13 @@
+package com.chinaxing.ioc.testbeans.compactdestroy;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+/**
+ * 没有销毁 hook，Api 通过它依赖 Db
+ */
+@ChinaBean("dao")
+public class Dao {
+    @Inject
+    public Db db;
+}
@@ -0,0 +1,13 @@
+package com.chinaxing.ioc.testbeans.compactdestroy;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("db")
+public class Db {
+    @BeforeDestroy
+    void close() {
+        Events.add("db closed");
+    }
+}
@@ -0,0 +1,9 @@
+package com.chinaxing.ioc.testbeans.cycle;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("cycleB")
+public class CycleB {
+    public CycleB(CycleA a) {
+    }
+}
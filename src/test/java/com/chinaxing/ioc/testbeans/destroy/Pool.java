@@ -0,0 +1,13 @@
+package com.chinaxing.ioc.testbeans.destroy;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("pool")
+public class Pool {
+    @BeforeDestroy
+    void close() {
+        Events.add("pool closed");
+    }
+}
@@ -0,0 +1,17 @@
+package com.chinaxing.ioc.testbeans.destroy;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("repo")
+public class Repo {
+    @Inject
+    public Pool pool;
+
+    @BeforeDestroy
+    void close() {
+        Events.add("repo closed");
+    }
+}
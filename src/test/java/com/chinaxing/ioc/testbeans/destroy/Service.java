@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.testbeans.destroy;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("service")
+public class Service {
+    public final Repo repo;
+
+    public Service(Repo repo) {
+        this.repo = repo;
+    }
+
+    @BeforeDestroy
+    void close() {
+        Events.add("service closed");
+    }
+}
@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.destroyparallel;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean
+public class SecondFlusher {
+    @BeforeDestroy
+    void flush() throws InterruptedException {
+        Thread.sleep(300);
+        Events.add("second flushed");
+    }
+}
@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.destroyscope;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean(scope = ChinaBeanScope.POOLED, poolMaxIdle = 2)
+public class Conn {
+    @BeforeDestroy
+    void close() {
+        Events.add("conn closed");
+    }
+}
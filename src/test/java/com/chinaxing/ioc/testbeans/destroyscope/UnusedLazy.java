@@ -0,0 +1,18 @@
+package com.chinaxing.ioc.testbeans.destroyscope;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean(lazy = ChinaBeanLazyMode.LAZY)
+public class UnusedLazy {
+    public UnusedLazy() {
+        Events.add("unusedLazy created");
+    }
+
+    @BeforeDestroy
+    void close() {
+        Events.add("unusedLazy closed");
+    }
+}
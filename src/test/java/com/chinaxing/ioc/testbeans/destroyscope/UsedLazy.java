@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.destroyscope;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean(lazy = ChinaBeanLazyMode.LAZY)
+public class UsedLazy {
+    @BeforeDestroy
+    void close() {
+        Events.add("usedLazy closed");
+    }
+}
@@ -0,0 +1,13 @@
+package com.chinaxing.ioc.testbeans.destroytimeout;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean("base")
+public class Base {
+    @BeforeDestroy
+    void close() {
+        Events.add("base closed");
+    }
+}
@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.destroytimeout;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean("failing")
+public class Failing {
+    @Inject
+    public Base base;
+
+    @BeforeDestroy
+    void close() {
+        throw new IllegalStateException("close failed");
+    }
+}
@@ -0,0 +1,22 @@
+package com.chinaxing.ioc.testbeans.destroytimeout;
+
+import com.chinaxing.ioc.annotation.BeforeDestroy;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.concurrent.CountDownLatch;
+
+@ChinaBean("stuck")
+public class Stuck {
+    /**
+     * 测试结束时放开
+     */
+    public static volatile CountDownLatch release = new CountDownLatch(1);
+    @Inject
+    public Base base;
+
+    @BeforeDestroy(timeoutMillis = 100)
+    void close() throws InterruptedException {
+        release.await();
+    }
+}
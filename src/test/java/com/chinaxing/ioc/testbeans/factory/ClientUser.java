@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.factory;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class ClientUser {
+    @Inject
+    public ExpensiveClient first;
+    @Inject
+    public ExpensiveClient second;
+    @Inject
+    public Token firstToken;
+    @Inject
+    public Token secondToken;
+}
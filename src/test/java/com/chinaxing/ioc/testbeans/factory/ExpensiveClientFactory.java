@@ -0,0 +1,22 @@
+package com.chinaxing.ioc.testbeans.factory;
+
+import com.chinaxing.ioc.annotation.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class ExpensiveClientFactory {
+    public static final AtomicInteger calls = new AtomicInteger();
+
+    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)
+    public ExpensiveClient create() throws InterruptedException {
+        calls.incrementAndGet();
+        Thread.sleep(20);
+        return new ExpensiveClient();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return ExpensiveClient.class;
+    }
+}
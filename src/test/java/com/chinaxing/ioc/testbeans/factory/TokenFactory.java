@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.factory;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class TokenFactory {
+    @ChinaBeanFactoryMethod
+    public Token create() {
+        return new Token();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Token.class;
+    }
+}
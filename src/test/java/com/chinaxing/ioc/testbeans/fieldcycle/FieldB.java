@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.fieldcycle;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class FieldB {
+    @Inject
+    public FieldA a;
+}
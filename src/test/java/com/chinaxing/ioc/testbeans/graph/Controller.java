@@ -0,0 +1,17 @@
+package com.chinaxing.ioc.testbeans.graph;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class Controller {
+    @Inject
+    public Service service;
+    public boolean injectedBeforeHook;
+
+    @AfterInit
+    void init() {
+        injectedBeforeHook = service != null && service.repository != null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.graph;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean
+public class Repository {
+    public Repository() {
+        Events.add("new repository");
+    }
+}
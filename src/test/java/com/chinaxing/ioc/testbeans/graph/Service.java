@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.graph;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.Events;
+
+@ChinaBean
+public class Service {
+    public final Repository repository;
+
+    public Service(Repository repository) {
+        Events.add("new service");
+        this.repository = repository;
+    }
+}
@@ -0,0 +1,4 @@
+package com.chinaxing.ioc.testbeans.header;
+
+public abstract class AbstractTask implements Runnable {
+}
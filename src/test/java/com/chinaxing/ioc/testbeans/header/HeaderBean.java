@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.header;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+
+import java.io.Serializable;
+
+@SuppressWarnings("serial")
+@ChinaBean(value = "headerBean", scope = ChinaBeanScope.SINGLETON, poolMaxIdle = 2)
+public class HeaderBean extends AbstractTask implements Serializable {
+    @Override
+    public void run() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.header;
+
+/**
+ * 扫描时不应被初始化
+ */
+public class NotABean extends AbstractTask {
+    public static final String INITIALIZED = "chinaxing.test.header.initialized";
+
+    static {
+        System.setProperty(INITIALIZED, "true");
+    }
+
+    @Override
+    public void run() {
+    }
+}
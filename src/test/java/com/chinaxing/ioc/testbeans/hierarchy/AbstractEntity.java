@@ -0,0 +1,4 @@
+package com.chinaxing.ioc.testbeans.hierarchy;
+
+public abstract class AbstractEntity implements Entity {
+}
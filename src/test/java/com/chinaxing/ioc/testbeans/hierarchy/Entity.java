@@ -0,0 +1,4 @@
+package com.chinaxing.ioc.testbeans.hierarchy;
+
+public interface Entity extends Named {
+}
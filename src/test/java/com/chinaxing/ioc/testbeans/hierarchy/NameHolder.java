@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.hierarchy;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class NameHolder {
+    @Inject
+    public Named named;
+}
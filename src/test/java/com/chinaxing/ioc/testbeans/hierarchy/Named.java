@@ -0,0 +1,5 @@
+package com.chinaxing.ioc.testbeans.hierarchy;
+
+public interface Named {
+    String name();
+}
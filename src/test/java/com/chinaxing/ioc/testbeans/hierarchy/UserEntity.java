@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.hierarchy;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean
+public class UserEntity extends AbstractEntity {
+    @Override
+    public String name() {
+        return "user";
+    }
+}
@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.hookfail;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("badHook")
+public class BadHook {
+    @AfterInit
+    public void init() {
+        throw new IllegalStateException("hook failed");
+    }
+}
@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.testbeans.index;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanFactoryMethod;
+import com.chinaxing.ioc.annotation.ChinaBeanObjectType;
+import com.chinaxing.ioc.annotation.ChinaBeanType;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class ConnectionFactory {
+    @ChinaBeanFactoryMethod
+    public Connection create() {
+        return new Connection();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Connection.class;
+    }
+}
@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.index;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean("indexedService")
+public class IndexedService {
+    @Inject
+    public Connection connection;
+}
@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.index;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+/**
+ * 不在测试索引中，只有扫描时才能发现
+ */
+@ChinaBean
+public class UnindexedBean {
+}
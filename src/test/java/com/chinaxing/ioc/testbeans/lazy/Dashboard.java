@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.lazy;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class Dashboard {
+    @Inject
+    public Report report;
+}
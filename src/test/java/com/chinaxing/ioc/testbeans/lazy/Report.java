@@ -0,0 +1,5 @@
+package com.chinaxing.ioc.testbeans.lazy;
+
+public interface Report {
+    String render();
+}
@@ -0,0 +1,28 @@
+package com.chinaxing.ioc.testbeans.lazy;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ChinaBean(lazy = ChinaBeanLazyMode.LAZY)
+public class ReportImpl implements Report {
+    public static final AtomicInteger created = new AtomicInteger();
+    private boolean hooked;
+
+    public ReportImpl() throws InterruptedException {
+        created.incrementAndGet();
+        Thread.sleep(10);
+    }
+
+    @AfterInit
+    void init() {
+        hooked = true;
+    }
+
+    @Override
+    public String render() {
+        return "report hooked=" + hooked;
+    }
+}
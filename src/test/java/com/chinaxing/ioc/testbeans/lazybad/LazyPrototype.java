@@ -0,0 +1,9 @@
+package com.chinaxing.ioc.testbeans.lazybad;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+
+@ChinaBean(scope = ChinaBeanScope.PROTOTYPE, lazy = ChinaBeanLazyMode.LAZY)
+public class LazyPrototype {
+}
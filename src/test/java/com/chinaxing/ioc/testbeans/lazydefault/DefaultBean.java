@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.lazydefault;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ChinaBean
+public class DefaultBean {
+    public static final AtomicInteger created = new AtomicInteger();
+
+    public DefaultBean() {
+        created.incrementAndGet();
+    }
+}
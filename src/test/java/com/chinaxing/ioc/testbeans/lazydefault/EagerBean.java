@@ -0,0 +1,15 @@
+package com.chinaxing.ioc.testbeans.lazydefault;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanLazyMode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ChinaBean(lazy = ChinaBeanLazyMode.EAGER)
+public class EagerBean {
+    public static final AtomicInteger created = new AtomicInteger();
+
+    public EagerBean() {
+        created.incrementAndGet();
+    }
+}
@@ -0,0 +1,45 @@
+package com.chinaxing.ioc.testbeans.method;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class Car {
+    @Inject
+    public Engine engine;
+    public Wheel wheel;
+    public Engine assembledEngine;
+    public Wheel assembledWheel;
+    /**
+     * 多参数方法执行时字段是否已经注入
+     */
+    public boolean fieldsFirst;
+    public String name;
+    @Inject(property = true, propertyName = "car.color")
+    public String color = "red";
+    public String label = "none";
+    public boolean labelSet;
+
+    @Inject
+    public void setWheel(Wheel wheel) {
+        this.wheel = wheel;
+    }
+
+    @Inject
+    void assemble(Engine engine, @Inject(name = "wheel") Wheel wheel) {
+        this.fieldsFirst = this.engine != null;
+        this.assembledEngine = engine;
+        this.assembledWheel = wheel;
+    }
+
+    @Inject(property = true, propertyName = "car.name")
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Inject(property = true, propertyName = "car.label")
+    public void setLabel(String label) {
+        this.label = label;
+        this.labelSet = true;
+    }
+}
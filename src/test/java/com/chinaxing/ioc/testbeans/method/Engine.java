@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.method;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("engine")
+public class Engine {
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.methodbad;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class NoArgs {
+    @Inject
+    public void init() {
+    }
+}
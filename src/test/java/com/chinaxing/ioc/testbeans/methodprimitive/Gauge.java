@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.methodprimitive;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean("gauge")
+public class Gauge {
+    @Inject(property = true, propertyName = "gauge.max")
+    public int max;
+}
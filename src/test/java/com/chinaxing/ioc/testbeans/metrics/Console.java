@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.metrics;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("console")
+public class Console {
+}
@@ -0,0 +1,17 @@
+package com.chinaxing.ioc.testbeans.metrics;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(value = "meter", type = ChinaBeanType.FACTORY_BEAN)
+public class MeterFactory {
+    @ChinaBeanFactoryMethod
+    public Meter create() throws InterruptedException {
+        Thread.sleep(1);
+        return new Meter();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Meter.class;
+    }
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.metrics;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("temp")
+public class TempSensor implements Sensor {
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.missing;
+
+/**
+ * 没有实现
+ */
+public interface Gateway {
+}
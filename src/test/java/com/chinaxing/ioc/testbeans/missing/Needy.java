@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.missing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean("needy")
+public class Needy {
+    @Inject
+    Gateway gateway;
+}
@@ -0,0 +1,27 @@
+package com.chinaxing.ioc.testbeans.named;
+
+import com.chinaxing.ioc.Provider;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class CacheUser {
+    public final Cache constructed;
+    @Inject(name = "remote")
+    public Cache field;
+    public Cache set;
+    @Inject(name = "local")
+    public Provider<Cache> provider;
+    @Inject(name = "clock")
+    public Clock clock;
+
+    @Inject
+    public CacheUser(@Inject(name = "local") Cache constructed) {
+        this.constructed = constructed;
+    }
+
+    @Inject(name = "remote")
+    public void setCache(Cache cache) {
+        this.set = cache;
+    }
+}
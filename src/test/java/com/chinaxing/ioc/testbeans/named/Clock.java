@@ -0,0 +1,4 @@
+package com.chinaxing.ioc.testbeans.named;
+
+public class Clock {
+}
@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.named;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(value = "clock", type = ChinaBeanType.FACTORY_BEAN)
+public class ClockFactory {
+    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)
+    public Clock create() {
+        return new Clock();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Clock.class;
+    }
+}
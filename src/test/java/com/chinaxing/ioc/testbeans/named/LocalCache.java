@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.named;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("local")
+public class LocalCache implements Cache {
+}
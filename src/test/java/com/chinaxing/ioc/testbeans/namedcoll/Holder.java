@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.namedcoll;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.List;
+
+@ChinaBean
+public class Holder {
+    @Inject(name = "first")
+    public List<Runnable> runnables;
+}
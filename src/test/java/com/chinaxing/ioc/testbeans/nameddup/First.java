@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.nameddup;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("same")
+public class First {
+}
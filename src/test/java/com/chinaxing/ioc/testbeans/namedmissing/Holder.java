@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.namedmissing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class Holder {
+    @Inject(name = "nothing")
+    public Runnable runnable;
+}
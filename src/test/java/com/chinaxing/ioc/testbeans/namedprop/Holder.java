@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.namedprop;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class Holder {
+    @Inject(property = true, propertyName = "holder.size", name = "size")
+    public Integer size;
+}
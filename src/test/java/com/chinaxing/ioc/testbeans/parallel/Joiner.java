@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.parallel;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean
+public class Joiner {
+    public final boolean allConcurrent;
+
+    public Joiner(WorkerA a, WorkerB b, WorkerC c) {
+        allConcurrent = a.concurrent && b.concurrent && c.concurrent;
+    }
+}
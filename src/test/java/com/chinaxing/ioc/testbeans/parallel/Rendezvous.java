@@ -0,0 +1,21 @@
+package com.chinaxing.ioc.testbeans.parallel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 所有 Worker 的构造器同时运行时才能都通过
+ */
+public class Rendezvous {
+    public static volatile CountDownLatch latch = new CountDownLatch(0);
+
+    static boolean arrive() {
+        latch.countDown();
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.chinaxing.ioc.testbeans.parallel;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean
+public class WorkerA {
+    public final boolean concurrent = Rendezvous.arrive();
+}
@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.parallelfail;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("broken")
+public class Broken {
+    public Broken() {
+        throw new IllegalStateException("broken on purpose");
+    }
+}
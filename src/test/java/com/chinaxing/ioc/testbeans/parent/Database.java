@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.parent;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ChinaBean("database")
+public class Database {
+    public static final AtomicInteger created = new AtomicInteger();
+
+    public Database() {
+        created.incrementAndGet();
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.parent;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("defaultGreeter")
+public class DefaultGreeter implements Greeter {
+    @Override
+    public String greet() {
+        return "hello";
+    }
+}
@@ -0,0 +1,5 @@
+package com.chinaxing.ioc.testbeans.parent;
+
+public interface Greeter {
+    String greet();
+}
@@ -0,0 +1,14 @@
+package com.chinaxing.ioc.testbeans.props;
+
+/**
+ * 需要自定义转换器的属性类型
+ */
+public class HostPort {
+    public final String host;
+    public final int port;
+
+    public HostPort(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+}
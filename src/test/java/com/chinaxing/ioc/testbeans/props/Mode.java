@@ -0,0 +1,5 @@
+package com.chinaxing.ioc.testbeans.props;
+
+public enum Mode {
+    FAST, SAFE
+}
@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.props;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class PortUser {
+    @Inject(property = true, propertyName = "server.port")
+    public volatile int port;
+}
@@ -0,0 +1,22 @@
+package com.chinaxing.ioc.testbeans.props;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.time.Duration;
+
+@ChinaBean
+public class ServerSettings {
+    @Inject(property = true, propertyName = "server.port")
+    public volatile int port;
+    @Inject(property = true, propertyName = "server.maxBytes")
+    public long maxBytes;
+    @Inject(property = true, propertyName = "server.timeout")
+    public Duration timeout;
+    @Inject(property = true, propertyName = "server.enabled")
+    public boolean enabled;
+    @Inject(property = true, propertyName = "server.mode")
+    public Mode mode;
+    @Inject(property = true, propertyName = "server.upstream")
+    public HostPort upstream;
+}
@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.testbeans.provider;
+
+import com.chinaxing.ioc.Provider;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.function.Supplier;
+
+@ChinaBean
+public class Consumer {
+    @Inject
+    public Provider<Counter> counter;
+    @Inject(name = "counter")
+    public Provider<Counter> namedCounter;
+    @Inject
+    public Supplier<Job> jobs;
+    @Inject
+    public Provider<Ticket> tickets;
+}
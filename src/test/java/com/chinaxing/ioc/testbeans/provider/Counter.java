@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.provider;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("counter")
+public class Counter {
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.provider;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean(scope = ChinaBeanScope.PROTOTYPE)
+public class Job {
+    @Inject
+    public Counter counter;
+}
@@ -0,0 +1,16 @@
+package com.chinaxing.ioc.testbeans.provider;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class TicketFactory {
+    @ChinaBeanFactoryMethod
+    public Ticket create() {
+        return new Ticket();
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Ticket.class;
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.providerbad;
+
+import com.chinaxing.ioc.Provider;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean
+public class RawHolder {
+    @Inject
+    public Provider provider;
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.scancache;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean
+public class Top {
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.scancache.sub;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+import com.chinaxing.ioc.testbeans.scancache.Top;
+
+@ChinaBean
+public class Nested {
+    @Inject
+    public Top top;
+}
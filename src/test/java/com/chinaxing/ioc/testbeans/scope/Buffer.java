@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.scope;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean(scope = ChinaBeanScope.POOLED, poolMaxIdle = 1, poolMaxTotal = 2, poolMaxWaitMillis = 0, poolStats = true)
+public class Buffer {
+    @Inject
+    public Shared shared;
+}
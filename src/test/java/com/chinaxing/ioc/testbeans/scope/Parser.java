@@ -0,0 +1,18 @@
+package com.chinaxing.ioc.testbeans.scope;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean(scope = ChinaBeanScope.PROTOTYPE)
+public class Parser {
+    @Inject
+    public Shared shared;
+    public boolean hooked;
+
+    @AfterInit
+    void init() {
+        hooked = shared != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.snapshot;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("backup")
+public class BackupStore implements Store {
+}
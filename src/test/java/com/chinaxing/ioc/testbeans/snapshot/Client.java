@@ -0,0 +1,34 @@
+package com.chinaxing.ioc.testbeans.snapshot;
+
+import com.chinaxing.ioc.Provider;
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+import java.util.List;
+
+@ChinaBean
+public class Client {
+    public final Settings settings;
+    @Inject(name = "backup")
+    public Store store;
+    @Inject
+    public List<Store> stores;
+    @Inject
+    public Provider<Settings> settingsProvider;
+    @Inject
+    public Session session;
+    @Inject(property = true, propertyName = "client.size")
+    public int size;
+    public boolean hooked;
+
+    @Inject
+    public Client(Settings settings) {
+        this.settings = settings;
+    }
+
+    @AfterInit
+    void init() {
+        hooked = true;
+    }
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.snapshot;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("primary")
+public class PrimaryStore implements Store {
+}
@@ -0,0 +1,9 @@
+package com.chinaxing.ioc.testbeans.snapshot;
+
+public class Session {
+    public final Settings settings;
+
+    public Session(Settings settings) {
+        this.settings = settings;
+    }
+}
@@ -0,0 +1,19 @@
+package com.chinaxing.ioc.testbeans.snapshot;
+
+import com.chinaxing.ioc.annotation.*;
+
+@ChinaBean(type = ChinaBeanType.FACTORY_BEAN)
+public class SessionFactory {
+    @Inject
+    Settings settings;
+
+    @ChinaBeanFactoryMethod(scope = ChinaBeanScope.SINGLETON)
+    public Session open() {
+        return new Session(settings);
+    }
+
+    @ChinaBeanObjectType
+    public static Class type() {
+        return Session.class;
+    }
+}
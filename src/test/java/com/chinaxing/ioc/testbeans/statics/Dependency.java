@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.statics;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean
+public class Dependency {
+}
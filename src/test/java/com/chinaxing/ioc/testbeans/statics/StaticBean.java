@@ -0,0 +1,26 @@
+package com.chinaxing.ioc.testbeans.statics;
+
+import com.chinaxing.ioc.annotation.AfterInit;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+/**
+ * 静态的注入字段、注入方法和 hook
+ */
+@ChinaBean
+public class StaticBean {
+    @Inject
+    public static Dependency field;
+    public static Dependency method;
+    public static boolean hooked;
+
+    @Inject
+    static void setMethod(Dependency dependency) {
+        method = dependency;
+    }
+
+    @AfterInit
+    static void init() {
+        hooked = field != null && method != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.chinaxing.ioc.testbeans.timing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.Inject;
+
+@ChinaBean("downstream")
+public class Downstream {
+    @Inject
+    public Downstream(SlowBean slow) throws InterruptedException {
+        Thread.sleep(5);
+    }
+}
@@ -0,0 +1,7 @@
+package com.chinaxing.ioc.testbeans.timing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("fast")
+public class FastBean {
+}
@@ -0,0 +1,10 @@
+package com.chinaxing.ioc.testbeans.timing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+
+@ChinaBean("slow")
+public class SlowBean {
+    public SlowBean() throws InterruptedException {
+        Thread.sleep(50);
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinaxing.ioc.testbeans.timing;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.annotation.ChinaBeanScope;
+
+@ChinaBean(value = "worker", scope = ChinaBeanScope.PROTOTYPE)
+public class Worker {
+    public Worker() throws InterruptedException {
+        Thread.sleep(5);
+    }
+}
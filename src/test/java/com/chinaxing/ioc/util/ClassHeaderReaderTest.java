@@ -0,0 +1,85 @@
+package com.chinaxing.ioc.util;
+
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.header.AbstractTask;
+import com.chinaxing.ioc.testbeans.header.HeaderBean;
+import com.chinaxing.ioc.testbeans.header.NotABean;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClassHeaderReaderTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.header";
+
+    private static ClassHeader header(String className) throws IOException {
+        InputStream in = ReflectionUtil.getClassPathResourceAsInputStream(className.replace('.', '/') + ".class");
+        try {
+            return ClassHeaderReader.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static List<String> names(List<? extends Class> classes) {
+        List<String> names = new ArrayList<String>();
+        for (Class c : classes) {
+            names.add(c.getSimpleName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    @Test
+    public void readsNamesAndAnnotationsWithoutLoading() throws Exception {
+        ClassHeader header = header(HeaderBean.class.getName());
+        assertEquals(HeaderBean.class.getName(), header.getClassName());
+        assertEquals(AbstractTask.class.getName(), header.getSuperClassName());
+        assertEquals(Arrays.asList(Serializable.class.getName()), header.getInterfaceNames());
+        assertEquals(Arrays.asList(ChinaBean.class.getName()), header.getAnnotationNames());
+        assertFalse(header.isAbstract());
+        assertFalse(header.isInterface());
+
+        ClassHeader base = header(AbstractTask.class.getName());
+        assertTrue(base.isAbstract());
+        assertEquals("java.lang.Object", base.getSuperClassName());
+        assertTrue(base.getAnnotationNames().isEmpty());
+    }
+
+    @Test
+    public void interfaceHasNoSuperClass() throws Exception {
+        ClassHeader header = header(Runnable.class.getName());
+        assertTrue(header.isInterface());
+        assertNull(header.getSuperClassName());
+    }
+
+    @Test
+    public void annotationSelectorSkipsClassesWithoutAnnotation() throws Exception {
+        AnnotationClassSelector<ChinaBean> selector = new AnnotationClassSelector<ChinaBean>(ChinaBean.class);
+        assertTrue(selector.selectHeader(header(HeaderBean.class.getName())));
+        assertFalse(selector.selectHeader(header(AbstractTask.class.getName())));
+
+        List<Class<?>> classes = ReflectionUtil.listPackageClass(PACKAGE, selector);
+        assertEquals(Arrays.asList("HeaderBean"), names(classes));
+        assertNull(System.getProperty(NotABean.INITIALIZED));
+    }
+
+    @Test
+    public void superClassSelectorFollowsHierarchyWithoutInitializing() throws Exception {
+        SuperClassSelector selector = new SuperClassSelector(Runnable.class);
+        assertTrue(selector.selectHeader(header(HeaderBean.class.getName())));
+        assertFalse(selector.selectHeader(header(AbstractTask.class.getName())));
+        assertFalse(new SuperClassSelector(Serializable.class).selectHeader(header(NotABean.class.getName())));
+
+        List<Class<?>> classes = ReflectionUtil.listPackageClass(PACKAGE, new SuperClassSelector(AbstractTask.class));
+        assertEquals(Arrays.asList("HeaderBean", "NotABean"), names(classes));
+        assertNull(System.getProperty(NotABean.INITIALIZED));
+    }
+}
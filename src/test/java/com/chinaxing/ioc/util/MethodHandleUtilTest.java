@@ -0,0 +1,108 @@
+package com.chinaxing.ioc.util;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.testbeans.statics.Dependency;
+import com.chinaxing.ioc.testbeans.statics.StaticBean;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class MethodHandleUtilTest {
+    static class Target {
+        static String shared;
+        private String name;
+        private int size;
+        private int calls;
+
+        private Target(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        private void touch() {
+            calls++;
+        }
+
+        private String describe() {
+            return name + ":" + size;
+        }
+
+        private int add(int a, int b) {
+            return size + a + b;
+        }
+
+        private void rename(String name) {
+            this.name = name;
+        }
+
+        static String prefix(String s) {
+            return "static:" + s;
+        }
+
+        static void reset() {
+            shared = "reset";
+        }
+    }
+
+    private static Target target() throws Throwable {
+        MethodHandle constructor = MethodHandleUtil.constructor(Target.class.getDeclaredConstructor(String.class, int.class));
+        return (Target) (Object) constructor.invokeExact(new Object[]{"t", 2});
+    }
+
+    @Test
+    public void constructorSpreadsAndUnboxesArguments() throws Throwable {
+        Target t = target();
+        assertEquals("t", t.name);
+        assertEquals(2, t.size);
+    }
+
+    @Test
+    public void setterWritesInstanceAndPrimitiveFields() throws Throwable {
+        Target t = target();
+        MethodHandleUtil.setter(Target.class.getDeclaredField("name")).invokeExact((Object) t, (Object) "renamed");
+        MethodHandleUtil.setter(Target.class.getDeclaredField("size")).invokeExact((Object) t, (Object) 7);
+        assertEquals("renamed", t.name);
+        assertEquals(7, t.size);
+    }
+
+    @Test
+    public void setterIgnoresTargetOfStaticField() throws Throwable {
+        MethodHandleUtil.setter(Target.class.getDeclaredField("shared")).invokeExact((Object) null, (Object) "value");
+        assertEquals("value", Target.shared);
+    }
+
+    @Test
+    public void methodHandlesCallInstanceMethods() throws Throwable {
+        Target t = target();
+        MethodHandleUtil.hook(Target.class.getDeclaredMethod("touch")).invokeExact((Object) t);
+        assertEquals(1, t.calls);
+        assertEquals("t:2", (String) (Object) MethodHandleUtil.invoker(Target.class.getDeclaredMethod("describe"))
+                .invokeExact((Object) t));
+        MethodHandle add = MethodHandleUtil.spreadInvoker(Target.class.getDeclaredMethod("add", int.class, int.class));
+        assertEquals(Integer.valueOf(6), (Integer) (Object) add.invokeExact((Object) t, new Object[]{1, 3}));
+        MethodHandleUtil.injector(Target.class.getDeclaredMethod("rename", String.class))
+                .invokeExact((Object) t, new Object[]{"injected"});
+        assertEquals("injected", t.name);
+    }
+
+    @Test
+    public void methodHandlesIgnoreTargetOfStaticMethods() throws Throwable {
+        MethodHandleUtil.hook(Target.class.getDeclaredMethod("reset")).invokeExact((Object) null);
+        assertEquals("reset", Target.shared);
+        MethodHandle prefix = MethodHandleUtil.spreadInvoker(Target.class.getDeclaredMethod("prefix", String.class));
+        assertEquals("static:x", (String) (Object) prefix.invokeExact((Object) null, new Object[]{"x"}));
+    }
+
+    @Test
+    public void containerInjectsStaticMembersAndRunsStaticHooks() throws Exception {
+        ChinaIOC ioc = new ChinaIOC("com.chinaxing.ioc.testbeans.statics", new Properties());
+        ioc.initContainer();
+        Dependency dependency = ioc.getChinaBean(Dependency.class);
+        assertSame(dependency, StaticBean.field);
+        assertSame(dependency, StaticBean.method);
+        assertTrue(StaticBean.hooked);
+    }
+}
@@ -0,0 +1,222 @@
+package com.chinaxing.ioc.util;
+
+import com.chinaxing.ioc.ChinaIOC;
+import com.chinaxing.ioc.ChinaIOCConfig;
+import com.chinaxing.ioc.annotation.ChinaBean;
+import com.chinaxing.ioc.testbeans.scancache.Top;
+import com.chinaxing.ioc.testbeans.scancache.sub.Nested;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.*;
+
+public class ScanCacheTest {
+    private static final String PACKAGE = "com.chinaxing.ioc.testbeans.scancache";
+    private static final String SCOPE = ChinaBean.class.getName();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 记录读取 class 文件头的次数
+     */
+    private static class CountingSelector implements ClassHeaderSelector {
+        private final AnnotationClassSelector<ChinaBean> selector = new AnnotationClassSelector<ChinaBean>(ChinaBean.class);
+        final AtomicInteger headers = new AtomicInteger();
+
+        @Override
+        public boolean selectHeader(ClassHeader header) {
+            headers.incrementAndGet();
+            return selector.selectHeader(header);
+        }
+
+        @Override
+        public boolean select(Class c) {
+            return selector.select(c);
+        }
+    }
+
+    private static Set<Class<?>> scan(CountingSelector selector, ScanCache cache) {
+        return new HashSet<Class<?>>(ReflectionUtil.<Object>listPackageClass(PACKAGE, selector, cache));
+    }
+
+    @Test
+    public void entriesSurviveSaveAndLoad() throws Exception {
+        File file = new File(folder.getRoot(), "scan.cache");
+        ScanCache cache = ScanCache.load(file, SCOPE);
+        assertNull(cache.get("dir", 1, 10));
+        cache.put("dir", 1, 10, Arrays.asList("a.B", "a.C"));
+        cache.save();
+
+        ScanCache loaded = ScanCache.load(file, SCOPE);
+        assertEquals(Arrays.asList("a.B", "a.C"), loaded.get("dir", 1, 10));
+        assertNull(loaded.get("dir", 2, 10));
+        // 快速校验值没变，内容变了
+        assertNull(loaded.get("dir", 1, 11));
+        // 用途不同的缓存不能混用
+        assertNull(ScanCache.load(file, "other").get("dir", 1, 10));
+    }
+
+    @Test
+    public void cleanCacheIsNotWritten() throws Exception {
+        File file = new File(folder.getRoot(), "scan.cache");
+        ScanCache.load(file, SCOPE).save();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void corruptFileGivesEmptyCache() throws Exception {
+        File file = folder.newFile("scan.cache");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[]{0x43, 0x49, 0x4F, 0x53, 0, 0, 0, 1, 0});
+        } finally {
+            out.close();
+        }
+        assertNull(ScanCache.load(file, SCOPE).get("dir", 1, 10));
+    }
+
+    @Test
+    public void unchangedDirectoriesAreNotRead() throws Exception {
+        File file = new File(folder.getRoot(), "scan.cache");
+        Set<Class<?>> expected = new HashSet<Class<?>>(Arrays.<Class<?>>asList(Top.class, Nested.class));
+
+        CountingSelector selector = new CountingSelector();
+        ScanCache cache = ScanCache.load(file, SCOPE);
+        assertEquals(expected, scan(selector, cache));
+        assertEquals(3, selector.headers.get());
+        cache.save();
+
+        selector = new CountingSelector();
+        assertEquals(expected, scan(selector, ScanCache.load(file, SCOPE)));
+        assertEquals(0, selector.headers.get());
+
+        // 只有修改过的目录重新扫描
+        File classFile = new File(Nested.class.getResource("Nested.class").toURI());
+        long lastModified = classFile.lastModified();
+        assertTrue(classFile.setLastModified(lastModified + 2000));
+        try {
+            selector = new CountingSelector();
+            assertEquals(expected, scan(selector, ScanCache.load(file, SCOPE)));
+            assertEquals(1, selector.headers.get());
+        } finally {
+            classFile.setLastModified(lastModified);
+        }
+    }
+
+    @Test
+    public void contentChangeWithSameSizeAndTimeIsDetected() throws Exception {
+        File file = new File(folder.getRoot(), "scan.cache");
+        ScanCache cache = ScanCache.load(file, SCOPE);
+        scan(new CountingSelector(), cache);
+        cache.save();
+
+        // 可重现构建固定了修改时间：改 SourceFile 属性中的一个字节，大小和修改时间都不变
+        File classFile = new File(Nested.class.getResource("Nested.class").toURI());
+        long lastModified = classFile.lastModified();
+        byte[] original = Files.readAllBytes(classFile.toPath());
+        try {
+            Files.write(classFile.toPath(), replace(original, "Nested.java", "Nestex.java"));
+            assertTrue(classFile.setLastModified(lastModified));
+            CountingSelector selector = new CountingSelector();
+            scan(selector, ScanCache.load(file, SCOPE));
+            assertEquals(1, selector.headers.get());
+        } finally {
+            Files.write(classFile.toPath(), original);
+            classFile.setLastModified(lastModified);
+        }
+    }
+
+    @Test
+    public void jarFingerprintUsesEntryCrc() throws Exception {
+        File jar = new File(folder.getRoot(), "beans.jar");
+        writeJar(jar, "aaaa");
+        long lastModified = jar.lastModified();
+        long length = jar.length();
+        long first = jarPackageFingerprint(jar);
+        assertEquals(first, jarPackageFingerprint(jar));
+
+        writeJar(jar, "bbbb");
+        assertTrue(jar.setLastModified(lastModified));
+        assertEquals(length, jar.length());
+        assertNotEquals(first, jarPackageFingerprint(jar));
+    }
+
+    private static void writeJar(File jar, String content) throws Exception {
+        byte[] bytes = content.getBytes("UTF-8");
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            // 包目录条目，类加载器才能找到包资源
+            out.putNextEntry(new JarEntry("jarbeans/"));
+            out.closeEntry();
+            // STORED 条目，内容长度相同时 jar 的大小也相同
+            JarEntry entry = new JarEntry("jarbeans/A.class");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCrc(crc.getValue());
+            entry.setTime(0);
+            out.putNextEntry(entry);
+            out.write(bytes);
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static long jarPackageFingerprint(File jar) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        thread.setContextClassLoader(loader);
+        try {
+            return ReflectionUtil.packageFingerprint("jarbeans");
+        } finally {
+            thread.setContextClassLoader(old);
+            loader.close();
+        }
+    }
+
+    /**
+     * 替换一段等长的字节
+     */
+    private static byte[] replace(byte[] bytes, String from, String to) throws Exception {
+        byte[] f = from.getBytes("UTF-8");
+        byte[] t = to.getBytes("UTF-8");
+        byte[] result = bytes.clone();
+        for (int i = 0; i + f.length <= bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + f.length), f)) {
+                System.arraycopy(t, 0, result, i, t.length);
+                return result;
+            }
+        }
+        throw new AssertionError(from + " not found");
+    }
+
+    @Test
+    public void containerUsesScanCache() throws Exception {
+        File file = new File(folder.getRoot(), "scan.cache");
+        ChinaIOCConfig config = new ChinaIOCConfig();
+        config.setScanCacheFile(file);
+        ChinaIOC first = new ChinaIOC(PACKAGE, new Properties(), config);
+        first.initContainer();
+        assertTrue(file.isFile());
+        ChinaIOC second = new ChinaIOC(PACKAGE, new Properties(), config);
+        second.initContainer();
+        Nested nested = second.getChinaBean(Nested.class);
+        assertSame(second.getChinaBean(Top.class), nested.top);
+    }
+}
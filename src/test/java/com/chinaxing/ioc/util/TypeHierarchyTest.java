@@ -0,0 +1,54 @@
+package com.chinaxing.ioc.util;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TypeHierarchyTest {
+    interface Animal {
+    }
+
+    interface Pet extends Animal {
+    }
+
+    interface Tagged extends Serializable {
+    }
+
+    static abstract class Base implements Tagged {
+    }
+
+    static class Dog extends Base implements Pet {
+    }
+
+    @Test
+    public void includesSuperClassesAndTransitiveInterfaces() {
+        Set<Class<?>> types = TypeHierarchy.getSuperTypes(Dog.class);
+        assertEquals(new ArrayList<Class<?>>(Arrays.<Class<?>>asList(Base.class, Object.class, Pet.class, Tagged.class,
+                Animal.class, Serializable.class)), new ArrayList<Class<?>>(types));
+        assertFalse(types.contains(Dog.class));
+    }
+
+    @Test
+    public void interfaceHasOnlySuperInterfaces() {
+        assertEquals(Arrays.<Class<?>>asList(Animal.class), new ArrayList<Class<?>>(TypeHierarchy.getSuperTypes(Pet.class)));
+        assertTrue(TypeHierarchy.getSuperTypes(Animal.class).isEmpty());
+        assertTrue(TypeHierarchy.getSuperTypes(Object.class).isEmpty());
+    }
+
+    @Test
+    public void resultIsMemoizedAndUnmodifiable() {
+        Set<Class<?>> types = TypeHierarchy.getSuperTypes(Dog.class);
+        assertSame(types, TypeHierarchy.getSuperTypes(Dog.class));
+        try {
+            types.add(String.class);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}